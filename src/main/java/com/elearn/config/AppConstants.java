@@ -2,6 +2,7 @@ package com.elearn.config;
 
 import java.io.File;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Application-wide constants.
@@ -21,6 +22,11 @@ public final class AppConstants {
         public static final String DEFAULT_PAGE_NUMBER = "0";
         public static final String DEFAULT_PAGE_SIZE = "10";
         public static final String DEFAULT_SORT_BY = "title";
+
+        /** Sort keys allowed for cursor paging, each backed by an index ending in the id */
+        public static final Set<String> COURSE_CURSOR_SORTS = Set.of("title", "price", "createdDate");
+        public static final Set<String> VIDEO_CURSOR_SORTS = Set.of("title");
+        public static final Set<String> CATEGORY_CURSOR_SORTS = Set.of("title");
         
         private Pagination() {}
     }
@@ -39,6 +45,19 @@ public final class AppConstants {
             
         public static final String DEFAULT_PROFILE_PIC_PATH = 
             String.join("/", UPLOADS, DEFAULT_PROFILE_PIC);
+
+        /** Media store key prefixes */
+        public static final String MEDIA_KEY_PREFIX = "media";
+        public static final String BANNER_KEY_PREFIX = String.join("/", COURSES, BANNERS);
+        public static final String BANNER_VARIANT_KEY_PREFIX = String.join("/", COURSES, BANNERS, "variants");
+        public static final String VIDEO_KEY_PREFIX = "videos";
+        /** Uploads being received, never referenced by a row */
+        public static final String STAGING_KEY_PREFIX = ".incoming";
+        /** Orphans moved aside by the garbage collector */
+        public static final String QUARANTINE_KEY_PREFIX = ".quarantine";
+
+        /** Staging directory below {@code video.upload.path} */
+        public static final String UPLOAD_SESSION_DIR = ".sessions";
             
         private Paths() {}
     }
@@ -131,4 +150,27 @@ public final class AppConstants {
         
         private Validation() {}
     }
+
+    /**
+     * Full-text search limits
+     */
+    public static final class Catalog {
+        /** Lower bounds of the price bands counted by the course filter, the last one open-ended */
+        public static final double[] PRICE_BANDS = { 0, 1000, 2500, 5000, 10000 };
+
+        private Catalog() {}
+    }
+
+    public static final class Search {
+        public static final int MIN_KEYWORD_LENGTH = 3;
+        /** Hits returned by the unpaged search methods */
+        public static final int DEFAULT_RESULTS = 50;
+        /** Deepest hit reachable by paging, bounds the ranking work per query */
+        public static final int MAX_RESULTS = 1000;
+        /** Autocomplete titles returned by default and at most */
+        public static final String DEFAULT_SUGGESTIONS = "10";
+        public static final int MAX_SUGGESTIONS = 10;
+
+        private Search() {}
+    }
 }
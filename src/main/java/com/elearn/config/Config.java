@@ -1,7 +1,8 @@
 package com.elearn.config;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import com.elearn.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,6 +10,8 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 
 @Configuration
 public class Config {
@@ -41,26 +44,20 @@ public class Config {
      * password encoder, which is used to encode the passwords of users.
      * </p>
      *
+     * <p>Hashes are BCrypt at {@code security.password.bcrypt-strength}, computed
+     * on a bounded pool of their own. Stored hashes of a lower strength are
+     * rehashed on the next successful login.</p>
+     *
      * @return the password encoder bean
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                           @Value("${security.password.hashing.threads:0}") int threads,
+                                           @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password.hashing.retry-after:PT2S}") Duration retryAfter,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, retryAfter,
+                meterRegistry);
     }
     /* <<<<<<<<<<  b305e93d-dde5-453a-8091-ee741aae23f5  >>>>>>>>>>> */
-
-    /**
-     * Configures and provides a ModelMapper bean.
-     * Sets the matching strategy to STRICT to ensure exact property name matching.
-     *
-     * @return a configured ModelMapper instance
-     */
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT)
-                .setSkipNullEnabled(true);
-        return modelMapper;
-    }
 }
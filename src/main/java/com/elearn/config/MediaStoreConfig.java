@@ -0,0 +1,70 @@
+package com.elearn.config;
+
+import com.elearn.storage.LocalMediaStore;
+import com.elearn.storage.MediaStore;
+import com.elearn.storage.S3MediaStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Selects the {@link MediaStore} backend with {@code media.storage.type}.
+ * {@code local} keeps media on this node's disk; {@code s3} puts it in a
+ * bucket shared by all nodes behind the load balancer.
+ */
+@Slf4j
+@Configuration
+public class MediaStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "media.storage.type", havingValue = "local", matchIfMissing = true)
+    public MediaStore localMediaStore(@Value("${media.storage.local.root:uploads}") String root,
+                                      @Value("${video.upload.path}") String legacyRoot) {
+        log.info("Using local media store rooted at {}", Paths.get(root).toAbsolutePath());
+        // Old video rows hold absolute paths into the upload directory
+        return new LocalMediaStore(Paths.get(root), Paths.get(legacyRoot));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "media.storage.type", havingValue = "s3")
+    public S3Client s3Client(@Value("${media.storage.s3.region:us-east-1}") String region,
+                             @Value("${media.storage.s3.endpoint:}") String endpoint,
+                             @Value("${media.storage.s3.access-key:}") String accessKey,
+                             @Value("${media.storage.s3.secret-key:}") String secretKey,
+                             @Value("${media.storage.s3.path-style-access:false}") boolean pathStyleAccess) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(pathStyleAccess)
+                        .build());
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        if (StringUtils.hasText(accessKey)) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "media.storage.type", havingValue = "s3")
+    public MediaStore s3MediaStore(S3Client s3Client, @Value("${media.storage.s3.bucket}") String bucket) {
+        log.info("Using S3 media store bucket {}", bucket);
+        return new S3MediaStore(s3Client, bucket);
+    }
+}
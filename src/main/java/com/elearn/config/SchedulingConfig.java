@@ -0,0 +1,12 @@
+package com.elearn.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} background jobs such as the media garbage collector.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,8 @@ package com.elearn.config;
 
 import com.elearn.exception.CustomAccessDeniedHandler;
 import com.elearn.security.JwtAuthenticationFilter;
+import com.elearn.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +27,7 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final CustomAuthenticationEntryPoint entryPoint;
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     
@@ -34,6 +37,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE, deferred results) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                             "/api/v1/auth/**",
                             "/error",
@@ -47,9 +52,14 @@ public class SecurityConfig {
                         .authenticationEntryPoint(entryPoint)
                         .accessDeniedHandler(customAccessDeniedHandler)
                 )
-                .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+                .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // The saved-request lookup reads request parameters, which would make the
+                // container parse (and spool) multipart bodies that upload endpoints stream
+                .requestCache(cache -> cache.disable());
 
         httpSecurity.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // After the token is read, so signed-in users are limited by who they are rather than where from
+        httpSecurity.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return httpSecurity.build();
     }
@@ -1,10 +1,12 @@
 package com.elearn.controller;
 
+import com.elearn.dto.CustomUserDetails;
 import com.elearn.dto.LoginRequest;
 import com.elearn.dto.LoginResponse;
 import com.elearn.dto.UserDto;
 import com.elearn.dto.UserResponseDto;
 import com.elearn.security.JwtUtil;
+import com.elearn.security.LoginThrottle;
 import com.elearn.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,8 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -36,9 +38,9 @@ import org.springframework.security.core.AuthenticationException;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
 
     @Operation(
             summary = "Authenticate user",
@@ -48,14 +50,19 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User authenticated successfully",
                     content = @Content(schema = @Schema(implementation = LoginResponse.class))),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many attempts from this address or failures for this account, see Retry-After"),
+            @ApiResponse(responseCode = "503", description = "Too many logins being checked at once, see Retry-After")
     })
     @PostMapping(
             value = "/login",
             produces = MediaType.APPLICATION_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
+        // Turned away before any hashing; the address is the client's behind a trusted proxy
+        loginThrottle.checkAttempt(loginRequest.getEmail(), request.getRemoteAddr());
         try {
             // Step 1: Authenticate
             UsernamePasswordAuthenticationToken authenticationToken =
@@ -64,13 +71,14 @@ public class AuthController {
                             loginRequest.getPassword()
                     );
 
-            authenticationManager.authenticate(authenticationToken);
+            Authentication authentication = authenticationManager.authenticate(authenticationToken);
+            loginThrottle.loginSucceeded(loginRequest.getEmail());
 
-            // Step 2: Load user details
-            UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getEmail());
+            // Step 2: The user details loaded to check the password
+            CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
 
-            // Step 3: Generate token
-            String token = jwtUtil.generateToken(userDetails.getUsername());
+            // Step 3: Generate token, carrying what later requests need to know about the user
+            String token = jwtUtil.generateToken(userDetails);
 
             // Step 4: Return custom response
             LoginResponse response = new LoginResponse(
@@ -82,6 +90,7 @@ public class AuthController {
             return ResponseEntity.ok(response);
 
         } catch (AuthenticationException ex) {//
+            loginThrottle.loginFailed(loginRequest.getEmail());
             throw new BadCredentialsException("Invalid User Details!!");
         }
     }
@@ -0,0 +1,152 @@
+package com.elearn.controller;
+
+import com.elearn.config.AppConstants;
+import com.elearn.dto.CourseBrowseResponse;
+import com.elearn.dto.CourseDto;
+import com.elearn.dto.CourseSummaryDto;
+import com.elearn.dto.CustomPageResponse;
+import com.elearn.media.BannerInfo;
+import com.elearn.media.BannerSize;
+import com.elearn.search.CourseFilter;
+import com.elearn.search.CourseSort;
+import com.elearn.services.BannerService;
+import com.elearn.services.CourseService;
+import com.elearn.upload.MultipartStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/courses")
+@RequiredArgsConstructor
+@Tag(name = "Courses", description = "Course endpoints")
+public class CourseController {
+
+    private final CourseService courseService;
+    private final BannerService bannerService;
+
+    @Operation(
+            summary = "List courses",
+            description = "Returns courses one page at a time for infinite scroll. Pass the nextCursor of a page to get "
+                    + "the following one; every page costs the same however far the client has scrolled. "
+                    + "The total is only counted when includeTotal is set",
+            tags = { "Courses" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of courses"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or page size")
+    })
+    @GetMapping
+    public ResponseEntity<CustomPageResponse<CourseSummaryDto>> list(
+            @Parameter(description = "nextCursor of the previous page, omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "title, price or createdDate")
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_SORT_BY) String sort,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_SIZE) int size,
+            @Parameter(description = "Only courses that are live")
+            @RequestParam(defaultValue = "false") boolean live,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(courseService.scrollCourses(cursor, size, sort, live, includeTotal));
+    }
+
+    @Operation(
+            summary = "Browse courses",
+            description = "Filters courses by category, live status, price and discount and returns one page of them "
+                    + "with the count of every category, live status and price band, so the browse page needs one call. "
+                    + "Each facet is counted under all filters except its own",
+            tags = { "Courses" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of courses and facet counts"),
+            @ApiResponse(responseCode = "400", description = "Invalid page, range or sort"),
+            @ApiResponse(responseCode = "503", description = "Catalog still loading after startup")
+    })
+    @GetMapping("/browse")
+    public ResponseEntity<CourseBrowseResponse> browse(
+            @Parameter(description = "Category ids, a course in any of them matches")
+            @RequestParam(name = "category", required = false) Set<String> categories,
+            @RequestParam(required = false) Boolean live,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Double minDiscount,
+            @RequestParam(required = false) Double maxDiscount,
+            @Parameter(description = "title, price_asc, price_desc or discount_desc")
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_NUMBER) int page,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_SIZE) int size) {
+        CourseFilter filter = new CourseFilter(categories, live, minPrice, maxPrice, minDiscount, maxDiscount,
+                CourseSort.from(sort));
+        return ResponseEntity.ok(courseService.browseCourses(filter, page, size));
+    }
+
+    @Operation(
+            summary = "Upload a course banner",
+            description = "Stores the banner image and renders its thumb, card and hero variants. "
+                    + "Send it as multipart/form-data in a part named 'banner'; the body is streamed, not buffered",
+            tags = { "Courses" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Banner saved"),
+            @ApiResponse(responseCode = "400", description = "Missing or unreadable image"),
+            @ApiResponse(responseCode = "404", description = "Course not found"),
+            @ApiResponse(responseCode = "413", description = "Image larger than 5MB")
+    })
+    @PostMapping(value = "/{courseId}/banner", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CourseDto> uploadBanner(@PathVariable String courseId,
+                                                  HttpServletRequest request) throws IOException {
+        MultipartStream.Part banner = MultipartStream.openFilePart(request, "banner");
+        return ResponseEntity.ok(courseService.saveBanner(courseId, banner.fileName(), banner.contentType(), banner.body()));
+    }
+
+    @Operation(
+            summary = "Get a course banner",
+            description = "Returns the banner image, optionally as a smaller JPEG variant for list and card views. "
+                    + "Supports If-None-Match and If-Modified-Since",
+            tags = { "Courses" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Banner image returned"),
+            @ApiResponse(responseCode = "304", description = "Client copy is current"),
+            @ApiResponse(responseCode = "400", description = "Unknown size"),
+            @ApiResponse(responseCode = "404", description = "Course or banner not found")
+    })
+    @GetMapping("/{courseId}/banner")
+    public ResponseEntity<Resource> getBanner(@PathVariable String courseId,
+                                              @Parameter(description = "original, thumb, card or hero")
+                                              @RequestParam(required = false) String size,
+                                              WebRequest request) {
+        BannerSize bannerSize = BannerSize.from(size);
+        BannerInfo info = bannerService.getBannerInfo(courseId);
+        if (request.checkNotModified(info.etag(bannerSize), info.lastModified())) {
+            // Status and validators are already set, no need to touch the image
+            return null;
+        }
+
+        String contentType = info.contentType(bannerSize);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(contentType != null
+                        ? MediaType.parseMediaType(contentType)
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .body(new ByteArrayResource(bannerService.getBannerBytes(info, bannerSize)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.elearn.controller;
+
+import com.elearn.config.AppConstants;
+import com.elearn.dto.CourseDto;
+import com.elearn.dto.CustomPageResponse;
+import com.elearn.dto.SuggestionDto;
+import com.elearn.dto.VideoDto;
+import com.elearn.services.CourseService;
+import com.elearn.services.SearchService;
+import com.elearn.services.VideoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Full-text search over the catalog")
+public class SearchController {
+
+    private final CourseService courseService;
+    private final VideoService videoService;
+    private final SearchService searchService;
+
+    @Operation(
+            summary = "Search courses",
+            description = "Ranks courses by how well their title and descriptions match the query, best first. "
+                    + "Set fuzzy to tolerate misspellings such as 'pyhton'",
+            tags = { "Search" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching courses"),
+            @ApiResponse(responseCode = "400", description = "Query shorter than 3 characters or page out of range")
+    })
+    @GetMapping("/courses")
+    public ResponseEntity<CustomPageResponse<CourseDto>> searchCourses(
+            @Parameter(description = "Search words") @RequestParam("q") String query,
+            @Parameter(description = "Also match words within one or two typos of the query words")
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_NUMBER) int page,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(courseService.searchCourses(query, fuzzy, page, size));
+    }
+
+    @Operation(
+            summary = "Search videos",
+            description = "Ranks videos by how well their title and description match the query, best first. "
+                    + "Set fuzzy to tolerate misspellings",
+            tags = { "Search" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching videos"),
+            @ApiResponse(responseCode = "400", description = "Page out of range")
+    })
+    @GetMapping("/videos")
+    public ResponseEntity<CustomPageResponse<VideoDto>> searchVideos(
+            @Parameter(description = "Search words") @RequestParam("q") String query,
+            @Parameter(description = "Also match words within one or two typos of the query words")
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_NUMBER) int page,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(videoService.searchVideos(query, fuzzy, page, size));
+    }
+
+    @Operation(
+            summary = "Autocomplete titles",
+            description = "Course and video titles with a word starting with the typed prefix, most purchased first. "
+                    + "Served from memory, suitable for calling on every keystroke",
+            tags = { "Search" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching titles, possibly none"),
+            @ApiResponse(responseCode = "400", description = "Blank prefix or limit out of range")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @Parameter(description = "Typed prefix") @RequestParam("q") String prefix,
+            @Parameter(description = "Titles to return, at most 10")
+            @RequestParam(defaultValue = AppConstants.Search.DEFAULT_SUGGESTIONS) int limit) {
+        return ResponseEntity.ok(searchService.suggest(prefix, limit));
+    }
+}
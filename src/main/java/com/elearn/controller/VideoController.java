@@ -0,0 +1,221 @@
+package com.elearn.controller;
+
+import com.elearn.config.AppConstants;
+import com.elearn.dto.CustomPageResponse;
+import com.elearn.dto.IngestJobDto;
+import com.elearn.dto.UploadSessionDto;
+import com.elearn.dto.UploadSessionRequest;
+import com.elearn.dto.VideoSummaryDto;
+import com.elearn.dto.VideoUploadResponse;
+import com.elearn.services.VideoIngestService;
+import com.elearn.services.VideoStreamService;
+import com.elearn.services.VideoUploadService;
+import com.elearn.services.VideoService;
+import com.elearn.services.VideoUploadSessionService;
+import com.elearn.upload.MultipartStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/videos")
+@RequiredArgsConstructor
+@Tag(name = "Videos", description = "Video streaming and upload endpoints")
+public class VideoController {
+
+    private final VideoStreamService videoStreamService;
+    private final VideoUploadService videoUploadService;
+    private final VideoUploadSessionService uploadSessionService;
+    private final VideoIngestService videoIngestService;
+    private final VideoService videoService;
+
+    @Operation(
+            summary = "List videos",
+            description = "Returns videos one page at a time for infinite scroll. Pass the nextCursor of a page to get "
+                    + "the following one. The total is only counted when includeTotal is set",
+            tags = { "Videos" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of videos"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or page size")
+    })
+    @GetMapping
+    public ResponseEntity<CustomPageResponse<VideoSummaryDto>> list(
+            @Parameter(description = "nextCursor of the previous page, omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_SORT_BY) String sort,
+            @RequestParam(defaultValue = AppConstants.Pagination.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(videoService.scrollVideos(cursor, size, sort, includeTotal));
+    }
+
+    @Operation(
+            summary = "Stream a video",
+            description = "Streams the uploaded video file. Supports Range and If-Range headers so players can seek",
+            tags = { "Videos" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Whole file returned"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range returned"),
+            @ApiResponse(responseCode = "404", description = "Video or video file not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+    })
+    @GetMapping("/{videoId}/stream")
+    public void streamVideo(@PathVariable String videoId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        videoStreamService.streamVideo(videoId, request, response);
+    }
+
+    @Operation(
+            summary = "Upload a video file",
+            description = "Streams the part named 'file' of a multipart/form-data body straight into the media store "
+                    + "and attaches it to the video",
+            tags = { "Videos" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see success flag"),
+            @ApiResponse(responseCode = "400", description = "Not a multipart request or no file part"),
+            @ApiResponse(responseCode = "413", description = "File exceeds the upload limit")
+    })
+    @PostMapping(value = "/{videoId}/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<VideoUploadResponse> uploadVideo(@PathVariable String videoId,
+                                                           HttpServletRequest request) throws IOException {
+        MultipartStream.Part file = MultipartStream.openFilePart(request, "file");
+        return ResponseEntity.ok(videoUploadService.uploadVideo(videoId, file.fileName(), file.contentType(), file.body()));
+    }
+
+    @Operation(
+            summary = "Start a resumable upload",
+            description = "Opens an upload session for the video and preallocates the target file",
+            tags = { "Videos" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Upload session created"),
+            @ApiResponse(responseCode = "404", description = "Video not found"),
+            @ApiResponse(responseCode = "409", description = "Another upload is in progress for this video")
+    })
+    @PostMapping("/{videoId}/uploads")
+    public ResponseEntity<UploadSessionDto> createUploadSession(@PathVariable String videoId,
+                                                                @Valid @RequestBody UploadSessionRequest request) throws IOException {
+        return new ResponseEntity<>(uploadSessionService.createSession(videoId, request), HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Upload a chunk",
+            description = "Writes the request body at the given offset. Chunks may be sent in parallel and in any order",
+            tags = { "Videos" }
+    )
+    @PutMapping("/{videoId}/uploads/{uploadId}")
+    public ResponseEntity<UploadSessionDto> uploadChunk(@PathVariable String videoId,
+                                                        @PathVariable String uploadId,
+                                                        @RequestParam long offset,
+                                                        @RequestHeader("Content-Length") long contentLength,
+                                                        HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.writeChunk(videoId, uploadId, offset, contentLength,
+                request.getInputStream()));
+    }
+
+    @Operation(
+            summary = "Get upload progress",
+            description = "Returns the byte ranges received so far, so an interrupted upload can resume",
+            tags = { "Videos" }
+    )
+    @GetMapping("/{videoId}/uploads/{uploadId}")
+    public ResponseEntity<UploadSessionDto> getUploadSession(@PathVariable String videoId,
+                                                             @PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadSessionService.getSession(videoId, uploadId));
+    }
+
+    @Operation(
+            summary = "Complete a resumable upload",
+            description = "Attaches the assembled file to the video once every byte has been received",
+            tags = { "Videos" }
+    )
+    @PostMapping("/{videoId}/uploads/{uploadId}/complete")
+    public ResponseEntity<VideoUploadResponse> completeUploadSession(@PathVariable String videoId,
+                                                                     @PathVariable String uploadId) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.completeSession(videoId, uploadId));
+    }
+
+    @Operation(
+            summary = "Abort a resumable upload",
+            description = "Discards the session and the partially written file",
+            tags = { "Videos" }
+    )
+    @DeleteMapping("/{videoId}/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUploadSession(@PathVariable String videoId,
+                                                   @PathVariable String uploadId) throws IOException {
+        uploadSessionService.abortSession(videoId, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Ingest a video file",
+            description = "Streams the part named 'file' of a multipart/form-data body into staging and processes it "
+                    + "in the background. Poll the returned job or subscribe to its events for progress",
+            tags = { "Videos" }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "File accepted, ingest job queued"),
+            @ApiResponse(responseCode = "400", description = "Empty file, not a video or no file part"),
+            @ApiResponse(responseCode = "404", description = "Video not found"),
+            @ApiResponse(responseCode = "413", description = "File exceeds the upload limit"),
+            @ApiResponse(responseCode = "503", description = "Ingest queue is full")
+    })
+    @PostMapping(value = "/{videoId}/ingest", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<IngestJobDto> ingestVideo(@PathVariable String videoId,
+                                                    HttpServletRequest request) throws IOException {
+        MultipartStream.Part file = MultipartStream.openFilePart(request, "file");
+        IngestJobDto job = videoIngestService.submit(videoId, file.fileName(), file.contentType(), file.body());
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/videos/ingest/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @Operation(
+            summary = "Get ingest job status",
+            description = "Returns the current stage and byte progress of an ingest job",
+            tags = { "Videos" }
+    )
+    @GetMapping("/ingest/{jobId}")
+    public ResponseEntity<IngestJobDto> getIngestJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(videoIngestService.getJob(jobId));
+    }
+
+    @Operation(
+            summary = "Follow ingest progress",
+            description = "Server-sent events with the job status on every stage change and progress step",
+            tags = { "Videos" }
+    )
+    @GetMapping(value = "/ingest/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followIngestJob(@PathVariable String jobId) {
+        return videoIngestService.subscribe(jobId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Inclusive byte range, as used in {@code Content-Range} headers.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ByteRangeDto {
+    private long start;
+    private long end;
+}
@@ -1,7 +1,5 @@
 package com.elearn.dto;
 
-import com.elearn.entity.Course;
-import com.elearn.entity.User;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
@@ -13,7 +11,6 @@ import lombok.Setter;
 
 import java.util.Date;
 import com.fasterxml.jackson.annotation.JsonFormat;
-import java.util.ArrayList;
 import java.util.List;
 
 @Setter
@@ -34,7 +31,8 @@ public class CategoryDto {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     private Date addedDate;
 
-    private List<Course> courses = new ArrayList<>();
+    /** Only filled for a single category */
+    private List<CourseSummaryDto> courses;
 
 }
 
@@ -0,0 +1,19 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A category as shown on a course, without its description or courses.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryDto {
+
+    private String id;
+    private String title;
+}
@@ -0,0 +1,46 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of filtered courses with the facet counts for the browse page.
+ * Each facet is counted under every filter except its own.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseBrowseResponse {
+
+    private CustomPageResponse<CourseSummaryDto> page;
+
+    /** Matching courses per category id */
+    private Map<String, Integer> categories;
+
+    private int liveCount;
+    private int notLiveCount;
+    private int discountedCount;
+
+    private List<PriceBand> priceBands;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBand {
+
+        /** Inclusive lower bound */
+        private double from;
+
+        /** Exclusive upper bound, null for the last band */
+        private Double to;
+
+        private int count;
+    }
+}
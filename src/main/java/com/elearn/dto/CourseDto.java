@@ -1,8 +1,6 @@
 package com.elearn.dto;
 
 import com.elearn.config.AppConstants;
-import com.elearn.entity.Category;
-import com.elearn.entity.Video;
 import com.elearn.validation.ValidPriceAndDiscount;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -54,6 +52,6 @@ public class CourseDto {
     private String banner;
     private String bannerContentType;
     
-    private List<Video> videos = new ArrayList<>();
-    private List<Category> categoryList = new ArrayList<>();
+    private List<VideoSummaryDto> videos = new ArrayList<>();
+    private List<CategorySummaryDto> categoryList = new ArrayList<>();
 }
@@ -0,0 +1,19 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The course a video belongs to, as shown with the video.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseHeaderDto {
+
+    private String id;
+    private String title;
+}
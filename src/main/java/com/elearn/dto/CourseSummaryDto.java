@@ -0,0 +1,24 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A course as shown in listings, without descriptions, videos or categories.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSummaryDto {
+
+    private String id;
+    private String title;
+    private String shortDesc;
+    private double price;
+    private double discount;
+    private boolean live;
+    private String banner;
+}
@@ -1,20 +1,32 @@
 package com.elearn.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.util.List;
+
+/**
+ * One page of a listing, reached either by page number or by cursor.
+ *
+ * <p>Cursor pages leave {@code pageNumber} out, and {@code totalElements}
+ * and {@code totalPages} unless the count was asked for. Pass
+ * {@code nextCursor} back to get the following page; it is absent on the
+ * last one.</p>
+ */
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CustomPageResponse<T> {
 
-    private int pageNumber;
+    private Integer pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean isLast;
     private List<T> content;
+    private String nextCursor;
 
 }
@@ -1,6 +1,7 @@
 package com.elearn.dto;
 
 
+import com.elearn.entity.Roles;
 import com.elearn.entity.User;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,14 +9,47 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-@Setter
+/**
+ * The authenticated user. Built from the {@link User} row at login, and from
+ * the claims of the access token on every later request, in which case there
+ * is no password.
+ */
 @Getter
-@RequiredArgsConstructor
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final String userId;
+    private final String email;
+    private final String password;
+    private final boolean active;
+    private final long tokenVersion;
+    private final Set<String> roles;
+
+    public CustomUserDetails(User user) {
+        this(user.getUserId(), user.getEmail(), user.getPassword(), user.isActive(), user.getTokenVersion(),
+                user.getRoles().stream().map(Roles::getRoleName).collect(Collectors.toUnmodifiableSet()));
+    }
+
+    private CustomUserDetails(String userId, String email, String password, boolean active, long tokenVersion,
+                              Set<String> roles) {
+        this.userId = userId;
+        this.email = email;
+        this.password = password;
+        this.active = active;
+        this.tokenVersion = tokenVersion;
+        this.roles = roles;
+    }
+
+    /**
+     * The bearer of a verified access token, whose account was still active
+     * at the token's version.
+     */
+    public static CustomUserDetails fromToken(String userId, String email, long tokenVersion,
+                                              Collection<String> roles) {
+        return new CustomUserDetails(userId, email, null, true, tokenVersion, Set.copyOf(roles));
+    }
 
 
     /**
@@ -24,9 +58,9 @@ public class CustomUserDetails implements UserDetails {
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
 
-        return user.getRoles()
+        return roles
                 .stream()
-                .map(roles -> new SimpleGrantedAuthority(roles.getRoleName()))
+                .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toSet());
 
     }
@@ -36,7 +70,7 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     /**
@@ -44,7 +78,7 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     /**
@@ -76,6 +110,6 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public boolean isEnabled() {
-        return UserDetails.super.isEnabled();
+        return active;
     }
 }
@@ -0,0 +1,23 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDto {
+
+    /** COURSE or VIDEO */
+    private String type;
+
+    private String id;
+
+    /** The course itself, or the course the video belongs to */
+    private String courseId;
+
+    private String title;
+}
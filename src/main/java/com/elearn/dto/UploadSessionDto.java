@@ -0,0 +1,30 @@
+package com.elearn.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UploadSessionDto {
+    private String uploadId;
+    private String videoId;
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    private long receivedBytes;
+    private List<ByteRangeDto> receivedRanges;
+    private boolean complete;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private Date expiresAt;
+}
@@ -1,7 +1,5 @@
 package com.elearn.dto;
 
-import com.elearn.entity.Course;
-import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,5 +20,15 @@ public class VideoDto {
 
     private String contentType;
 
-    private Course course;
+    private Long durationMillis;
+
+    private Long bitrate;
+
+    private Integer width;
+
+    private Integer height;
+
+    private String codec;
+
+    private CourseHeaderDto course;
 }
@@ -0,0 +1,22 @@
+package com.elearn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A video as shown in listings, without the file details or its course.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoSummaryDto {
+
+    private String id;
+    private String title;
+    private String description;
+    private Long durationMillis;
+    private String courseId;
+}
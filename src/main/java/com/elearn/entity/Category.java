@@ -2,13 +2,19 @@ package com.elearn.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        // Keyset pagination, see KeysetCursor
+        @Index(name = "idx_categories_title", columnList = "title, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +35,7 @@ public class Category {
     @Column(name = "added_date")
     private Date addedDate;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-courses")
     @ManyToMany(mappedBy = "categoryList", cascade = CascadeType.ALL)
     private List<Course> courses = new ArrayList<>();
 
@@ -2,6 +2,8 @@ package com.elearn.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -9,7 +11,16 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+        // Keyset pagination, see KeysetCursor
+        @Index(name = "idx_courses_title", columnList = "title, id"),
+        @Index(name = "idx_courses_price", columnList = "price, id"),
+        @Index(name = "idx_courses_created", columnList = "created_date, id"),
+        @Index(name = "idx_courses_live_title", columnList = "live, title, id")
+})
+// Course detail: the videos in the same query, the categories in one batch after it
+@NamedEntityGraph(name = Course.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("videos"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 @Getter
 @Setter
 @AllArgsConstructor
@@ -17,6 +28,8 @@ import java.util.List;
 @Builder
 public class Course {
 
+    public static final String DETAIL_GRAPH = "Course.detail";
+
     @Id
     @Column(length = 50)
     private String id;
@@ -55,6 +68,7 @@ public class Course {
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Video> videos = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-categories")
     @ManyToMany(cascade = CascadeType.ALL)
     @JoinTable(
             name = "course_categories",
@@ -1,12 +1,15 @@
 package com.elearn.entity;
 
+import com.elearn.security.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.management.relation.Role;
 import java.util.*;
 
 @Entity
+@EntityListeners(UserChangeListener.class)
 @Table(name = "users")
 @Setter
 @Getter
@@ -40,6 +43,11 @@ public class User {
     @Column(name = "sms_verified")
     private boolean smsVerified;
 
+    /** Access tokens carry the version they were issued at and stop working once it moves on */
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "created_at", updatable = false)
     private Date createdAt;
@@ -62,11 +70,21 @@ public class User {
     public void assignRole(Roles role){
         this.roles.add(role);
         role.getUsers().add(this);
+        revokeTokens();
 
     }
     public void removeRole(Roles role) {
         this.roles.remove(role);
         role.getUsers().remove(this);
+        revokeTokens();
+    }
+
+    /**
+     * Invalidates every access token issued so far, so a change to the
+     * account takes effect without waiting for them to expire.
+     */
+    public void revokeTokens() {
+        this.tokenVersion++;
     }
 
 
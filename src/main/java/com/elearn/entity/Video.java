@@ -7,13 +7,20 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "videos")
+@Table(name = "videos", indexes = {
+        // Keyset pagination, see KeysetCursor
+        @Index(name = "idx_videos_title", columnList = "title, id")
+})
+// Video detail: the course header in the same query
+@NamedEntityGraph(name = Video.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("course"))
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Video {
 
+    public static final String DETAIL_GRAPH = "Video.detail";
+
     @Id
     @Column(name = "id", length = 100)
     private String id;
@@ -31,6 +38,22 @@ public class Video {
     @Column(name = "content_type", length = 100)
     private String contentType;
 
+    @Column(name = "duration_ms")
+    private Long durationMillis;
+
+    /** Average bitrate in bits per second. */
+    @Column(name = "bitrate")
+    private Long bitrate;
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Column(name = "codec", length = 50)
+    private String codec;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
@@ -1,6 +1,7 @@
 package com.elearn.exception;
 
 import com.elearn.dto.CustomMessage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -27,4 +28,24 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(customMessage);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<CustomMessage> handleServiceUnavailable(ServiceUnavailableException ex) {
+        CustomMessage customMessage =new CustomMessage();
+        customMessage.setMessage(ex.getMessage());
+        customMessage.setSuccess(false);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(customMessage);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<CustomMessage> handleTooManyRequests(TooManyRequestsException ex) {
+        CustomMessage customMessage =new CustomMessage();
+        customMessage.setMessage(ex.getMessage());
+        customMessage.setSuccess(false);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(customMessage);
+    }
+
 }
@@ -0,0 +1,18 @@
+package com.elearn.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource is saturated and the client should retry
+ * later. Rendered as 503 with a {@code Retry-After} header.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.elearn.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when one client or account has made too many requests and should
+ * wait before the next one. Rendered as 429 with a {@code Retry-After}
+ * header.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,56 @@
+package com.elearn.ingest;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the SHA-256 digest of the staged upload, reporting byte progress.
+ * The digest taken while the upload was received is kept unless the probe
+ * stage rewrote the file.
+ */
+@Component
+@Order(200)
+public class ChecksumStage implements IngestStage {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    @Override
+    public String name() {
+        return "checksum";
+    }
+
+    @Override
+    public void process(IngestContext context) throws IOException {
+        if (context.getSha256() != null) {
+            context.getJob().progress(context.getSize());
+            return;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        try (InputStream in = Files.newInputStream(context.getStagedFile())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                total += read;
+                context.getJob().progress(total);
+            }
+        }
+        context.setSize(total);
+        context.setSha256(HexFormat.of().formatHex(digest.digest()));
+    }
+}
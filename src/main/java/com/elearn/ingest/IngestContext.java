@@ -0,0 +1,36 @@
+package com.elearn.ingest;
+
+import com.elearn.media.VideoMetadata;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+
+/**
+ * Working state of one ingest job as it moves through the stages.
+ */
+@Getter
+@Setter
+public class IngestContext {
+
+    private final IngestJob job;
+    private final String videoId;
+    private final String originalFilename;
+    private final String contentType;
+
+    /** Local copy of the upload, owned by the pipeline until the store stage takes it. */
+    private Path stagedFile;
+    private long size;
+    private String sha256;
+    private VideoMetadata metadata;
+    private String storedKey;
+    private String previousKey;
+
+    public IngestContext(IngestJob job, String videoId, String originalFilename, String contentType, Path stagedFile) {
+        this.job = job;
+        this.videoId = videoId;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.stagedFile = stagedFile;
+    }
+}
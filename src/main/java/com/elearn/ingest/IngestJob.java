@@ -0,0 +1,135 @@
+package com.elearn.ingest;
+
+import com.elearn.dto.IngestJobDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Status of one ingest job plus the SSE subscribers following it.
+ *
+ * <p>Updates come from the single pipeline thread running the job, readers
+ * only ever see snapshots taken with {@link #toDto()}.</p>
+ */
+@Slf4j
+public class IngestJob {
+
+    private final String jobId;
+    private final String videoId;
+    private final long totalBytes;
+    private final Date createdAt = new Date();
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile IngestState state = IngestState.QUEUED;
+    private volatile String stage;
+    private volatile long processedBytes;
+    private volatile String message;
+    private volatile Date updatedAt = createdAt;
+    private int lastReportedPercent = -1;
+
+    public IngestJob(String jobId, String videoId, long totalBytes) {
+        this.jobId = jobId;
+        this.videoId = videoId;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public IngestState getState() {
+        return state;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void stageStarted(String stageName) {
+        state = IngestState.RUNNING;
+        stage = stageName;
+        processedBytes = 0;
+        lastReportedPercent = -1;
+        publish("stage");
+    }
+
+    /**
+     * Reports byte progress of the current stage, publishing an event each
+     * time another whole percent is done.
+     */
+    public void progress(long bytes) {
+        processedBytes = bytes;
+        int percent = totalBytes > 0 ? (int) (bytes * 100 / totalBytes) : 100;
+        if (percent != lastReportedPercent) {
+            lastReportedPercent = percent;
+            publish("progress");
+        }
+    }
+
+    public void succeeded(String resultMessage) {
+        message = resultMessage;
+        state = IngestState.SUCCEEDED;
+        publish("completed");
+        completeSubscribers();
+    }
+
+    public void failed(String errorMessage) {
+        message = errorMessage;
+        state = IngestState.FAILED;
+        publish("failed");
+        completeSubscribers();
+    }
+
+    public void subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        send(emitter, "status");
+        if (state.isFinished()) {
+            subscribers.remove(emitter);
+            emitter.complete();
+        }
+    }
+
+    public IngestJobDto toDto() {
+        return IngestJobDto.builder()
+                .jobId(jobId)
+                .videoId(videoId)
+                .state(state)
+                .stage(stage)
+                .processedBytes(processedBytes)
+                .totalBytes(totalBytes)
+                .message(message)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private void publish(String eventName) {
+        updatedAt = new Date();
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, eventName);
+        }
+    }
+
+    private void send(SseEmitter emitter, String eventName) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(toDto()));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping ingest subscriber for job {}: {}", jobId, e.getMessage());
+            subscribers.remove(emitter);
+        }
+    }
+
+    private void completeSubscribers() {
+        for (SseEmitter emitter : subscribers) {
+            emitter.complete();
+        }
+        subscribers.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package com.elearn.ingest;
+
+import java.io.IOException;
+
+/**
+ * One step of the video ingest pipeline. Stages run in order on the ingest
+ * executor and share state through the {@link IngestContext}; each one is
+ * timed separately so it can be tuned on its own.
+ */
+public interface IngestStage {
+
+    /**
+     * @return the short name used in job status, events and metric tags
+     */
+    String name();
+
+    void process(IngestContext context) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.elearn.ingest;
+
+public enum IngestState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
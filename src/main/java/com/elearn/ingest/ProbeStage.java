@@ -0,0 +1,38 @@
+package com.elearn.ingest;
+
+import com.elearn.media.PreparedVideo;
+import com.elearn.media.VideoFilePreparer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Probes the staged upload for its metadata and rewrites MP4 files for
+ * faststart. Runs first, as the rewrite changes the bytes that get checksummed.
+ */
+@Component
+@Order(100)
+@RequiredArgsConstructor
+public class ProbeStage implements IngestStage {
+
+    private final VideoFilePreparer videoFilePreparer;
+
+    @Override
+    public String name() {
+        return "probe";
+    }
+
+    @Override
+    public void process(IngestContext context) throws IOException {
+        PreparedVideo prepared = videoFilePreparer.prepare(context.getStagedFile());
+        context.setMetadata(prepared.metadata());
+        if (prepared.rewritten()) {
+            // The digest taken while receiving no longer matches the bytes
+            context.setSha256(null);
+        }
+        context.getJob().progress(Files.size(context.getStagedFile()));
+    }
+}
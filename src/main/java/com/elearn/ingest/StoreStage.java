@@ -0,0 +1,39 @@
+package com.elearn.ingest;
+
+import com.elearn.config.AppConstants;
+import com.elearn.services.FileService;
+import com.elearn.storage.StagedFile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Hands the staged upload to the media store, deduplicated by digest when the
+ * content-addressed mode is on.
+ */
+@Component
+@Order(300)
+@RequiredArgsConstructor
+public class StoreStage implements IngestStage {
+
+    private final FileService fileService;
+
+    @Override
+    public String name() {
+        return "store";
+    }
+
+    @Override
+    public void process(IngestContext context) throws IOException {
+        String fileName = Paths.get(context.getOriginalFilename()).getFileName().toString();
+        StagedFile staged = new StagedFile(context.getStagedFile(), context.getSize(), context.getSha256());
+        String key = fileService.store(staged, AppConstants.Paths.VIDEO_KEY_PREFIX,
+                System.currentTimeMillis() + "_" + fileName, context.getContentType());
+        context.setStoredKey(key);
+        context.setStagedFile(null);
+        context.getJob().progress(context.getSize());
+    }
+}
@@ -0,0 +1,47 @@
+package com.elearn.ingest;
+
+import com.elearn.entity.Video;
+import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.FileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Points the {@link Video} row at the stored file and releases the file it
+ * replaces.
+ */
+@Component
+@Order(400)
+@RequiredArgsConstructor
+public class UpdateVideoStage implements IngestStage {
+
+    private final VideoRepository videoRepository;
+    private final FileService fileService;
+
+    @Override
+    public String name() {
+        return "update";
+    }
+
+    @Override
+    public void process(IngestContext context) {
+        Video video = videoRepository.findById(context.getVideoId())
+                .orElseThrow(() -> new ResourceNotFoundException("Video not found with id " + context.getVideoId()));
+
+        String previousKey = video.getFilePath();
+        video.setFilePath(context.getStoredKey());
+        video.setContentType(context.getContentType());
+        if (context.getMetadata() != null) {
+            context.getMetadata().applyTo(video);
+        }
+        videoRepository.save(video);
+
+        context.setPreviousKey(previousKey);
+        if (previousKey != null && !previousKey.equals(context.getStoredKey())) {
+            fileService.release(previousKey);
+        }
+        context.getJob().progress(context.getSize());
+    }
+}
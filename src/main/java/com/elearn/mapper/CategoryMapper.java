@@ -0,0 +1,37 @@
+package com.elearn.mapper;
+
+import com.elearn.dto.CategoryDto;
+import com.elearn.dto.CategorySummaryDto;
+import com.elearn.entity.Category;
+
+/**
+ * Maps categories to and from their DTOs. Courses are never mapped, the
+ * services list them with a projection query.
+ */
+public final class CategoryMapper {
+
+    private CategoryMapper() {
+    }
+
+    public static CategoryDto toDto(Category category) {
+        CategoryDto dto = new CategoryDto();
+        dto.setId(category.getId());
+        dto.setTitle(category.getTitle());
+        dto.setDescription(category.getDescription());
+        dto.setAddedDate(category.getAddedDate());
+        return dto;
+    }
+
+    public static Category toEntity(CategoryDto dto) {
+        Category category = new Category();
+        category.setId(dto.getId());
+        category.setTitle(dto.getTitle());
+        category.setDescription(dto.getDescription());
+        category.setAddedDate(dto.getAddedDate());
+        return category;
+    }
+
+    public static CategorySummaryDto toSummary(Category category) {
+        return new CategorySummaryDto(category.getId(), category.getTitle());
+    }
+}
@@ -0,0 +1,89 @@
+package com.elearn.mapper;
+
+import com.elearn.dto.CategorySummaryDto;
+import com.elearn.dto.CourseDto;
+import com.elearn.dto.CourseSummaryDto;
+import com.elearn.entity.Course;
+import com.elearn.repository.projection.CourseSummaryView;
+import com.elearn.search.CourseFacetRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps courses to and from their DTOs.
+ */
+public final class CourseMapper {
+
+    private CourseMapper() {
+    }
+
+    /**
+     * Maps a course with its videos and categories as summaries. Those load
+     * in batches when they are not part of the fetch plan.
+     */
+    public static CourseDto toDto(Course course) {
+        CourseDto dto = new CourseDto();
+        dto.setId(course.getId());
+        dto.setTitle(course.getTitle());
+        dto.setShortDesc(course.getShortDesc());
+        dto.setLongDesc(course.getLongDesc());
+        dto.setPrice(course.getPrice());
+        dto.setLive(course.isLive());
+        dto.setDiscount(course.getDiscount());
+        dto.setCreatedAt(course.getCreatedDate());
+        dto.setUpdatedAt(course.getLastModifiedDate());
+        dto.setBanner(course.getBanner());
+        dto.setBannerContentType(course.getBannerContentType());
+        dto.setVideos(VideoMapper.toSummaries(course.getVideos(), course.getId()));
+        List<CategorySummaryDto> categories = new ArrayList<>(course.getCategoryList().size());
+        course.getCategoryList().forEach(category -> categories.add(CategoryMapper.toSummary(category)));
+        dto.setCategoryList(categories);
+        return dto;
+    }
+
+    /**
+     * Creates a course from a request, without videos, categories, banner or
+     * timestamps.
+     */
+    public static Course toEntity(CourseDto dto) {
+        Course course = new Course();
+        course.setId(dto.getId());
+        update(dto, course);
+        return course;
+    }
+
+    /**
+     * Copies the fields set in the request onto the course. The id, videos,
+     * categories and banner are never changed; the banner is only set by an
+     * upload, which also keeps its stored file referenced.
+     */
+    public static void update(CourseDto dto, Course course) {
+        if (dto.getTitle() != null) {
+            course.setTitle(dto.getTitle());
+        }
+        if (dto.getShortDesc() != null) {
+            course.setShortDesc(dto.getShortDesc());
+        }
+        if (dto.getLongDesc() != null) {
+            course.setLongDesc(dto.getLongDesc());
+        }
+        if (dto.getPrice() != null) {
+            course.setPrice(dto.getPrice());
+        }
+        if (dto.getDiscount() != null) {
+            course.setDiscount(dto.getDiscount());
+        }
+        course.setLive(dto.isLive());
+    }
+
+    public static CourseSummaryDto toSummary(CourseSummaryView view) {
+        return new CourseSummaryDto(view.getId(), view.getTitle(), view.getShortDesc(), view.getPrice(),
+                view.getDiscount(), view.isLive(), view.getBanner());
+    }
+
+    public static CourseSummaryDto toSummary(CourseFacetRow row) {
+        return new CourseSummaryDto(row.id(), row.title(), row.shortDesc(), row.price(), row.discount(),
+                row.live(), row.banner());
+    }
+}
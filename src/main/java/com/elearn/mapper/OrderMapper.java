@@ -0,0 +1,26 @@
+package com.elearn.mapper;
+
+import com.elearn.dto.OrderDto;
+import com.elearn.entity.Order;
+
+/**
+ * Maps orders to their DTO.
+ */
+public final class OrderMapper {
+
+    private OrderMapper() {
+    }
+
+    public static OrderDto toDto(Order order) {
+        OrderDto dto = new OrderDto();
+        dto.setOrderId(order.getOrderId());
+        dto.setEsewaOrderId(order.getEsewaOrderId());
+        dto.setAmount(order.getAmount());
+        dto.setPaymentStatus(order.getPmtStatus());
+        dto.setCreatedAt(order.getCreatedDate());
+        // The id of a lazy user is known without loading it
+        dto.setUserId(order.getUser() == null ? null : order.getUser().getUserId());
+        dto.setAddress(order.getAddress());
+        return dto;
+    }
+}
@@ -0,0 +1,72 @@
+package com.elearn.mapper;
+
+import com.elearn.dto.UserDto;
+import com.elearn.dto.UserResponseDto;
+import com.elearn.entity.Roles;
+import com.elearn.entity.User;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maps users to and from their DTOs. Passwords are only ever read from a
+ * request, never written to a DTO, and orders are not mapped.
+ */
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDto toDto(User user) {
+        UserDto dto = new UserDto();
+        dto.setUserId(user.getUserId());
+        dto.setEmail(user.getEmail());
+        dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setAbout(user.getAbout());
+        dto.setActive(user.isActive());
+        dto.setEmailVerified(user.isEmailVarified());
+        dto.setSmsVerified(user.isSmsVerified());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setProfilePath(user.getProfilePath());
+        dto.setRoles(user.getRoles() == null ? null : new HashSet<>(user.getRoles()));
+        return dto;
+    }
+
+    public static UserResponseDto toResponseDto(User user) {
+        UserResponseDto dto = new UserResponseDto();
+        dto.setUserId(user.getUserId());
+        dto.setEmail(user.getEmail());
+        dto.setProfilePath(user.getProfilePath());
+        dto.setEmailVerified(user.isEmailVarified());
+        dto.setSmsVerified(user.isSmsVerified());
+        if (user.getRoles() != null) {
+            dto.setRoles(roleNames(user.getRoles()));
+        }
+        return dto;
+    }
+
+    /**
+     * Creates a user from a request, without roles or orders.
+     */
+    public static User toEntity(UserDto dto) {
+        User user = new User();
+        user.setUserId(dto.getUserId());
+        user.setEmail(dto.getEmail());
+        user.setPhoneNumber(dto.getPhoneNumber());
+        user.setPassword(dto.getPassword());
+        user.setAbout(dto.getAbout());
+        user.setActive(dto.isActive());
+        user.setEmailVarified(dto.isEmailVerified());
+        user.setSmsVerified(dto.isSmsVerified());
+        user.setCreatedAt(dto.getCreatedAt());
+        user.setProfilePath(dto.getProfilePath());
+        return user;
+    }
+
+    private static Set<String> roleNames(Set<Roles> roles) {
+        return roles.stream()
+                .map(Roles::getRoleName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
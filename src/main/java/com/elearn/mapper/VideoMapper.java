@@ -0,0 +1,77 @@
+package com.elearn.mapper;
+
+import com.elearn.dto.CourseHeaderDto;
+import com.elearn.dto.VideoDto;
+import com.elearn.dto.VideoSummaryDto;
+import com.elearn.entity.Course;
+import com.elearn.entity.Video;
+import com.elearn.repository.projection.VideoSummaryView;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps videos to and from their DTOs.
+ */
+public final class VideoMapper {
+
+    private VideoMapper() {
+    }
+
+    /**
+     * Maps a video with the header of its course. The course title is left
+     * out when the course was not loaded, rather than querying for it.
+     */
+    public static VideoDto toDto(Video video) {
+        VideoDto dto = new VideoDto();
+        dto.setId(video.getId());
+        dto.setTitle(video.getTitle());
+        dto.setDesc(video.getDescription());
+        dto.setFilePath(video.getFilePath());
+        dto.setContentType(video.getContentType());
+        dto.setDurationMillis(video.getDurationMillis());
+        dto.setBitrate(video.getBitrate());
+        dto.setWidth(video.getWidth());
+        dto.setHeight(video.getHeight());
+        dto.setCodec(video.getCodec());
+        Course course = video.getCourse();
+        if (course != null) {
+            dto.setCourse(new CourseHeaderDto(course.getId(),
+                    Hibernate.isInitialized(course) ? course.getTitle() : null));
+        }
+        return dto;
+    }
+
+    /**
+     * Creates a video from a request, without its course.
+     */
+    public static Video toEntity(VideoDto dto) {
+        Video video = new Video();
+        video.setId(dto.getId());
+        video.setTitle(dto.getTitle());
+        video.setDescription(dto.getDesc());
+        video.setFilePath(dto.getFilePath());
+        video.setContentType(dto.getContentType());
+        video.setDurationMillis(dto.getDurationMillis());
+        video.setBitrate(dto.getBitrate());
+        video.setWidth(dto.getWidth());
+        video.setHeight(dto.getHeight());
+        video.setCodec(dto.getCodec());
+        return video;
+    }
+
+    static List<VideoSummaryDto> toSummaries(List<Video> videos, String courseId) {
+        List<VideoSummaryDto> summaries = new ArrayList<>(videos.size());
+        for (Video video : videos) {
+            summaries.add(new VideoSummaryDto(video.getId(), video.getTitle(), video.getDescription(),
+                    video.getDurationMillis(), courseId));
+        }
+        return summaries;
+    }
+
+    public static VideoSummaryDto toSummary(VideoSummaryView view) {
+        return new VideoSummaryDto(view.getId(), view.getTitle(), view.getDescription(), view.getDurationMillis(),
+                view.getCourseId());
+    }
+}
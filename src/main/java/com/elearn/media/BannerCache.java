@@ -0,0 +1,68 @@
+package com.elearn.media;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-memory caches behind banner serving: the {@link BannerInfo} of each
+ * course, so repeat requests skip the database, and the encoded image bytes,
+ * so they skip the media store.
+ *
+ * <p>The byte cache is bounded by the total number of bytes held rather than
+ * by entry count, since an original weighs as much as dozens of thumbnails.
+ * Its entries are keyed by the banner version as well, so a new banner is
+ * never served from a stale entry. Info entries also expire after
+ * {@code media.banner.info-ttl}, which bounds staleness on other nodes that
+ * did not see the eviction.</p>
+ */
+@Component
+public class BannerCache {
+
+    private final Cache<String, BannerInfo> infos;
+    private final Cache<Key, byte[]> images;
+
+    public BannerCache(@Value("${media.banner.cache-max-bytes:67108864}") long maxBytes,
+                       @Value("${media.banner.info-max-entries:10000}") long maxInfos,
+                       @Value("${media.banner.info-ttl:PT5M}") Duration infoTtl,
+                       MeterRegistry meterRegistry) {
+        this.infos = Caffeine.newBuilder()
+                .maximumSize(maxInfos)
+                .expireAfterWrite(infoTtl)
+                .recordStats()
+                .build();
+        this.images = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, infos, "bannerInfo");
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "bannerImages");
+    }
+
+    public BannerInfo getInfo(String courseId, Function<String, BannerInfo> loader) {
+        return infos.get(courseId, loader);
+    }
+
+    /**
+     * Returns the cached bytes, loading and caching them on a miss. Concurrent
+     * misses for the same key load once.
+     */
+    public byte[] getImage(BannerInfo info, BannerSize size, Function<Key, byte[]> loader) {
+        return images.get(new Key(info.courseId(), size, info.lastModified()), loader);
+    }
+
+    public void invalidate(String courseId) {
+        infos.invalidate(courseId);
+        images.asMap().keySet().removeIf(key -> key.courseId().equals(courseId));
+    }
+
+    public record Key(String courseId, BannerSize size, long version) {
+    }
+}
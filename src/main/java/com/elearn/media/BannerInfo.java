@@ -0,0 +1,54 @@
+package com.elearn.media;
+
+import com.elearn.config.AppConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * What is needed to serve a course banner without going back to the
+ * database: where the original is stored, its media type and the course's
+ * last-modified time, which versions every size of the banner.
+ */
+public record BannerInfo(String courseId, String key, String contentType, long lastModified) {
+
+    /**
+     * @return a strong validator that changes whenever a new banner is saved
+     */
+    public String etag(BannerSize size) {
+        return "\"" + Long.toHexString(lastModified) + "-" + size.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+
+    public String contentType(BannerSize size) {
+        return size.isVariant() ? ThumbnailGenerator.CONTENT_TYPE : contentType;
+    }
+
+    public String variantKey(BannerSize size) {
+        return variantKey(courseId, key, size);
+    }
+
+    public static String variantKey(String courseId, String bannerKey, BannerSize size) {
+        return variantDirectory(courseId, bannerKey) + size.name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+
+    /**
+     * Variants live in a directory named after the original they were
+     * rendered from, so an upload that never commits, or loses to a
+     * concurrent one, cannot replace the variants of the banner in use.
+     */
+    public static String variantDirectory(String courseId, String bannerKey) {
+        return AppConstants.Paths.BANNER_VARIANT_KEY_PREFIX + "/" + courseId + "/" + version(bannerKey) + "/";
+    }
+
+    private static String version(String bannerKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bannerKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
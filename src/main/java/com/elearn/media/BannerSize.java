@@ -0,0 +1,50 @@
+package com.elearn.media;
+
+import com.elearn.exception.InvalidInputException;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Sizes a course banner can be served in. Every size except
+ * {@link #ORIGINAL} is a JPEG generated when the banner is saved, scaled down
+ * to at most {@code maxWidth} pixels wide with the aspect ratio kept.
+ */
+public enum BannerSize {
+
+    ORIGINAL(0),
+    THUMB(200),
+    CARD(480),
+    HERO(1280);
+
+    private final int maxWidth;
+
+    BannerSize(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public boolean isVariant() {
+        return this != ORIGINAL;
+    }
+
+    /**
+     * Parses a request parameter such as {@code thumb}, defaulting to
+     * {@link #ORIGINAL} when it is absent.
+     *
+     * @throws InvalidInputException if the value names no size
+     */
+    public static BannerSize from(String value) {
+        if (!StringUtils.hasText(value)) {
+            return ORIGINAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unknown banner size: " + value);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.elearn.media;
+
+/**
+ * A course's stored banner key, read without loading the entity.
+ */
+public record CourseBannerRow(String courseId, String banner) {
+
+    /**
+     * @return the directory holding the variants rendered from this banner
+     */
+    public String variantDirectory() {
+        return BannerInfo.variantDirectory(courseId, banner);
+    }
+}
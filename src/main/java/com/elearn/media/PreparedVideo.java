@@ -0,0 +1,20 @@
+package com.elearn.media;
+
+import com.elearn.entity.Video;
+
+/**
+ * Outcome of {@link VideoFilePreparer#prepare}.
+ *
+ * @param metadata  what was read from the container, {@code null} if it is not a readable MP4
+ * @param rewritten whether the file's bytes changed, which invalidates any digest taken before
+ */
+public record PreparedVideo(VideoMetadata metadata, boolean rewritten) {
+
+    static final PreparedVideo UNKNOWN = new PreparedVideo(null, false);
+
+    public void applyTo(Video video) {
+        if (metadata != null) {
+            metadata.applyTo(video);
+        }
+    }
+}
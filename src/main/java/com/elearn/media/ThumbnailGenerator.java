@@ -0,0 +1,137 @@
+package com.elearn.media;
+
+import com.elearn.exception.InvalidInputException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Renders the JPEG variants of a banner image with {@link ImageIO}.
+ *
+ * <p>Large sources are decoded with subsampling so a multi-megapixel upload
+ * never has to be held at full resolution, and each variant is downscaled in
+ * halving steps from the previous, larger one, which keeps bilinear filtering
+ * sharp without paying for bicubic on the full image.</p>
+ */
+@Component
+public class ThumbnailGenerator {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    @Value("${media.banner.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    /**
+     * @return the encoded bytes of every {@link BannerSize#isVariant() variant} size
+     * @throws InvalidInputException if the stream is not an image ImageIO can decode
+     */
+    public Map<BannerSize, byte[]> generate(InputStream source) throws IOException {
+        BufferedImage image = decode(source);
+
+        Map<BannerSize, byte[]> variants = new EnumMap<>(BannerSize.class);
+        BufferedImage current = image;
+        // Largest first, so every step scales down from the closest larger rendition
+        BannerSize[] sizes = BannerSize.values();
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            BannerSize size = sizes[i];
+            if (!size.isVariant()) {
+                continue;
+            }
+            current = scaleToWidth(current, size.getMaxWidth());
+            variants.put(size, encode(current));
+        }
+        return variants;
+    }
+
+    private BufferedImage decode(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new InvalidInputException("Banner is not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / (2 * BannerSize.HERO.getMaxWidth()));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToWidth(BufferedImage source, int maxWidth) {
+        int width = source.getWidth();
+        if (width <= maxWidth) {
+            return toRgb(source, width, source.getHeight());
+        }
+
+        BufferedImage current = source;
+        while (width > maxWidth) {
+            width = Math.max(maxWidth, width / 2);
+            int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+            current = toRgb(current, width, height);
+        }
+        return current;
+    }
+
+    /**
+     * Draws the image at the given size on an opaque white canvas, which also
+     * flattens transparency that JPEG cannot carry.
+     */
+    private static BufferedImage toRgb(BufferedImage source, int width, int height) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB
+                && source.getWidth() == width && source.getHeight() == height) {
+            return source;
+        }
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+package com.elearn.media;
+
+import com.elearn.media.mp4.Mp4Faststart;
+import com.elearn.media.mp4.Mp4FormatException;
+import com.elearn.media.mp4.Mp4Parser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Readies a freshly uploaded video file before it is handed to the media
+ * store: MP4 files are rewritten for faststart and probed for their metadata.
+ *
+ * <p>Other containers and MP4 files that cannot be parsed pass through
+ * untouched, an upload is never rejected here.</p>
+ */
+@Slf4j
+@Component
+public class VideoFilePreparer {
+
+    @Value("${video.ingest.faststart:true}")
+    private boolean faststart;
+
+    /**
+     * Prepares the local file in place.
+     *
+     * @param file a file the caller owns, which may be replaced by a rewritten copy
+     * @return the metadata of the file and whether it was rewritten
+     */
+    public PreparedVideo prepare(Path file) throws IOException {
+        if (!Mp4Parser.isMp4(file)) {
+            return PreparedVideo.UNKNOWN;
+        }
+
+        Path rewritten = file.resolveSibling(file.getFileName() + ".faststart");
+        boolean moved = false;
+        try {
+            if (faststart && Mp4Faststart.rewrite(file, rewritten)) {
+                Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+                log.debug("Moved moov to the front of {}", file.getFileName());
+            }
+            return new PreparedVideo(Mp4Parser.probe(file), moved);
+        } catch (Mp4FormatException e) {
+            log.warn("Skipping MP4 processing of {}: {}", file.getFileName(), e.getMessage());
+            return new PreparedVideo(null, moved);
+        } finally {
+            Files.deleteIfExists(rewritten);
+        }
+    }
+}
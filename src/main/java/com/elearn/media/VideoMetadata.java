@@ -0,0 +1,24 @@
+package com.elearn.media;
+
+import com.elearn.entity.Video;
+
+/**
+ * Technical properties of a video file read from its container. Any of them
+ * may be {@code null} when the container does not carry it.
+ *
+ * @param durationMillis playback duration in milliseconds
+ * @param bitrate        average bitrate of the whole file in bits per second
+ * @param width          display width of the first video track in pixels
+ * @param height         display height of the first video track in pixels
+ * @param codec          codec of the first video track, as an RFC 6381 string where known (e.g. {@code avc1.64001f})
+ */
+public record VideoMetadata(Long durationMillis, Long bitrate, Integer width, Integer height, String codec) {
+
+    public void applyTo(Video video) {
+        video.setDurationMillis(durationMillis);
+        video.setBitrate(bitrate);
+        video.setWidth(width);
+        video.setHeight(height);
+        video.setCodec(codec);
+    }
+}
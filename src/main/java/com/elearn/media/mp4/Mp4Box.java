@@ -0,0 +1,118 @@
+package com.elearn.media.mp4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Header of one ISO base media file format box: where it starts, how long its
+ * header is and how many bytes it spans including the header.
+ */
+record Mp4Box(String type, long offset, int headerSize, long size) {
+
+    long end() {
+        return offset + size;
+    }
+
+    long dataOffset() {
+        return offset + headerSize;
+    }
+
+    /**
+     * Reads the top-level box headers of a file without touching the payloads.
+     */
+    static List<Mp4Box> readTopLevel(FileChannel channel) throws IOException {
+        List<Mp4Box> boxes = new ArrayList<>();
+        long length = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(8);
+
+        while (position + 8 <= length) {
+            readFully(channel, header.clear(), position);
+            header.flip();
+            long size = Integer.toUnsignedLong(header.getInt());
+            String type = fourcc(header.getInt());
+            int headerSize = 8;
+
+            if (size == 1) {
+                readFully(channel, header.clear(), position + 8);
+                header.flip();
+                size = header.getLong();
+                headerSize = 16;
+            } else if (size == 0) {
+                size = length - position;
+            }
+            if (size < headerSize || position + size > length) {
+                throw new Mp4FormatException("Truncated '" + type + "' box at offset " + position);
+            }
+            boxes.add(new Mp4Box(type, position, headerSize, size));
+            position += size;
+        }
+        return boxes;
+    }
+
+    /**
+     * Returns the direct children, in file order, of the box whose payload
+     * spans {@code [start, end)} in {@code buffer}.
+     */
+    static List<Child> children(ByteBuffer buffer, int start, int end) throws Mp4FormatException {
+        List<Child> children = new ArrayList<>();
+        int position = start;
+        while (position + 8 <= end) {
+            long size = Integer.toUnsignedLong(buffer.getInt(position));
+            String type = fourcc(buffer.getInt(position + 4));
+            int headerSize = 8;
+            if (size == 1) {
+                if (position + 16 > end) {
+                    throw new Mp4FormatException("Truncated '" + type + "' box inside moov");
+                }
+                size = buffer.getLong(position + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = end - position;
+            }
+            if (size < headerSize || position + size > end) {
+                throw new Mp4FormatException("Truncated '" + type + "' box inside moov");
+            }
+            children.add(new Child(type, position, position + headerSize, (int) (position + size)));
+            position += (int) size;
+        }
+        return children;
+    }
+
+    static Child child(ByteBuffer buffer, Child parent, String type) throws Mp4FormatException {
+        if (parent == null) {
+            return null;
+        }
+        for (Child child : children(buffer, parent.dataStart(), parent.end())) {
+            if (child.type().equals(type)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    static String fourcc(int value) {
+        byte[] bytes = { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new Mp4FormatException("Unexpected end of file at offset " + position);
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * A box held in memory: its start, payload start and end within the buffer.
+     */
+    record Child(String type, int start, int dataStart, int end) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.elearn.media.mp4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Moves the {@code moov} box of an MP4 file in front of its media data so
+ * playback can start before the whole file has been downloaded.
+ *
+ * <p>Only {@code moov} is held in memory. Every other byte is copied from the
+ * source to the target with {@code FileChannel.transferTo}. Moving {@code moov}
+ * shifts the media data behind it, so the absolute chunk offsets in each
+ * track's {@code stco}/{@code co64} table are patched by the size of
+ * {@code moov}.</p>
+ */
+public final class Mp4Faststart {
+
+    private static final long MAX_32BIT_OFFSET = 0xFFFFFFFFL;
+
+    private Mp4Faststart() {
+    }
+
+    /**
+     * Writes a faststart copy of {@code source} to {@code target}.
+     *
+     * @return {@code true} if the copy was written, {@code false} if the file
+     * is already faststart or cannot be rewritten safely, in which case
+     * {@code target} is not created
+     */
+    public static boolean rewrite(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            List<Mp4Box> boxes = Mp4Box.readTopLevel(in);
+            Mp4Box moov = null;
+            Mp4Box mdat = null;
+            for (Mp4Box box : boxes) {
+                if (moov == null && box.type().equals("moov")) {
+                    moov = box;
+                } else if (mdat == null && box.type().equals("mdat")) {
+                    mdat = box;
+                }
+            }
+            if (moov == null || mdat == null || moov.offset() < mdat.offset()) {
+                return false;
+            }
+
+            ByteBuffer moovBytes = Mp4Parser.readBox(in, moov);
+            long insertAt = mdat.offset();
+            if (!patchChunkOffsets(moovBytes, Mp4Parser.root(moov), insertAt, moov.offset(), moov.size())) {
+                return false;
+            }
+
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                transferFully(in, 0, insertAt, out);
+                moovBytes.clear();
+                while (moovBytes.hasRemaining()) {
+                    out.write(moovBytes);
+                }
+                transferFully(in, insertAt, moov.offset() - insertAt, out);
+                transferFully(in, moov.end(), in.size() - moov.end(), out);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Shifts every chunk offset pointing into {@code [insertAt, moovOffset)} by
+     * {@code moovSize}. Returns {@code false} if a track has no chunk offset
+     * table (e.g. a compressed moov) or a 32-bit offset would overflow.
+     */
+    private static boolean patchChunkOffsets(ByteBuffer buffer, Mp4Box.Child moov,
+                                             long insertAt, long moovOffset, long moovSize) throws Mp4FormatException {
+        for (Mp4Box.Child trak : Mp4Box.children(buffer, moov.dataStart(), moov.end())) {
+            if (!trak.type().equals("trak")) {
+                continue;
+            }
+            Mp4Box.Child stbl = Mp4Box.child(buffer,
+                    Mp4Box.child(buffer, Mp4Box.child(buffer, trak, "mdia"), "minf"), "stbl");
+            Mp4Box.Child stco = Mp4Box.child(buffer, stbl, "stco");
+            Mp4Box.Child co64 = Mp4Box.child(buffer, stbl, "co64");
+            Mp4Box.Child table = stco != null ? stco : co64;
+            if (table == null || table.dataStart() + 8 > table.end()) {
+                return false;
+            }
+
+            int entrySize = stco != null ? 4 : 8;
+            long count = Integer.toUnsignedLong(buffer.getInt(table.dataStart() + 4));
+            int first = table.dataStart() + 8;
+            if (first + count * entrySize > table.end()) {
+                throw new Mp4FormatException("Chunk offset table overruns its box");
+            }
+            for (int i = 0; i < count; i++) {
+                int position = first + i * entrySize;
+                long offset = entrySize == 4
+                        ? Integer.toUnsignedLong(buffer.getInt(position))
+                        : buffer.getLong(position);
+                if (offset < insertAt || offset >= moovOffset) {
+                    continue;
+                }
+                long shifted = offset + moovSize;
+                if (entrySize == 4) {
+                    if (shifted > MAX_32BIT_OFFSET) {
+                        return false;
+                    }
+                    buffer.putInt(position, (int) shifted);
+                } else {
+                    buffer.putLong(position, shifted);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void transferFully(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        while (count > 0) {
+            long transferred = in.transferTo(position, count, out);
+            if (transferred <= 0) {
+                throw new Mp4FormatException("Unexpected end of file at offset " + position);
+            }
+            position += transferred;
+            count -= transferred;
+        }
+    }
+}
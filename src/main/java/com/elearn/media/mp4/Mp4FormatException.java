@@ -0,0 +1,13 @@
+package com.elearn.media.mp4;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a file that looks like MP4 has a box structure that cannot be
+ * walked, e.g. a truncated upload.
+ */
+public class Mp4FormatException extends IOException {
+    public Mp4FormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,177 @@
+package com.elearn.media.mp4;
+
+import com.elearn.media.VideoMetadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Reads {@link VideoMetadata} from MP4 / QuickTime files.
+ *
+ * <p>Only box headers are read from disk to locate {@code moov}; the
+ * {@code moov} box itself is loaded into memory since everything of interest
+ * lives there, while the media data is never read.</p>
+ */
+public final class Mp4Parser {
+
+    /** Refuse to load a moov bigger than this, no sane file comes close. */
+    static final int MAX_MOOV_SIZE = 64 * 1024 * 1024;
+
+    private static final int VISUAL_SAMPLE_ENTRY_SIZE = 78;
+
+    private Mp4Parser() {
+    }
+
+    /**
+     * @return whether the file starts with an {@code ftyp} box
+     */
+    public static boolean isMp4(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < 8) {
+                return false;
+            }
+            ByteBuffer header = ByteBuffer.allocate(8);
+            Mp4Box.readFully(channel, header, 0);
+            return "ftyp".equals(Mp4Box.fourcc(header.getInt(4)));
+        }
+    }
+
+    public static VideoMetadata probe(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Mp4Box moov = null;
+            for (Mp4Box box : Mp4Box.readTopLevel(channel)) {
+                if (box.type().equals("moov")) {
+                    moov = box;
+                    break;
+                }
+            }
+            if (moov == null) {
+                throw new Mp4FormatException("No moov box in " + file.getFileName());
+            }
+            ByteBuffer buffer = readBox(channel, moov);
+            return parseMoov(buffer, root(moov), channel.size());
+        }
+    }
+
+    static ByteBuffer readBox(FileChannel channel, Mp4Box box) throws IOException {
+        if (box.size() > MAX_MOOV_SIZE) {
+            throw new Mp4FormatException("'" + box.type() + "' box of " + box.size() + " bytes is too large");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) box.size());
+        Mp4Box.readFully(channel, buffer, box.offset());
+        return buffer;
+    }
+
+    static Mp4Box.Child root(Mp4Box box) {
+        return new Mp4Box.Child(box.type(), 0, box.headerSize(), (int) box.size());
+    }
+
+    private static VideoMetadata parseMoov(ByteBuffer buffer, Mp4Box.Child moov, long fileSize) throws Mp4FormatException {
+        Long durationMillis = readDuration(buffer, Mp4Box.child(buffer, moov, "mvhd"));
+        Long bitrate = durationMillis != null && durationMillis > 0 ? fileSize * 8000 / durationMillis : null;
+
+        Integer width = null;
+        Integer height = null;
+        String codec = null;
+        for (Mp4Box.Child trak : Mp4Box.children(buffer, moov.dataStart(), moov.end())) {
+            if (!trak.type().equals("trak")) {
+                continue;
+            }
+            Mp4Box.Child mdia = Mp4Box.child(buffer, trak, "mdia");
+            Mp4Box.Child hdlr = Mp4Box.child(buffer, mdia, "hdlr");
+            if (hdlr == null || hdlr.dataStart() + 12 > hdlr.end()
+                    || !"vide".equals(Mp4Box.fourcc(buffer.getInt(hdlr.dataStart() + 8)))) {
+                continue;
+            }
+
+            Mp4Box.Child tkhd = Mp4Box.child(buffer, trak, "tkhd");
+            if (tkhd != null) {
+                int offset = tkhd.dataStart() + (version(buffer, tkhd) == 1 ? 88 : 76);
+                if (offset + 8 <= tkhd.end()) {
+                    // 16.16 fixed point
+                    width = buffer.getInt(offset) >>> 16;
+                    height = buffer.getInt(offset + 4) >>> 16;
+                }
+            }
+
+            Mp4Box.Child stbl = Mp4Box.child(buffer, Mp4Box.child(buffer, mdia, "minf"), "stbl");
+            Mp4Box.Child stsd = Mp4Box.child(buffer, stbl, "stsd");
+            if (stsd != null) {
+                List<Mp4Box.Child> entries = Mp4Box.children(buffer, stsd.dataStart() + 8, stsd.end());
+                if (!entries.isEmpty()) {
+                    Mp4Box.Child entry = entries.get(0);
+                    codec = entry.type();
+                    if (entry.dataStart() + VISUAL_SAMPLE_ENTRY_SIZE <= entry.end()) {
+                        if (width == null || width == 0) {
+                            width = buffer.getShort(entry.dataStart() + 24) & 0xFFFF;
+                            height = buffer.getShort(entry.dataStart() + 26) & 0xFFFF;
+                        }
+                        codec = describeCodec(buffer, entry);
+                    }
+                }
+            }
+            break;
+        }
+        return new VideoMetadata(durationMillis, bitrate, width, height, codec);
+    }
+
+    private static Long readDuration(ByteBuffer buffer, Mp4Box.Child mvhd) throws Mp4FormatException {
+        if (mvhd == null) {
+            return null;
+        }
+        int data = mvhd.dataStart();
+        long timescale;
+        long duration;
+        if (version(buffer, mvhd) == 1) {
+            if (data + 32 > mvhd.end()) {
+                return null;
+            }
+            timescale = Integer.toUnsignedLong(buffer.getInt(data + 20));
+            duration = buffer.getLong(data + 24);
+        } else {
+            if (data + 20 > mvhd.end()) {
+                return null;
+            }
+            timescale = Integer.toUnsignedLong(buffer.getInt(data + 12));
+            duration = Integer.toUnsignedLong(buffer.getInt(data + 16));
+            if (duration == 0xFFFFFFFFL) {
+                return null;
+            }
+        }
+        return timescale > 0 && duration >= 0 ? duration * 1000 / timescale : null;
+    }
+
+    /**
+     * Version byte of a full box, which every full box has even when its
+     * fields are cut short.
+     */
+    private static int version(ByteBuffer buffer, Mp4Box.Child box) throws Mp4FormatException {
+        if (box.dataStart() >= box.end()) {
+            throw new Mp4FormatException("Empty '" + box.type() + "' box inside moov");
+        }
+        return buffer.get(box.dataStart());
+    }
+
+    /**
+     * Adds profile and level to H.264 sample entries, the way players expect
+     * them in a {@code codecs} parameter.
+     */
+    private static String describeCodec(ByteBuffer buffer, Mp4Box.Child entry) throws Mp4FormatException {
+        String fourcc = entry.type();
+        if (!fourcc.equals("avc1") && !fourcc.equals("avc3")) {
+            return fourcc;
+        }
+        for (Mp4Box.Child child : Mp4Box.children(buffer, entry.dataStart() + VISUAL_SAMPLE_ENTRY_SIZE, entry.end())) {
+            if (child.type().equals("avcC") && child.dataStart() + 4 <= child.end()) {
+                int data = child.dataStart();
+                return String.format("%s.%02x%02x%02x", fourcc,
+                        buffer.get(data + 1) & 0xFF, buffer.get(data + 2) & 0xFF, buffer.get(data + 3) & 0xFF);
+            }
+        }
+        return fourcc;
+    }
+}
@@ -3,8 +3,9 @@ package com.elearn.repository;
 
 import com.elearn.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category,String> {
+public interface CategoryRepository extends JpaRepository<Category,String>, JpaSpecificationExecutor<Category> {
 }
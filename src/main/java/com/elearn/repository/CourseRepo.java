@@ -1,17 +1,85 @@
 package com.elearn.repository;
 
+import com.elearn.dto.CourseSummaryDto;
 import com.elearn.entity.Course;
+import com.elearn.media.CourseBannerRow;
+import com.elearn.repository.projection.CourseSummaryView;
+import com.elearn.search.CourseCategoryRow;
+import com.elearn.search.CourseFacetRow;
+import com.elearn.search.CourseSearchRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CourseRepo extends JpaRepository<Course, String> {
-    Page<Course> findByLive(boolean live, Pageable pageable);
+    // Listings select the summary columns only: no description CLOB, videos or categories
+
+    Page<CourseSummaryView> findAllBy(Pageable pageable);
+
+    Page<CourseSummaryView> findByLive(boolean live, Pageable pageable);
+
+    Window<CourseSummaryView> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<CourseSummaryView> findByLive(boolean live, ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("SELECT new com.elearn.dto.CourseSummaryDto(c.id, c.title, c.shortDesc, c.price, c.discount, c.live, c.banner) " +
+            "FROM Course c JOIN c.categoryList cat WHERE cat.id = :categoryId ORDER BY c.title, c.id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<CourseSummaryDto> findSummariesByCategoryId(@Param("categoryId") String categoryId);
+
+    @EntityGraph(Course.DETAIL_GRAPH)
+    Optional<Course> findDetailById(String id);
+
+    long countByLive(boolean live);
     
     boolean existsByTitleIgnoreCase(String title);
     
     List<Course> findByTitleContainingIgnoreCaseOrShortDescContainingIgnoreCase(String title, String shortDesc);
+
+    long countByBanner(String banner);
+
+    @Query("SELECT DISTINCT c.banner FROM Course c WHERE c.banner IS NOT NULL")
+    List<String> findAllBanners();
+
+    @Query("SELECT new com.elearn.media.CourseBannerRow(c.id, c.banner) FROM Course c WHERE c.banner IS NOT NULL")
+    List<CourseBannerRow> findAllBannerRows();
+
+    @Query("SELECT c.banner FROM Course c WHERE c.id = :id")
+    Optional<String> findBannerById(@Param("id") String id);
+
+    @Query("SELECT new com.elearn.search.CourseSearchRow(c.id, c.title, c.shortDesc, c.longDesc) FROM Course c")
+    List<CourseSearchRow> findAllSearchRows();
+
+    @Query("SELECT new com.elearn.search.CourseSearchRow(c.id, c.title, c.shortDesc, c.longDesc) FROM Course c " +
+            "WHERE c.id IN :ids")
+    List<CourseSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT new com.elearn.search.CourseFacetRow(c.id, c.title, c.shortDesc, c.price, c.discount, c.live, c.banner) " +
+            "FROM Course c")
+    List<CourseFacetRow> findAllFacetRows();
+
+    @Query("SELECT new com.elearn.search.CourseFacetRow(c.id, c.title, c.shortDesc, c.price, c.discount, c.live, c.banner) " +
+            "FROM Course c WHERE c.id IN :ids")
+    List<CourseFacetRow> findFacetRowsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT new com.elearn.search.CourseCategoryRow(c.id, cat.id) FROM Course c JOIN c.categoryList cat")
+    List<CourseCategoryRow> findAllCategoryRows();
+
+    @Query("SELECT new com.elearn.search.CourseCategoryRow(c.id, cat.id) FROM Course c JOIN c.categoryList cat " +
+            "WHERE c.id IN :ids")
+    List<CourseCategoryRow> findCategoryRowsByIdIn(@Param("ids") Collection<String> ids);
 }
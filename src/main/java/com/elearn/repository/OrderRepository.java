@@ -2,12 +2,19 @@ package com.elearn.repository;
 
 import com.elearn.entity.Order;
 import com.elearn.entity.User;
+import com.elearn.search.CourseOrderCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order,String> {
 
     Optional<Order> findByEsewaOrderId(String pid);
 
+    @Query("SELECT new com.elearn.search.CourseOrderCount(o.course.id, COUNT(o)) FROM Order o " +
+            "WHERE o.pmtStatus = 'PAID' AND o.course IS NOT NULL GROUP BY o.course.id")
+    List<CourseOrderCount> countPaidOrdersByCourse();
+
 }
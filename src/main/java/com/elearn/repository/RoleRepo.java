@@ -2,10 +2,14 @@ package com.elearn.repository;
 
 
 import com.elearn.entity.Roles;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepo extends JpaRepository<Roles,String> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Roles> findByRoleName(String name);
 }
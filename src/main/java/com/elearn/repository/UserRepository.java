@@ -2,10 +2,16 @@ package com.elearn.repository;
 
 import com.elearn.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /** Current token version of the user, empty if the account is gone or disabled */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.userId = :userId AND u.isActive = true")
+    Optional<Long> findActiveTokenVersion(@Param("userId") String userId);
 }
@@ -1,17 +1,58 @@
 package com.elearn.repository;
 
+import com.elearn.dto.VideoSummaryDto;
 import com.elearn.entity.Video;
+import com.elearn.repository.projection.VideoSummaryView;
+import com.elearn.search.VideoSearchRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface VideoRepository extends JpaRepository<Video,String> {
+    @EntityGraph(Video.DETAIL_GRAPH)
     @Query("SELECT v FROM Video v WHERE LOWER(v.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "OR LOWER(v.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Video> searchByTitleOrDescription(@Param("keyword") String keyword);
 
 
     List<Video> findByCourseId(String courseId);
+
+    @EntityGraph(Video.DETAIL_GRAPH)
+    Optional<Video> findDetailById(String id);
+
+    @EntityGraph(Video.DETAIL_GRAPH)
+    List<Video> findDetailsByIdIn(Collection<String> ids);
+
+    @Query("SELECT new com.elearn.dto.VideoSummaryDto(v.id, v.title, v.description, v.durationMillis, v.course.id) " +
+            "FROM Video v WHERE v.course.id = :courseId ORDER BY v.title, v.id")
+    List<VideoSummaryDto> findSummariesByCourseId(@Param("courseId") String courseId);
+
+    // Listings select the summary columns only: no file details or course
+
+    Page<VideoSummaryView> findAllBy(Pageable pageable);
+
+    Window<VideoSummaryView> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    long countByFilePath(String filePath);
+
+    @Query("SELECT DISTINCT v.filePath FROM Video v WHERE v.filePath IS NOT NULL")
+    List<String> findAllFilePaths();
+
+    @Query("SELECT new com.elearn.search.VideoSearchRow(v.id, v.title, v.description, v.course.id) FROM Video v")
+    List<VideoSearchRow> findAllSearchRows();
+
+    @Query("SELECT new com.elearn.search.VideoSearchRow(v.id, v.title, v.description, v.course.id) FROM Video v " +
+            "WHERE v.id IN :ids")
+    List<VideoSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<String> ids);
 }
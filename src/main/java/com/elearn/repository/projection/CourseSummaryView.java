@@ -0,0 +1,22 @@
+package com.elearn.repository.projection;
+
+/**
+ * The listed columns of a course. Queries returning it select only these,
+ * plus the sort keys when scrolling.
+ */
+public interface CourseSummaryView {
+
+    String getId();
+
+    String getTitle();
+
+    String getShortDesc();
+
+    double getPrice();
+
+    double getDiscount();
+
+    boolean isLive();
+
+    String getBanner();
+}
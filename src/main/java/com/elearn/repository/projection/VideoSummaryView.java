@@ -0,0 +1,18 @@
+package com.elearn.repository.projection;
+
+/**
+ * The listed columns of a video. Queries returning it select only these,
+ * plus the sort keys when scrolling.
+ */
+public interface VideoSummaryView {
+
+    String getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    Long getDurationMillis();
+
+    String getCourseId();
+}
@@ -0,0 +1,18 @@
+package com.elearn.search;
+
+/**
+ * Published when a course or video is created, updated or deleted. The
+ * indexer reads the committed row again, so the event only names it.
+ */
+public record CatalogChangeEvent(Kind kind, String id) {
+
+    public enum Kind { COURSE, VIDEO }
+
+    public static CatalogChangeEvent course(String id) {
+        return new CatalogChangeEvent(Kind.COURSE, id);
+    }
+
+    public static CatalogChangeEvent video(String id) {
+        return new CatalogChangeEvent(Kind.VIDEO, id);
+    }
+}
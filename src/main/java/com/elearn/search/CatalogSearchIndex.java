@@ -0,0 +1,160 @@
+package com.elearn.search;
+
+import com.elearn.config.AppConstants;
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.OrderRepository;
+import com.elearn.repository.VideoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text indexes over the course and video catalog, so searches rank
+ * in memory instead of scanning the tables with {@code LIKE}.
+ *
+ * <p>Searches are lock-free. Only {@link SearchIndexUpdater} writes: it
+ * loads the indexes once the application is ready and then applies batches
+ * of committed changes. Until the first load finishes {@link #isReady()} is
+ * false and callers fall back to the database.</p>
+ *
+ * <p>The same updates feed the title autocomplete, whose ranking by paid
+ * orders is refreshed separately through {@link #refreshPopularity()}, and
+ * the faceted course filter.</p>
+ */
+@Slf4j
+@Component
+public class CatalogSearchIndex {
+
+    /** Ids per IN list, Oracle rejects more than 1000. */
+    private static final int ID_CHUNK = 500;
+
+    private final CourseRepo courseRepository;
+    private final VideoRepository videoRepository;
+    private final OrderRepository orderRepository;
+
+    // title, short description, long description
+    private final InvertedIndex courses = new InvertedIndex(3f, 2f, 1f);
+    // title, description
+    private final InvertedIndex videos = new InvertedIndex(3f, 1f);
+    private final SuggestionIndex suggestions = new SuggestionIndex();
+    private final CourseFacetIndex facets = new CourseFacetIndex(AppConstants.Catalog.PRICE_BANDS);
+    private volatile boolean ready;
+
+    public CatalogSearchIndex(CourseRepo courseRepository, VideoRepository videoRepository,
+                              OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.videoRepository = videoRepository;
+        this.orderRepository = orderRepository;
+        Gauge.builder("search.index.documents", courses, InvertedIndex::size).tag("index", "courses").register(meterRegistry);
+        Gauge.builder("search.index.documents", videos, InvertedIndex::size).tag("index", "videos").register(meterRegistry);
+        Gauge.builder("search.index.documents", suggestions, SuggestionIndex::size).tag("index", "suggestions").register(meterRegistry);
+        Gauge.builder("search.index.documents", facets, CourseFacetIndex::size).tag("index", "facets").register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchResults searchCourses(String query, boolean fuzzy, int offset, int limit) {
+        return courses.search(query, fuzzy, offset, limit);
+    }
+
+    public SearchResults searchVideos(String query, boolean fuzzy, int offset, int limit) {
+        return videos.search(query, fuzzy, offset, limit);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggestions.suggest(prefix, limit);
+    }
+
+    public FacetResults filterCourses(CourseFilter filter, int offset, int limit) {
+        return facets.filter(filter, offset, limit);
+    }
+
+    /**
+     * Reloads both indexes from the database, tokenizing on the pool.
+     */
+    void rebuild(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        List<SearchDocument> courseDocuments = courseRepository.findAllSearchRows().stream().map(CourseSearchRow::toDocument).toList();
+        List<SearchDocument> videoDocuments = videoRepository.findAllSearchRows().stream().map(VideoSearchRow::toDocument).toList();
+        courses.rebuild(courseDocuments, pool);
+        videos.rebuild(videoDocuments, pool);
+        suggestions.updatePopularity(loadPopularity());
+        suggestions.replaceAll(CatalogChangeEvent.Kind.COURSE, courseDocuments);
+        suggestions.replaceAll(CatalogChangeEvent.Kind.VIDEO, videoDocuments);
+        suggestions.publish();
+        facets.replaceAll(courseRepository.findAllFacetRows(), courseRepository.findAllCategoryRows());
+        ready = true;
+        log.info("Search index built with {} courses and {} videos in {} ms",
+                courses.size(), videos.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Re-counts paid orders and re-ranks the suggestions if any count changed.
+     */
+    void refreshPopularity() {
+        suggestions.updatePopularity(loadPopularity());
+        suggestions.publish();
+    }
+
+    /**
+     * Re-reads the changed rows and applies them. Ids with no row left are
+     * removed, along with the videos of removed courses.
+     */
+    void apply(Set<String> courseIds, Set<String> videoIds) {
+        Set<String> staleVideos = new HashSet<>(videoIds);
+        if (!courseIds.isEmpty()) {
+            List<SearchDocument> upserts = load(courseIds, courseRepository::findSearchRowsByIdIn, CourseSearchRow::toDocument);
+            Set<String> deleted = missing(courseIds, upserts);
+            courses.apply(upserts, deleted);
+            suggestions.apply(CatalogChangeEvent.Kind.COURSE, upserts, deleted);
+            facets.apply(load(courseIds, courseRepository::findFacetRowsByIdIn, Function.identity()),
+                    load(courseIds, courseRepository::findCategoryRowsByIdIn, Function.identity()),
+                    deleted);
+            // Deleting a course cascades to its videos without a video event
+            staleVideos.addAll(videos.idsOwnedBy(deleted));
+        }
+        if (!staleVideos.isEmpty()) {
+            List<SearchDocument> upserts = load(staleVideos, videoRepository::findSearchRowsByIdIn, VideoSearchRow::toDocument);
+            Set<String> deleted = missing(staleVideos, upserts);
+            videos.apply(upserts, deleted);
+            suggestions.apply(CatalogChangeEvent.Kind.VIDEO, upserts, deleted);
+        }
+        suggestions.publish();
+    }
+
+    private Map<String, Long> loadPopularity() {
+        return orderRepository.countPaidOrdersByCourse().stream()
+                .collect(Collectors.toMap(CourseOrderCount::courseId, CourseOrderCount::orders));
+    }
+
+    private static <R, T> List<T> load(Collection<String> ids,
+                                       Function<Collection<String>, List<R>> loader,
+                                       Function<R, T> mapper) {
+        List<String> remaining = new ArrayList<>(ids);
+        List<T> loaded = new ArrayList<>(remaining.size());
+        for (int from = 0; from < remaining.size(); from += ID_CHUNK) {
+            List<String> chunk = remaining.subList(from, Math.min(from + ID_CHUNK, remaining.size()));
+            loader.apply(chunk).forEach(row -> loaded.add(mapper.apply(row)));
+        }
+        return loaded;
+    }
+
+    private static Set<String> missing(Set<String> ids, List<SearchDocument> found) {
+        Set<String> missing = new HashSet<>(ids);
+        found.forEach(document -> missing.remove(document.id()));
+        return missing;
+    }
+}
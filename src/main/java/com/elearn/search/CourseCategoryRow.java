@@ -0,0 +1,7 @@
+package com.elearn.search;
+
+/**
+ * One row of the course to category join table.
+ */
+public record CourseCategoryRow(String courseId, String categoryId) {
+}
@@ -0,0 +1,302 @@
+package com.elearn.search;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory faceted filter over the courses.
+ *
+ * <p>Courses are numbered in title order. Every category, the live flag,
+ * the discounted courses and every price band is a compressed bitmap of
+ * those numbers, so a filter is a few bitmap intersections and a facet
+ * count is the cardinality of one more. Price and discount ranges are cut
+ * out of the courses sorted by that value with two binary searches. Pages
+ * in title order are read straight off the result bitmap; the other orders
+ * walk the sorted arrays.</p>
+ *
+ * <p>Filters read the current {@link Snapshot} through a volatile field and
+ * never lock. Writers keep the rows and rebuild the snapshot from memory,
+ * which takes milliseconds for a catalog of this size; as with
+ * {@link InvertedIndex} they are expected to be a single thread.</p>
+ */
+public class CourseFacetIndex {
+
+    private final double[] priceBands;
+
+    // Writer state
+    private final Map<String, CourseFacetRow> rows = new HashMap<>();
+    private final Map<String, Set<String>> categoriesByCourse = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param priceBands ascending lower bounds of the price bands counted,
+     *                   the last band being open-ended
+     */
+    public CourseFacetIndex(double... priceBands) {
+        this.priceBands = priceBands.clone();
+        this.snapshot = Snapshot.build(List.of(), Map.of(), this.priceBands);
+    }
+
+    public int size() {
+        return snapshot.rows.length;
+    }
+
+    /**
+     * Replaces every course and its categories.
+     */
+    public synchronized void replaceAll(Collection<CourseFacetRow> courses, Collection<CourseCategoryRow> categories) {
+        rows.clear();
+        categoriesByCourse.clear();
+        apply(courses, categories, List.of());
+    }
+
+    /**
+     * Adds or replaces courses along with all of their categories, removes
+     * the deleted ones and publishes the result.
+     *
+     * @param categories every category row of the upserted courses
+     */
+    public synchronized void apply(Collection<CourseFacetRow> upserts, Collection<CourseCategoryRow> categories,
+                                   Collection<String> deletes) {
+        for (String id : deletes) {
+            rows.remove(id);
+            categoriesByCourse.remove(id);
+        }
+        for (CourseFacetRow row : upserts) {
+            rows.put(row.id(), row);
+            categoriesByCourse.remove(row.id());
+        }
+        for (CourseCategoryRow link : categories) {
+            if (rows.containsKey(link.courseId())) {
+                categoriesByCourse.computeIfAbsent(link.courseId(), id -> new HashSet<>()).add(link.categoryId());
+            }
+        }
+        snapshot = Snapshot.build(rows.values(), categoriesByCourse, priceBands);
+    }
+
+    /**
+     * Returns courses {@code offset} to {@code offset + limit} of those
+     * matching the filter, with the counts of every facet.
+     */
+    public FacetResults filter(CourseFilter filter, int offset, int limit) {
+        return snapshot.filter(filter, offset, limit);
+    }
+
+    private static final class Snapshot {
+
+        private static final Comparator<CourseFacetRow> BY_TITLE = Comparator
+                .comparing((CourseFacetRow row) -> row.title() == null ? "" : row.title(), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(CourseFacetRow::id);
+
+        final CourseFacetRow[] rows;
+        final RoaringBitmap all;
+        final RoaringBitmap live;
+        final RoaringBitmap discounted;
+        final Map<String, RoaringBitmap> categories;
+        final double[] bandBounds;
+        final RoaringBitmap[] bands;
+        final int[] byPrice;
+        final double[] prices;
+        final int[] byDiscount;
+        final double[] discounts;
+
+        private Snapshot(CourseFacetRow[] rows, Map<String, RoaringBitmap> categories, double[] bandBounds) {
+            int n = rows.length;
+            this.rows = rows;
+            this.categories = categories;
+            this.bandBounds = bandBounds;
+            this.all = RoaringBitmap.bitmapOfRange(0, n);
+            this.live = new RoaringBitmap();
+            this.discounted = new RoaringBitmap();
+            for (int ordinal = 0; ordinal < n; ordinal++) {
+                if (rows[ordinal].live()) {
+                    live.add(ordinal);
+                }
+                if (rows[ordinal].discount() > 0) {
+                    discounted.add(ordinal);
+                }
+            }
+            live.runOptimize();
+            discounted.runOptimize();
+
+            this.byPrice = sortedBy(rows, CourseFacetRow::price);
+            this.prices = values(rows, byPrice, CourseFacetRow::price);
+            this.byDiscount = sortedBy(rows, CourseFacetRow::discount);
+            this.discounts = values(rows, byDiscount, CourseFacetRow::discount);
+
+            this.bands = new RoaringBitmap[bandBounds.length];
+            for (int i = 0; i < bandBounds.length; i++) {
+                // Bands are half-open, so the upper bound is the largest price below the next band
+                double to = i + 1 < bandBounds.length ? Math.nextDown(bandBounds[i + 1]) : Double.POSITIVE_INFINITY;
+                bands[i] = range(byPrice, prices, bandBounds[i], to);
+            }
+        }
+
+        static Snapshot build(Collection<CourseFacetRow> courses, Map<String, Set<String>> categoriesByCourse,
+                              double[] bandBounds) {
+            CourseFacetRow[] rows = courses.toArray(CourseFacetRow[]::new);
+            Arrays.sort(rows, BY_TITLE);
+            Map<String, RoaringBitmap> categories = new HashMap<>();
+            for (int ordinal = 0; ordinal < rows.length; ordinal++) {
+                for (String category : categoriesByCourse.getOrDefault(rows[ordinal].id(), Set.of())) {
+                    categories.computeIfAbsent(category, c -> new RoaringBitmap()).add(ordinal);
+                }
+            }
+            categories.values().forEach(RoaringBitmap::runOptimize);
+            return new Snapshot(rows, Map.copyOf(categories), bandBounds);
+        }
+
+        FacetResults filter(CourseFilter filter, int offset, int limit) {
+            RoaringBitmap category = null;
+            if (!filter.categories().isEmpty()) {
+                category = FastAggregation.or(filter.categories().stream()
+                        .map(id -> categories.getOrDefault(id, new RoaringBitmap()))
+                        .iterator());
+            }
+            RoaringBitmap liveMatch = filter.live() == null ? null
+                    : filter.live() ? live : RoaringBitmap.andNot(all, live);
+            RoaringBitmap price = filter.minPrice() == null && filter.maxPrice() == null ? null
+                    : range(byPrice, prices, filter.minPrice(), filter.maxPrice());
+            RoaringBitmap discount = filter.minDiscount() == null && filter.maxDiscount() == null ? null
+                    : range(byDiscount, discounts, filter.minDiscount(), filter.maxDiscount());
+
+            RoaringBitmap result = intersect(category, liveMatch, price, discount);
+
+            // Each facet is counted without its own filter
+            RoaringBitmap exceptCategory = intersect(liveMatch, price, discount);
+            Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            categories.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> {
+                        int count = RoaringBitmap.andCardinality(exceptCategory, entry.getValue());
+                        if (count > 0) {
+                            categoryCounts.put(entry.getKey(), count);
+                        }
+                    });
+            RoaringBitmap exceptLive = intersect(category, price, discount);
+            int liveCount = RoaringBitmap.andCardinality(exceptLive, live);
+            int notLiveCount = exceptLive.getCardinality() - liveCount;
+            int discountedCount = RoaringBitmap.andCardinality(intersect(category, liveMatch, price), discounted);
+            RoaringBitmap exceptPrice = intersect(category, liveMatch, discount);
+            List<FacetResults.PriceBandCount> bandCounts = new ArrayList<>(bands.length);
+            for (int i = 0; i < bands.length; i++) {
+                Double to = i + 1 < bandBounds.length ? bandBounds[i + 1] : null;
+                bandCounts.add(new FacetResults.PriceBandCount(bandBounds[i], to,
+                        RoaringBitmap.andCardinality(exceptPrice, bands[i])));
+            }
+
+            return new FacetResults(page(result, filter.sort(), offset, limit), result.getCardinality(),
+                    categoryCounts, liveCount, notLiveCount, discountedCount, bandCounts);
+        }
+
+        private List<CourseFacetRow> page(RoaringBitmap result, CourseSort sort, int offset, int limit) {
+            int total = result.getCardinality();
+            List<CourseFacetRow> page = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+            if (offset >= total) {
+                return page;
+            }
+            switch (sort) {
+                case TITLE -> {
+                    for (int rank = offset; rank < total && page.size() < limit; rank++) {
+                        page.add(rows[result.select(rank)]);
+                    }
+                }
+                case PRICE_ASC -> walk(byPrice, prices, false, result, offset, limit, page);
+                case PRICE_DESC -> walk(byPrice, prices, true, result, offset, limit, page);
+                case DISCOUNT_DESC -> walk(byDiscount, discounts, true, result, offset, limit, page);
+            }
+            return page;
+        }
+
+        /**
+         * Collects a page of the result in the order of the sorted array.
+         * Equal values stay in title order in both directions.
+         */
+        private void walk(int[] order, double[] keys, boolean descending, RoaringBitmap result,
+                          int offset, int limit, List<CourseFacetRow> page) {
+            int skipped = 0;
+            int i = descending ? order.length - 1 : 0;
+            while (i >= 0 && i < order.length && page.size() < limit) {
+                int start = i;
+                int end = i + 1;
+                if (descending) {
+                    while (start > 0 && keys[start - 1] == keys[i]) {
+                        start--;
+                    }
+                } else {
+                    while (end < order.length && keys[end] == keys[i]) {
+                        end++;
+                    }
+                }
+                for (int j = start; j < end && page.size() < limit; j++) {
+                    if (result.contains(order[j]) && skipped++ >= offset) {
+                        page.add(rows[order[j]]);
+                    }
+                }
+                i = descending ? start - 1 : end;
+            }
+        }
+
+        private RoaringBitmap intersect(RoaringBitmap... filters) {
+            RoaringBitmap result = all;
+            for (RoaringBitmap filter : filters) {
+                if (filter != null) {
+                    result = RoaringBitmap.and(result, filter);
+                }
+            }
+            return result;
+        }
+
+        private static RoaringBitmap range(int[] order, double[] keys, Double min, Double max) {
+            int from = min == null ? 0 : lowerBound(keys, min);
+            int to = max == null ? keys.length : lowerBound(keys, Math.nextUp(max));
+            return from >= to ? new RoaringBitmap() : RoaringBitmap.bitmapOf(Arrays.copyOfRange(order, from, to));
+        }
+
+        /** Index of the first key not below the value. */
+        private static int lowerBound(double[] keys, double value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static int[] sortedBy(CourseFacetRow[] rows, ToDoubleFunction<CourseFacetRow> key) {
+            // Stable on ordinals, which keeps equal values in title order
+            return IntStream.range(0, rows.length).boxed()
+                    .sorted(Comparator.comparingDouble(ordinal -> key.applyAsDouble(rows[ordinal])))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private static double[] values(CourseFacetRow[] rows, int[] order,
+                                       ToDoubleFunction<CourseFacetRow> key) {
+            double[] values = new double[order.length];
+            for (int i = 0; i < order.length; i++) {
+                values[i] = key.applyAsDouble(rows[order[i]]);
+            }
+            return values;
+        }
+    }
+}
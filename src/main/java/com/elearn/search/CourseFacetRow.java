@@ -0,0 +1,9 @@
+package com.elearn.search;
+
+/**
+ * The filterable and listed columns of a course, read without loading the
+ * entity.
+ */
+public record CourseFacetRow(String id, String title, String shortDesc, double price, double discount,
+                             boolean live, String banner) {
+}
@@ -0,0 +1,24 @@
+package com.elearn.search;
+
+import java.util.Set;
+
+/**
+ * Filters of the faceted course listing. A {@code null} bound or flag does
+ * not filter; several categories match courses in any of them.
+ *
+ * @param categories  category ids, empty for all
+ * @param live        live status, or {@code null} for both
+ * @param minPrice    lowest price, inclusive
+ * @param maxPrice    highest price, inclusive
+ * @param minDiscount lowest discount, inclusive
+ * @param maxDiscount highest discount, inclusive
+ * @param sort        order of the listed courses
+ */
+public record CourseFilter(Set<String> categories, Boolean live, Double minPrice, Double maxPrice,
+                           Double minDiscount, Double maxDiscount, CourseSort sort) {
+
+    public CourseFilter {
+        categories = categories == null ? Set.of() : Set.copyOf(categories);
+        sort = sort == null ? CourseSort.TITLE : sort;
+    }
+}
@@ -0,0 +1,7 @@
+package com.elearn.search;
+
+/**
+ * Paid orders of a course, the popularity autocomplete ranks titles by.
+ */
+public record CourseOrderCount(String courseId, Long orders) {
+}
@@ -0,0 +1,11 @@
+package com.elearn.search;
+
+/**
+ * The indexed columns of a course, read without loading the entity.
+ */
+public record CourseSearchRow(String id, String title, String shortDesc, String longDesc) {
+
+    public SearchDocument toDocument() {
+        return new SearchDocument(id, null, title, shortDesc, longDesc);
+    }
+}
@@ -0,0 +1,32 @@
+package com.elearn.search;
+
+import com.elearn.exception.InvalidInputException;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Orders of the faceted course listing.
+ */
+public enum CourseSort {
+    TITLE,
+    PRICE_ASC,
+    PRICE_DESC,
+    DISCOUNT_DESC;
+
+    /**
+     * Parses a sort name case-insensitively, {@code null} or blank meaning {@link #TITLE}.
+     *
+     * @throws InvalidInputException if the name is unknown
+     */
+    public static CourseSort from(String value) {
+        if (!StringUtils.hasText(value)) {
+            return TITLE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unknown sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.elearn.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of filtered courses and the counts of every facet value.
+ *
+ * <p>The counts of a facet apply all filters except that facet's own, so
+ * they tell how many courses selecting a value would add or leave: with one
+ * category selected, the other categories still count their matches.</p>
+ *
+ * @param courses    the page, in the requested order
+ * @param total      courses matching all filters
+ * @param categories matches per category id, categories with none left out
+ * @param live       matching live courses
+ * @param notLive    matching courses not yet live
+ * @param discounted matching courses with a discount
+ * @param priceBands matches per price band, in ascending order
+ */
+public record FacetResults(List<CourseFacetRow> courses, int total, Map<String, Integer> categories,
+                           int live, int notLive, int discounted, List<PriceBandCount> priceBands) {
+
+    /**
+     * Courses priced from {@code from} inclusive to {@code to} exclusive, or
+     * above {@code from} when {@code to} is {@code null}.
+     */
+    public record PriceBandCount(double from, Double to, int count) {
+    }
+}
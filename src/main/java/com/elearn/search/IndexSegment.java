@@ -0,0 +1,506 @@
+package com.elearn.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An immutable snapshot of an inverted index, ranked with BM25.
+ *
+ * <p>Documents are numbered with dense int ordinals; posting lists are
+ * sorted {@code int[]} ordinals with a parallel {@code float[]} of boosted
+ * term frequencies, and scores accumulate in a {@code double[]} indexed by
+ * ordinal, so scoring touches no boxed values.</p>
+ *
+ * <p>Segments are never modified once built, so any number of threads can
+ * search one without locking. Changes produce a new segment with
+ * {@link #withChanges}, which copies the term dictionary and the per-document
+ * arrays but shares every posting list the changes did not touch. Changed
+ * documents get fresh ordinals; the slots they leave are reclaimed once they
+ * outnumber the live documents.</p>
+ *
+ * <p>The trigram index used by fuzzy searches is derived from the term
+ * dictionary on the first fuzzy search against the segment, so segments
+ * that only serve exact searches never pay for it.</p>
+ */
+final class IndexSegment {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    /** Weight of a query term matching only as a prefix of an index term. */
+    static final double PREFIX_WEIGHT = 0.5;
+    static final int MIN_PREFIX_LENGTH = 3;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /** Score multiplier per edit between a query word and a fuzzy match. */
+    static final double FUZZY_WEIGHT = 0.7;
+    static final int MAX_FUZZY_EXPANSIONS = 32;
+
+    /** Documents tokenized by one fork-join leaf during a full build. */
+    private static final int BUILD_CHUNK = 256;
+    /** Free slots tolerated before a change batch compacts the ordinals. */
+    private static final int MIN_COMPACTION_SLACK = 1024;
+
+    private static final Comparator<SearchHit> RANKING = Comparator
+            .comparingDouble(SearchHit::score).reversed()
+            .thenComparing(SearchHit::id);
+
+    static final IndexSegment EMPTY = new IndexSegment(new TreeMap<>(), new Docs(0), new HashMap<>(), 0);
+
+    private final NavigableMap<String, Posting> postings;
+    private final Docs docs;
+    /** document id -> ordinal */
+    private final Map<String, Integer> ordinals;
+    private final double totalLength;
+    private volatile TermTrigrams trigrams;
+
+    private IndexSegment(NavigableMap<String, Posting> postings, Docs docs, Map<String, Integer> ordinals,
+                         double totalLength) {
+        this.postings = postings;
+        this.docs = docs;
+        this.ordinals = ordinals;
+        this.totalLength = totalLength;
+    }
+
+    /**
+     * Builds a segment from scratch, tokenizing the documents in parallel on
+     * the pool. Document ids must be unique.
+     */
+    static IndexSegment build(List<SearchDocument> documents, float[] fieldBoosts, ForkJoinPool pool) {
+        Partial partial = pool.invoke(new BuildTask(documents, 0, documents.size(), fieldBoosts));
+        NavigableMap<String, Posting> postings = new TreeMap<>();
+        partial.postings.forEach((term, builder) -> postings.put(term, builder.toPosting()));
+
+        Docs docs = new Docs(documents.size());
+        Map<String, Integer> ordinals = new HashMap<>(documents.size() * 2);
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            SearchDocument document = documents.get(ordinal);
+            docs.set(ordinal, document.id(), document.owner(), partial.lengths[ordinal], partial.terms[ordinal]);
+            ordinals.put(document.id(), ordinal);
+        }
+        docs.size = documents.size();
+        return new IndexSegment(postings, docs, ordinals, partial.totalLength);
+    }
+
+    /**
+     * Returns a new segment with the given documents added or replaced and
+     * the given ids removed. This segment is left as it was.
+     */
+    IndexSegment withChanges(Collection<SearchDocument> upserts, Collection<String> deletes, float[] fieldBoosts) {
+        if (upserts.isEmpty() && deletes.isEmpty()) {
+            return this;
+        }
+        Docs newDocs = docs.copy(docs.size + upserts.size());
+        Map<String, Integer> newOrdinals = new HashMap<>(ordinals);
+        double newTotalLength = totalLength;
+        Set<String> touched = new HashSet<>();
+        Set<Integer> freed = new HashSet<>();
+
+        Set<String> removed = new HashSet<>(deletes);
+        upserts.forEach(document -> removed.add(document.id()));
+        for (String id : removed) {
+            Integer ordinal = newOrdinals.remove(id);
+            if (ordinal == null) {
+                continue;
+            }
+            newTotalLength -= newDocs.lengths[ordinal];
+            Collections.addAll(touched, newDocs.terms[ordinal]);
+            freed.add(ordinal);
+            newDocs.clear(ordinal);
+        }
+
+        Map<String, PostingBuilder> added = new HashMap<>();
+        for (SearchDocument document : upserts) {
+            Tokenized tokenized = tokenize(document, fieldBoosts);
+            int ordinal = newDocs.size++;
+            tokenized.frequencies.forEach((term, frequency) ->
+                    added.computeIfAbsent(term, t -> new PostingBuilder()).add(ordinal, frequency));
+            newDocs.set(ordinal, document.id(), document.owner(), tokenized.length, tokenized.terms());
+            newOrdinals.put(document.id(), ordinal);
+            newTotalLength += tokenized.length;
+        }
+        touched.addAll(added.keySet());
+
+        NavigableMap<String, Posting> newPostings = new TreeMap<>(postings);
+        for (String term : touched) {
+            // Old entries keep their order, new ordinals are all larger
+            PostingBuilder builder = new PostingBuilder();
+            Posting previous = postings.get(term);
+            if (previous != null) {
+                for (int i = 0; i < previous.docs.length; i++) {
+                    if (!freed.contains(previous.docs[i])) {
+                        builder.add(previous.docs[i], previous.frequencies[i]);
+                    }
+                }
+            }
+            PostingBuilder additions = added.get(term);
+            if (additions != null) {
+                builder.addAll(additions);
+            }
+            if (builder.size == 0) {
+                newPostings.remove(term);
+            } else {
+                newPostings.put(term, builder.toPosting());
+            }
+        }
+
+        IndexSegment next = new IndexSegment(newPostings, newDocs, newOrdinals, newTotalLength);
+        int slack = newDocs.size - newOrdinals.size();
+        return slack > Math.max(MIN_COMPACTION_SLACK, newOrdinals.size()) ? next.compact() : next;
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Ids of the documents whose owner is one of the given ids.
+     */
+    Set<String> idsOwnedBy(Set<String> owners) {
+        Set<String> ids = new HashSet<>();
+        for (int ordinal = 0; ordinal < docs.size; ordinal++) {
+            String owner = docs.owners[ordinal];
+            if (docs.ids[ordinal] != null && owner != null && owners.contains(owner)) {
+                ids.add(docs.ids[ordinal]);
+            }
+        }
+        return ids;
+    }
+
+    SearchResults search(List<String> terms, boolean fuzzy, int offset, int limit) {
+        int documentCount = ordinals.size();
+        if (documentCount == 0) {
+            return SearchResults.empty();
+        }
+        Scorer scorer = new Scorer(docs.size, totalLength / documentCount);
+
+        for (String term : terms) {
+            Posting exact = postings.get(term);
+            double exactIdf = exact == null ? Double.NaN : idf(documentCount, exact.docs.length);
+            if (exact != null) {
+                scorer.add(exact, exactIdf);
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                int expansions = 0;
+                for (Posting posting : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                    if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    // Rare completions must not outrank the word that was actually typed
+                    double idf = exact == null ? idf(documentCount, posting.docs.length) : exactIdf;
+                    scorer.add(posting, PREFIX_WEIGHT * idf);
+                }
+            }
+            int maxEdits = maxEdits(term);
+            if (fuzzy && maxEdits > 0) {
+                for (TermTrigrams.FuzzyTerm match : trigrams().expand(term, maxEdits, MAX_FUZZY_EXPANSIONS)) {
+                    if (match.distance() == 0) {
+                        continue;
+                    }
+                    Posting posting = postings.get(match.term());
+                    double idf = exact == null ? idf(documentCount, posting.docs.length) : exactIdf;
+                    scorer.add(posting, Math.pow(FUZZY_WEIGHT, match.distance()) * idf);
+                }
+            }
+            scorer.endTerm();
+        }
+        return scorer.top(offset, limit);
+    }
+
+    /**
+     * Typos tolerated in a query word: none below three characters, one up
+     * to five, two beyond.
+     */
+    static int maxEdits(String word) {
+        if (word.length() < 3) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    private TermTrigrams trigrams() {
+        TermTrigrams current = trigrams;
+        if (current == null) {
+            synchronized (this) {
+                current = trigrams;
+                if (current == null) {
+                    current = TermTrigrams.build(postings.keySet());
+                    trigrams = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Renumbers the live documents densely, dropping the slots of removed ones.
+     */
+    private IndexSegment compact() {
+        int[] remap = new int[docs.size];
+        Docs compacted = new Docs(ordinals.size());
+        Map<String, Integer> newOrdinals = new HashMap<>(ordinals.size() * 2);
+        for (int ordinal = 0; ordinal < docs.size; ordinal++) {
+            if (docs.ids[ordinal] == null) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            int target = compacted.size++;
+            remap[ordinal] = target;
+            compacted.set(target, docs.ids[ordinal], docs.owners[ordinal], docs.lengths[ordinal], docs.terms[ordinal]);
+            newOrdinals.put(docs.ids[ordinal], target);
+        }
+        NavigableMap<String, Posting> newPostings = new TreeMap<>();
+        postings.forEach((term, posting) -> {
+            int[] remapped = new int[posting.docs.length];
+            for (int i = 0; i < remapped.length; i++) {
+                remapped[i] = remap[posting.docs[i]];
+            }
+            newPostings.put(term, new Posting(remapped, posting.frequencies));
+        });
+        return new IndexSegment(newPostings, compacted, newOrdinals, totalLength);
+    }
+
+    private static Tokenized tokenize(SearchDocument document, float[] fieldBoosts) {
+        String[] fields = document.fields();
+        if (fields.length != fieldBoosts.length) {
+            throw new IllegalArgumentException("Expected " + fieldBoosts.length + " fields, got " + fields.length);
+        }
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (int i = 0; i < fields.length; i++) {
+            for (String term : Tokenizer.tokenize(fields[i])) {
+                frequencies.merge(term, fieldBoosts[i], Float::sum);
+                length += fieldBoosts[i];
+            }
+        }
+        return new Tokenized(frequencies, length);
+    }
+
+    /**
+     * Accumulates BM25 scores for one search. Within a query word only the
+     * best of its exact, prefix and fuzzy matches counts for a document.
+     */
+    private final class Scorer {
+        private final double averageLength;
+        private final double[] scores;
+        private final double[] termScores;
+        private final int[] matched;
+        private final int[] termMatched;
+        private int matchedCount;
+        private int termMatchedCount;
+
+        Scorer(int capacity, double averageLength) {
+            this.averageLength = averageLength;
+            this.scores = new double[capacity];
+            this.termScores = new double[capacity];
+            this.matched = new int[capacity];
+            this.termMatched = new int[capacity];
+        }
+
+        void add(Posting posting, double idf) {
+            for (int i = 0; i < posting.docs.length; i++) {
+                int ordinal = posting.docs[i];
+                float frequency = posting.frequencies[i];
+                double norm = K1 * (1 - B + B * docs.lengths[ordinal] / averageLength);
+                double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                if (termScores[ordinal] == 0) {
+                    termMatched[termMatchedCount++] = ordinal;
+                }
+                if (score > termScores[ordinal]) {
+                    termScores[ordinal] = score;
+                }
+            }
+        }
+
+        void endTerm() {
+            for (int i = 0; i < termMatchedCount; i++) {
+                int ordinal = termMatched[i];
+                if (scores[ordinal] == 0) {
+                    matched[matchedCount++] = ordinal;
+                }
+                scores[ordinal] += termScores[ordinal];
+                termScores[ordinal] = 0;
+            }
+            termMatchedCount = 0;
+        }
+
+        SearchResults top(int offset, int limit) {
+            int keep = offset + limit;
+            if (offset >= matchedCount) {
+                return new SearchResults(List.of(), matchedCount);
+            }
+            PriorityQueue<SearchHit> heap = new PriorityQueue<>(Math.min(keep, matchedCount) + 1, RANKING.reversed());
+            for (int i = 0; i < matchedCount; i++) {
+                int ordinal = matched[i];
+                double score = scores[ordinal];
+                if (heap.size() == keep && score < heap.peek().score()) {
+                    continue;
+                }
+                heap.offer(new SearchHit(docs.ids[ordinal], score));
+                if (heap.size() > keep) {
+                    heap.poll();
+                }
+            }
+            List<SearchHit> ranked = new ArrayList<>(heap);
+            ranked.sort(RANKING);
+            return new SearchResults(Collections.unmodifiableList(ranked.subList(offset, ranked.size())), matchedCount);
+        }
+    }
+
+    /** Per-ordinal document data in parallel arrays; a removed slot has a null id. */
+    private static final class Docs {
+        String[] ids;
+        String[] owners;
+        float[] lengths;
+        String[][] terms;
+        int size;
+
+        Docs(int capacity) {
+            ids = new String[capacity];
+            owners = new String[capacity];
+            lengths = new float[capacity];
+            terms = new String[capacity][];
+        }
+
+        Docs copy(int capacity) {
+            Docs copy = new Docs(0);
+            copy.ids = Arrays.copyOf(ids, capacity);
+            copy.owners = Arrays.copyOf(owners, capacity);
+            copy.lengths = Arrays.copyOf(lengths, capacity);
+            copy.terms = Arrays.copyOf(terms, capacity);
+            copy.size = size;
+            return copy;
+        }
+
+        void set(int ordinal, String id, String owner, float length, String[] docTerms) {
+            ids[ordinal] = id;
+            owners[ordinal] = owner;
+            lengths[ordinal] = length;
+            terms[ordinal] = docTerms;
+        }
+
+        void clear(int ordinal) {
+            set(ordinal, null, null, 0, null);
+        }
+    }
+
+    private record Tokenized(Map<String, Float> frequencies, float length) {
+
+        String[] terms() {
+            return frequencies.keySet().toArray(String[]::new);
+        }
+    }
+
+    /** Sorted document ordinals and their boosted term frequencies. */
+    private record Posting(int[] docs, float[] frequencies) {
+    }
+
+    private static final class PostingBuilder {
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(int ordinal, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = ordinal;
+            frequencies[size++] = frequency;
+        }
+
+        void addAll(PostingBuilder other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.docs[i], other.frequencies[i]);
+            }
+        }
+
+        Posting toPosting() {
+            return new Posting(Arrays.copyOf(docs, size), Arrays.copyOf(frequencies, size));
+        }
+    }
+
+    /** The postings of a contiguous range of documents, numbered by list position. */
+    private static final class Partial {
+        final Map<String, PostingBuilder> postings = new HashMap<>();
+        final float[] lengths;
+        final String[][] terms;
+        double totalLength;
+
+        Partial(float[] lengths, String[][] terms) {
+            this.lengths = lengths;
+            this.terms = terms;
+        }
+
+        /** Appends a partial covering the documents right after this one's. */
+        Partial append(Partial next) {
+            next.postings.forEach((term, builder) ->
+                    postings.computeIfAbsent(term, t -> new PostingBuilder()).addAll(builder));
+            totalLength += next.totalLength;
+            return this;
+        }
+    }
+
+    private static final class BuildTask extends RecursiveTask<Partial> {
+        private final List<SearchDocument> documents;
+        private final int from;
+        private final int to;
+        private final float[] fieldBoosts;
+        private final float[] lengths;
+        private final String[][] terms;
+
+        BuildTask(List<SearchDocument> documents, int from, int to, float[] fieldBoosts) {
+            this(documents, from, to, fieldBoosts, new float[documents.size()], new String[documents.size()][]);
+        }
+
+        private BuildTask(List<SearchDocument> documents, int from, int to, float[] fieldBoosts,
+                          float[] lengths, String[][] terms) {
+            this.documents = documents;
+            this.from = from;
+            this.to = to;
+            this.fieldBoosts = fieldBoosts;
+            this.lengths = lengths;
+            this.terms = terms;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= BUILD_CHUNK) {
+                Partial partial = new Partial(lengths, terms);
+                for (int ordinal = from; ordinal < to; ordinal++) {
+                    Tokenized tokenized = tokenize(documents.get(ordinal), fieldBoosts);
+                    int doc = ordinal;
+                    tokenized.frequencies.forEach((term, frequency) ->
+                            partial.postings.computeIfAbsent(term, t -> new PostingBuilder()).add(doc, frequency));
+                    lengths[ordinal] = tokenized.length;
+                    terms[ordinal] = tokenized.terms();
+                    partial.totalLength += tokenized.length;
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(documents, from, middle, fieldBoosts, lengths, terms);
+            left.fork();
+            Partial right = new BuildTask(documents, middle, to, fieldBoosts, lengths, terms).compute();
+            // Left first keeps every posting list sorted by ordinal
+            return left.join().append(right);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.elearn.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * In-memory inverted index ranking documents with BM25.
+ *
+ * <p>A document is a fixed list of text fields, each with a boost applied to
+ * its term frequencies, so a word in a title counts more than the same word
+ * in a description. Query terms also match longer index terms they are a
+ * prefix of ({@code java} finds {@code javascript}) at a reduced weight,
+ * which keeps the substring behaviour of the old {@code LIKE} queries for
+ * the common case. Fuzzy searches additionally match terms within one or
+ * two typos of a query word, scored lower for every edit.</p>
+ *
+ * <p>Searches read the current {@link IndexSegment} through a volatile field
+ * and never lock. Writers build the next segment off to the side and publish
+ * it in one assignment; they are expected to be a single thread (see
+ * {@link SearchIndexUpdater}), the methods are synchronized only so that a
+ * stray second writer cannot lose updates.</p>
+ */
+public class InvertedIndex {
+
+    private final float[] fieldBoosts;
+    private volatile IndexSegment segment = IndexSegment.EMPTY;
+
+    /**
+     * @param fieldBoosts one boost per field, in the order of {@link SearchDocument#fields()}
+     */
+    public InvertedIndex(float... fieldBoosts) {
+        this.fieldBoosts = fieldBoosts.clone();
+    }
+
+    /**
+     * Adds a document or replaces the indexed version of it.
+     */
+    public void put(String id, String... fields) {
+        apply(List.of(new SearchDocument(id, null, fields)), List.of());
+    }
+
+    public void remove(String id) {
+        apply(List.of(), List.of(id));
+    }
+
+    /**
+     * Applies a batch of changes and publishes them to searches at once.
+     */
+    public synchronized void apply(Collection<SearchDocument> upserts, Collection<String> deletes) {
+        segment = segment.withChanges(upserts, deletes, fieldBoosts);
+    }
+
+    /**
+     * Replaces the whole index with the given documents, tokenized in
+     * parallel on the pool. Searches keep using the old segment until the
+     * new one is complete.
+     */
+    public synchronized void rebuild(List<SearchDocument> documents, ForkJoinPool pool) {
+        segment = IndexSegment.build(documents, fieldBoosts, pool);
+    }
+
+    public int size() {
+        return segment.size();
+    }
+
+    /**
+     * Ids of the indexed documents belonging to any of the given owners.
+     */
+    public Set<String> idsOwnedBy(Set<String> owners) {
+        return segment.idsOwnedBy(owners);
+    }
+
+    /**
+     * Returns hits {@code offset} to {@code offset + limit} of the ranking for
+     * the query. Only the best {@code offset + limit} hits are kept while
+     * scoring, so deep pages cost more than early ones.
+     */
+    public SearchResults search(String query, int offset, int limit) {
+        return search(query, false, offset, limit);
+    }
+
+    /**
+     * Like {@link #search(String, int, int)}, tolerating typos in the query
+     * when {@code fuzzy} is set.
+     */
+    public SearchResults search(String query, boolean fuzzy, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return SearchResults.empty();
+        }
+        return segment.search(terms, fuzzy, offset, limit);
+    }
+}
@@ -0,0 +1,11 @@
+package com.elearn.search;
+
+/**
+ * The text of one entity as it is indexed.
+ *
+ * @param id     entity id
+ * @param owner  id of the entity this one belongs to (a video's course), or {@code null}
+ * @param fields text fields, in the order of the index's field boosts
+ */
+public record SearchDocument(String id, String owner, String... fields) {
+}
@@ -0,0 +1,7 @@
+package com.elearn.search;
+
+/**
+ * A matching document and its BM25 score.
+ */
+public record SearchHit(String id, double score) {
+}
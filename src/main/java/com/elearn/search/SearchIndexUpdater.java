@@ -0,0 +1,161 @@
+package com.elearn.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The single writer of {@link CatalogSearchIndex}.
+ *
+ * <p>{@link CatalogChangeEvent}s are queued once their transaction commits
+ * (or right away when published outside one), so the index never shows a
+ * change that was rolled back. One thread drains the queue: it waits
+ * {@code search.index.batch-window} after the first change so a bulk edit
+ * arrives as one batch, re-reads up to {@code search.index.batch-size}
+ * changed rows and publishes them as a new segment.</p>
+ *
+ * <p>At startup, when the queue overflows and after a failed batch, the
+ * whole index is rebuilt instead, tokenized in parallel on a fork-join pool.</p>
+ *
+ * <p>Orders do not publish change events, so the same thread re-counts them
+ * every {@code search.suggest.popularity-refresh} to re-rank autocomplete.</p>
+ */
+@Slf4j
+@Component
+public class SearchIndexUpdater {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final CatalogSearchIndex index;
+    private final BlockingQueue<CatalogChangeEvent> queue;
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final int batchSize;
+    private final Duration batchWindow;
+    private final int rebuildParallelism;
+    private final Duration popularityRefresh;
+    private final Timer batchTimer;
+    private final Timer rebuildTimer;
+    private volatile Thread writer;
+
+    public SearchIndexUpdater(CatalogSearchIndex index,
+                              MeterRegistry meterRegistry,
+                              @Value("${search.index.queue-capacity:100000}") int queueCapacity,
+                              @Value("${search.index.batch-size:500}") int batchSize,
+                              @Value("${search.index.batch-window:PT0.05S}") Duration batchWindow,
+                              @Value("${search.index.rebuild-parallelism:0}") int rebuildParallelism,
+                              @Value("${search.suggest.popularity-refresh:PT10M}") Duration popularityRefresh) {
+        this.index = index;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.batchWindow = batchWindow;
+        this.rebuildParallelism = rebuildParallelism;
+        this.popularityRefresh = popularityRefresh;
+        this.batchTimer = Timer.builder("search.index.update").tag("type", "batch").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("search.index.update").tag("type", "rebuild").register(meterRegistry);
+        Gauge.builder("search.index.queue", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!queue.offer(event)) {
+            // Too far behind to replay changes one by one, start over instead
+            rebuildRequested.set(true);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        rebuildRequested.set(true);
+        writer = Thread.ofPlatform().name("search-indexer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        Thread thread = writer;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(RETRY_DELAY.toMillis());
+            writer = null;
+        }
+    }
+
+    private void run() {
+        ForkJoinPool pool = rebuildParallelism > 0 ? new ForkJoinPool(rebuildParallelism) : ForkJoinPool.commonPool();
+        long popularityLoaded = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    if (rebuildRequested.getAndSet(false)) {
+                        // Everything queued so far is committed, so the full read covers it
+                        queue.clear();
+                        rebuildTimer.record(() -> index.rebuild(pool));
+                        popularityLoaded = System.nanoTime();
+                        continue;
+                    }
+                    if (System.nanoTime() - popularityLoaded >= popularityRefresh.toNanos()) {
+                        popularityLoaded = System.nanoTime();
+                        index.refreshPopularity();
+                    }
+                    CatalogChangeEvent first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    Thread.sleep(batchWindow.toMillis());
+                    List<CatalogChangeEvent> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    batchTimer.record(() -> apply(batch));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    log.error("Search index update failed, rebuilding in {}", RETRY_DELAY, e);
+                    rebuildRequested.set(true);
+                    sleepQuietly();
+                }
+            }
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private void apply(List<CatalogChangeEvent> batch) {
+        Set<String> courseIds = new HashSet<>();
+        Set<String> videoIds = new HashSet<>();
+        for (CatalogChangeEvent event : batch) {
+            (event.kind() == CatalogChangeEvent.Kind.COURSE ? courseIds : videoIds).add(event.id());
+        }
+        index.apply(courseIds, videoIds);
+        log.debug("Applied {} search index changes ({} courses, {} videos)", batch.size(), courseIds.size(), videoIds.size());
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(RETRY_DELAY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.elearn.search;
+
+import java.util.List;
+
+/**
+ * One page of hits, best first, and the number of documents that matched.
+ */
+public record SearchResults(List<SearchHit> hits, int totalHits) {
+
+    public static SearchResults empty() {
+        return new SearchResults(List.of(), 0);
+    }
+}
@@ -0,0 +1,12 @@
+package com.elearn.search;
+
+/**
+ * A title offered for a typed prefix.
+ *
+ * @param kind     whether the title is a course or a video
+ * @param id       course or video id
+ * @param courseId the course itself, or the course a video belongs to
+ * @param title    title as stored
+ */
+public record Suggestion(CatalogChangeEvent.Kind kind, String id, String courseId, String title) {
+}
@@ -0,0 +1,242 @@
+package com.elearn.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Title autocomplete over courses and videos, ranked by popularity.
+ *
+ * <p>A title can be found from the start of any of its words other than
+ * stop words: "Introduction to Spring Boot" is offered for {@code intr},
+ * {@code spring b} and {@code boot}. Titles are ranked by the paid orders of
+ * their course, then shorter titles first, so every prefix has a fixed best
+ * list that {@link SuggestionTrie} precomputes per node.</p>
+ *
+ * <p>The tries are sharded by the first character of the key. A change to
+ * a title only rebuilds the shards of its old and new keys; a popularity
+ * refresh that changes any count rebuilds them all. Lookups read the shards
+ * through a volatile field and never lock. As with {@link InvertedIndex},
+ * writers are expected to be a single thread and are synchronized only as a
+ * safeguard.</p>
+ */
+public class SuggestionIndex {
+
+    /** Longest key indexed, longer prefixes are cut to it. */
+    static final int MAX_KEY_LENGTH = 64;
+
+    private static final Comparator<Entry> BEST_FIRST = Comparator
+            .comparingLong((Entry entry) -> -entry.weight)
+            .thenComparingInt(entry -> entry.suggestion.title().length())
+            .thenComparing(entry -> entry.suggestion.title())
+            .thenComparing(entry -> entry.suggestion.kind())
+            .thenComparing(entry -> entry.suggestion.id());
+
+    // Writer state
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Character, Set<String>> shardMembers = new HashMap<>();
+    private final Set<Character> dirty = new LinkedHashSet<>();
+    private Map<String, Long> popularity = Map.of();
+
+    private volatile Map<Character, Shard> shards = Map.of();
+    private volatile int size;
+
+    /**
+     * Returns up to {@code limit} titles with a word starting with the
+     * prefix, best first. At most {@link SuggestionTrie#K} are kept.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Shard shard = shards.get(key.charAt(0));
+        if (shard == null) {
+            return List.of();
+        }
+        int[] ranks = shard.trie.lookup(key, limit);
+        List<Suggestion> suggestions = new ArrayList<>(ranks.length);
+        for (int rank : ranks) {
+            suggestions.add(shard.byRank[rank]);
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces every title of one kind. Call {@link #publish()} to make the
+     * change visible.
+     */
+    public synchronized void replaceAll(CatalogChangeEvent.Kind kind, Collection<SearchDocument> documents) {
+        List<String> stale = entries.values().stream()
+                .filter(entry -> entry.suggestion.kind() == kind)
+                .map(entry -> entry.suggestion.id())
+                .toList();
+        apply(kind, documents, stale);
+    }
+
+    /**
+     * Adds, replaces and removes titles of one kind, taking the title from
+     * the first field of each document. Call {@link #publish()} to make the
+     * changes visible.
+     */
+    public synchronized void apply(CatalogChangeEvent.Kind kind, Collection<SearchDocument> upserts, Collection<String> deletes) {
+        for (String id : deletes) {
+            remove(key(kind, id));
+        }
+        for (SearchDocument document : upserts) {
+            String id = key(kind, document.id());
+            remove(id);
+            String title = document.fields().length == 0 ? null : document.fields()[0];
+            List<String> keys = keys(title);
+            if (keys.isEmpty()) {
+                continue;
+            }
+            String courseId = kind == CatalogChangeEvent.Kind.COURSE ? document.id() : document.owner();
+            Entry entry = new Entry(new Suggestion(kind, document.id(), courseId, title), keys);
+            entry.weight = popularity.getOrDefault(courseId, 0L);
+            entries.put(id, entry);
+            for (char shard : entry.shards()) {
+                shardMembers.computeIfAbsent(shard, c -> new LinkedHashSet<>()).add(id);
+                dirty.add(shard);
+            }
+        }
+    }
+
+    /**
+     * Sets the popularity of every course, videos weigh as much as their
+     * course. Call {@link #publish()} to make the change visible.
+     */
+    public synchronized void updatePopularity(Map<String, Long> ordersByCourse) {
+        if (ordersByCourse.equals(popularity)) {
+            return;
+        }
+        popularity = Map.copyOf(ordersByCourse);
+        for (Entry entry : entries.values()) {
+            entry.weight = popularity.getOrDefault(entry.suggestion.courseId(), 0L);
+        }
+        dirty.addAll(shardMembers.keySet());
+    }
+
+    /**
+     * Rebuilds the shards touched since the last call and publishes them.
+     */
+    public synchronized void publish() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Character, Shard> next = new HashMap<>(shards);
+        for (char c : dirty) {
+            Set<String> members = shardMembers.get(c);
+            if (members == null || members.isEmpty()) {
+                shardMembers.remove(c);
+                next.remove(c);
+            } else {
+                next.put(c, buildShard(c, members));
+            }
+        }
+        dirty.clear();
+        shards = Map.copyOf(next);
+        size = entries.size();
+    }
+
+    private Shard buildShard(char c, Set<String> members) {
+        Entry[] ranked = members.stream().map(entries::get).sorted(BEST_FIRST).toArray(Entry[]::new);
+        Suggestion[] byRank = new Suggestion[ranked.length];
+        List<RankedKey> keys = new ArrayList<>();
+        for (int rank = 0; rank < ranked.length; rank++) {
+            byRank[rank] = ranked[rank].suggestion;
+            for (String key : ranked[rank].keys) {
+                if (key.charAt(0) == c) {
+                    keys.add(new RankedKey(key, rank));
+                }
+            }
+        }
+        keys.sort(Comparator.comparing(RankedKey::key).thenComparingInt(RankedKey::rank));
+        String[] sortedKeys = new String[keys.size()];
+        int[] ranks = new int[keys.size()];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            sortedKeys[i] = keys.get(i).key();
+            ranks[i] = keys.get(i).rank();
+        }
+        return new Shard(SuggestionTrie.build(sortedKeys, ranks), byRank);
+    }
+
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (char shard : entry.shards()) {
+            Set<String> members = shardMembers.get(shard);
+            if (members != null) {
+                members.remove(id);
+            }
+            dirty.add(shard);
+        }
+    }
+
+    /**
+     * The folded title from each word on, skipping stop words unless they
+     * start the title.
+     */
+    static List<String> keys(String title) {
+        List<String> words = Tokenizer.words(title);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        String normalized = String.join(" ", words);
+        Set<String> keys = new LinkedHashSet<>();
+        int offset = 0;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (i == 0 || !Tokenizer.isStopWord(word)) {
+                keys.add(normalized.substring(offset, Math.min(normalized.length(), offset + MAX_KEY_LENGTH)));
+            }
+            offset += word.length() + 1;
+        }
+        return List.copyOf(keys);
+    }
+
+    static String normalize(String prefix) {
+        String normalized = String.join(" ", Tokenizer.words(prefix));
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    private static String key(CatalogChangeEvent.Kind kind, String id) {
+        return kind.name() + ':' + id;
+    }
+
+    private static final class Entry {
+        final Suggestion suggestion;
+        final List<String> keys;
+        long weight;
+
+        Entry(Suggestion suggestion, List<String> keys) {
+            this.suggestion = suggestion;
+            this.keys = keys;
+        }
+
+        char[] shards() {
+            char[] shards = new char[keys.size()];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = keys.get(i).charAt(0);
+            }
+            return shards;
+        }
+    }
+
+    private record RankedKey(String key, int rank) {
+    }
+
+    private record Shard(SuggestionTrie trie, Suggestion[] byRank) {
+    }
+}
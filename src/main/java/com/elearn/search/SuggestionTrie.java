@@ -0,0 +1,193 @@
+package com.elearn.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable radix trie answering "the best {@code k} suggestions starting
+ * with this prefix" without visiting the subtree.
+ *
+ * <p>Suggestions are numbered by rank, best first, before the trie is
+ * built. Every node stores the ranks of the best {@link #K} distinct
+ * suggestions below it, merged bottom-up from its children, so a lookup is
+ * a walk down the prefix plus a copy of at most {@code k} ints. Nodes live
+ * in flat arrays in breadth-first order, which keeps the children of a node
+ * contiguous and searchable by bisection on their first character.</p>
+ */
+final class SuggestionTrie {
+
+    /** Suggestions kept per node, the most a lookup can return. */
+    static final int K = 10;
+
+    static final SuggestionTrie EMPTY = build(new String[0], new int[0]);
+
+    private final String[] labels;
+    private final int[] childStart;
+    private final int[] childEnd;
+    private final int[] topOffsets;
+    private final int[] tops;
+
+    private SuggestionTrie(String[] labels, int[] childStart, int[] childEnd, int[] topOffsets, int[] tops) {
+        this.labels = labels;
+        this.childStart = childStart;
+        this.childEnd = childEnd;
+        this.topOffsets = topOffsets;
+        this.tops = tops;
+    }
+
+    /**
+     * Builds a trie over the keys, each pointing at the rank of its
+     * suggestion. A suggestion may be reachable through several keys.
+     *
+     * @param keys  normalized keys, sorted
+     * @param ranks rank of the suggestion of each key
+     */
+    static SuggestionTrie build(String[] keys, int[] ranks) {
+        Node root = keys.length == 0 ? new Node("", new int[0]) : build(keys, ranks, 0, keys.length, 0, true);
+
+        // Flatten breadth-first so every node's children sit next to each other
+        List<Node> order = new ArrayList<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            order.add(node);
+            queue.addAll(node.children);
+        }
+        int count = order.size();
+        String[] labels = new String[count];
+        int[] childStart = new int[count];
+        int[] childEnd = new int[count];
+        int[] topOffsets = new int[count + 1];
+        int topCount = 0;
+        for (Node node : order) {
+            topCount += node.top.length;
+        }
+        int[] tops = new int[topCount];
+        int next = 1;
+        for (int i = 0; i < count; i++) {
+            Node node = order.get(i);
+            labels[i] = node.label;
+            childStart[i] = next;
+            next += node.children.size();
+            childEnd[i] = next;
+            System.arraycopy(node.top, 0, tops, topOffsets[i], node.top.length);
+            topOffsets[i + 1] = topOffsets[i] + node.top.length;
+        }
+        return new SuggestionTrie(labels, childStart, childEnd, topOffsets, tops);
+    }
+
+    /**
+     * Ranks of the best suggestions with a key starting with the prefix,
+     * best first, at most {@code limit} of them.
+     */
+    int[] lookup(String prefix, int limit) {
+        int node = 0;
+        int position = 0;
+        while (position < prefix.length()) {
+            int child = child(node, prefix.charAt(position));
+            if (child < 0) {
+                return new int[0];
+            }
+            String label = labels[child];
+            int length = Math.min(label.length(), prefix.length() - position);
+            if (!prefix.regionMatches(position, label, 0, length)) {
+                return new int[0];
+            }
+            position += length;
+            node = child;
+        }
+        int from = topOffsets[node];
+        return Arrays.copyOfRange(tops, from, Math.min(topOffsets[node + 1], from + limit));
+    }
+
+    int nodeCount() {
+        return labels.length;
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = childEnd[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = labels[middle].charAt(0);
+            if (label < c) {
+                low = middle + 1;
+            } else if (label > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static Node build(String[] keys, int[] ranks, int from, int to, int depth, boolean root) {
+        // Keys are sorted, so the range shares exactly the prefix its first and last keys share
+        int common = root ? 0 : commonPrefix(keys[from], keys[to - 1]);
+        List<Node> children = new ArrayList<>();
+        int[] top = new int[0];
+
+        int i = from;
+        while (i < to && keys[i].length() == common) {
+            top = merge(top, new int[] { ranks[i] });
+            i++;
+        }
+        while (i < to) {
+            char c = keys[i].charAt(common);
+            int end = i + 1;
+            while (end < to && keys[end].charAt(common) == c) {
+                end++;
+            }
+            Node child = build(keys, ranks, i, end, common, false);
+            children.add(child);
+            top = merge(top, child.top);
+            i = end;
+        }
+        Node node = new Node(keys[from].substring(depth, common), top);
+        node.children.addAll(children);
+        return node;
+    }
+
+    /** The best {@link #K} distinct ranks of two ascending arrays. */
+    private static int[] merge(int[] a, int[] b) {
+        int[] merged = new int[Math.min(K, a.length + b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (n < merged.length && (i < a.length || j < b.length)) {
+            int value = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i] : b[j];
+            while (i < a.length && a[i] == value) {
+                i++;
+            }
+            while (j < b.length && b[j] == value) {
+                j++;
+            }
+            merged[n++] = value;
+        }
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        final String label;
+        final int[] top;
+        final List<Node> children = new ArrayList<>();
+
+        Node(String label, int[] top) {
+            this.label = label;
+            this.top = top;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.elearn.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over the term dictionary of a segment, used to find the
+ * terms within a few typos of a query word.
+ *
+ * <p>Every term is padded ({@code "\1\1java\2"}) and cut into trigrams. A
+ * trigram is packed into a {@code long} and maps to a sorted {@code int[]}
+ * of term ordinals; the keys are a sorted {@code long[]} searched by
+ * bisection, so lookups allocate nothing but the candidate counters.</p>
+ *
+ * <p>A candidate must share enough trigrams with the query and be close
+ * enough in length before the edit distance is computed, and that
+ * computation gives up as soon as the bound is exceeded.</p>
+ */
+final class TermTrigrams {
+
+    private static final char START = '\u0001';
+    private static final char END = '\u0002';
+    /** An edit touches at most three trigrams, a transposition four. */
+    private static final int TRIGRAMS_PER_EDIT = 4;
+
+    private static final Comparator<FuzzyTerm> CLOSEST_FIRST = Comparator
+            .comparingInt(FuzzyTerm::distance)
+            .thenComparing(FuzzyTerm::term);
+
+    private final String[] terms;
+    private final long[] keys;
+    private final int[][] postings;
+
+    private TermTrigrams(String[] terms, long[] keys, int[][] postings) {
+        this.terms = terms;
+        this.keys = keys;
+        this.postings = postings;
+    }
+
+    static TermTrigrams build(Collection<String> dictionary) {
+        String[] terms = dictionary.toArray(String[]::new);
+        Map<Long, IntList> byTrigram = new HashMap<>();
+        for (int ordinal = 0; ordinal < terms.length; ordinal++) {
+            for (long trigram : trigrams(terms[ordinal])) {
+                byTrigram.computeIfAbsent(trigram, t -> new IntList()).add(ordinal);
+            }
+        }
+        long[] keys = new long[byTrigram.size()];
+        int i = 0;
+        for (long key : byTrigram.keySet()) {
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+        int[][] postings = new int[keys.length][];
+        for (i = 0; i < keys.length; i++) {
+            // Ordinals were added in ascending order
+            postings[i] = byTrigram.get(keys[i]).toArray();
+        }
+        return new TermTrigrams(terms, keys, postings);
+    }
+
+    /**
+     * Returns up to {@code limit} dictionary terms within {@code maxEdits}
+     * insertions, deletions, substitutions or adjacent transpositions of the
+     * query word, closest first.
+     */
+    List<FuzzyTerm> expand(String word, int maxEdits, int limit) {
+        long[] grams = trigrams(word);
+        int[] counts = new int[terms.length];
+        IntList touched = new IntList();
+        for (long gram : grams) {
+            int index = Arrays.binarySearch(keys, gram);
+            if (index < 0) {
+                continue;
+            }
+            for (int ordinal : postings[index]) {
+                if (counts[ordinal]++ == 0) {
+                    touched.add(ordinal);
+                }
+            }
+        }
+
+        int threshold = Math.max(1, grams.length - TRIGRAMS_PER_EDIT * maxEdits);
+        List<FuzzyTerm> matches = new ArrayList<>();
+        for (int i = 0; i < touched.size; i++) {
+            int ordinal = touched.values[i];
+            String term = terms[ordinal];
+            if (counts[ordinal] < threshold || Math.abs(term.length() - word.length()) > maxEdits) {
+                continue;
+            }
+            int distance = boundedDistance(word, term, maxEdits);
+            if (distance <= maxEdits) {
+                matches.add(new FuzzyTerm(term, distance));
+            }
+        }
+        matches.sort(CLOSEST_FIRST);
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Optimal string alignment distance between two words, or
+     * {@code maxEdits + 1} once it is certain to exceed {@code maxEdits}.
+     */
+    static int boundedDistance(String a, String b, int maxEdits) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    /** The distinct padded trigrams of a word, packed 16 bits per char. */
+    static long[] trigrams(String word) {
+        String padded = "" + START + START + word + END;
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /** A dictionary term and its edit distance from the query word. */
+    record FuzzyTerm(String term, int distance) {
+    }
+
+    private static final class IntList {
+        int[] values = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
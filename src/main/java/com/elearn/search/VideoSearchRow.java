@@ -0,0 +1,11 @@
+package com.elearn.search;
+
+/**
+ * The indexed columns of a video, read without loading the entity.
+ */
+public record VideoSearchRow(String id, String title, String description, String courseId) {
+
+    public SearchDocument toDocument() {
+        return new SearchDocument(id, courseId, title, description);
+    }
+}
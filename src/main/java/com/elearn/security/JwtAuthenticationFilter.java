@@ -1,5 +1,7 @@
 package com.elearn.security;
 
+import com.elearn.dto.CustomUserDetails;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersions;
 
     /**
      * This method filters every incoming HTTP request.
@@ -43,23 +46,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String tokenPrefix = "Bearer ";
-        String username = null;
-        String jwtToken = null;
 
         try {
-            // Check if header exists and starts with "Bearer "
-            if (authHeader != null && authHeader.startsWith(tokenPrefix)) {
-                jwtToken = authHeader.substring(tokenPrefix.length()); // Extract token
-                username = jwtUtil.extractUserName(jwtToken);          // Extract username from token
-                log.info("JWT token detected for user: {}", username);
-            }
-
-            // If username is found and user is not authenticated yet
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Only when a "Bearer " header is present and the user is not authenticated yet
+            if (authHeader != null && authHeader.startsWith(tokenPrefix)
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Signature and expiry are checked once, or not at all for a token verified recently
+                JwtPrincipal principal = jwtUtil.verify(authHeader.substring(tokenPrefix.length()));
+                UserDetails userDetails = loadUser(principal);
 
-                // Validate token with the username
-                if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
+                if (userDetails != null && principal.username().equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
@@ -68,11 +64,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     // Set the authentication in the context
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.info("User '{}' authenticated successfully", username);
+                    log.debug("User '{}' authenticated successfully", principal.username());
                 } else {
-                    log.warn("JWT token validation failed for user: {}", username);
+                    log.warn("JWT token validation failed for user: {}", principal.username());
                 }
             }
+        } catch (JwtException e) {
+            log.debug("Rejected JWT token: {}", e.getMessage());
         } catch (Exception e) {
             log.error("Error in JWT Authentication Filter: {}", e.getMessage());
         }
@@ -80,4 +78,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continue with the filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the user from the token's claims when the token is still at the
+     * user's current version, with no database access while that version is
+     * cached. Tokens without user claims are resolved by a lookup.
+     *
+     * @return {@code null} if the token has been revoked or the account disabled
+     */
+    private UserDetails loadUser(JwtPrincipal principal) {
+        if (!principal.hasUserClaims()) {
+            return userDetailsService.loadUserByUsername(principal.username());
+        }
+        if (!tokenVersions.isCurrent(principal.userId(), principal.tokenVersion())) {
+            return null;
+        }
+        return CustomUserDetails.fromToken(principal.userId(), principal.username(), principal.tokenVersion(),
+                principal.roles());
+    }
 }
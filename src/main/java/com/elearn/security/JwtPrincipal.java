@@ -0,0 +1,26 @@
+package com.elearn.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What a verified access token says about its bearer.
+ *
+ * @param username     the subject, the account's email
+ * @param userId       {@code null} for tokens issued before user claims were
+ *                     added, which only name the subject
+ * @param roles        authorities granted when the token was issued
+ * @param tokenVersion the user's token version when the token was issued
+ * @param expiresAt    {@code null} if the token never expires
+ */
+public record JwtPrincipal(String username, String userId, List<String> roles, long tokenVersion,
+                           Instant issuedAt, Instant expiresAt) {
+
+    public boolean hasUserClaims() {
+        return userId != null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -1,26 +1,67 @@
 package com.elearn.security;
 
+import com.elearn.dto.CustomUserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String VERSION_CLAIM = "ver";
 
-    private Key key= Keys.hmacShaKeyFor(Base64.getDecoder().decode(JwtConstant.secretKey));
+    private final Key key= Keys.hmacShaKeyFor(Base64.getDecoder().decode(JwtConstant.secretKey));
 
+    // Immutable and thread-safe, so it is built once rather than per token
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key) // use your secret key to verify
+            .build();
 
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(VerifiedTokenCache verifiedTokens) {
+        this.verifiedTokens = verifiedTokens;
+    }
+
+    /**
+     * Checks the signature and expiry of the token, parsing it once, and
+     * returns who it was issued to. A token verified before is answered from
+     * {@link VerifiedTokenCache}.
+     *
+     * @throws JwtException if the token is malformed, not signed by us or expired
+     */
+    public JwtPrincipal verify(String token) {
+        return verifiedTokens.get(token, this::parse);
+    }
+
+    private JwtPrincipal parse(String token) {
+        Claims claims = extractAllClaims(token);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        Number version = claims.get(VERSION_CLAIM, Number.class);
+        return new JwtPrincipal(claims.getSubject(),
+                claims.get(USER_ID_CLAIM, String.class),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                version == null ? 0 : version.longValue(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()));
+    }
 
     public String extractUserName(String token){
 
-        return  extractClaim(token,Claims::getSubject);
+        return verify(token).username();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
@@ -29,20 +70,34 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key) // use your secret key to verify
-                .build()
+        return parser
                 .parseClaimsJws(token) // parse the JWT
                 .getBody(); // get the claims (data inside token)
     }
 
 
+    /**
+     * Issues a token naming only the subject. The filter has to look the
+     * user up for every request made with it.
+     */
     public String generateToken(String username){
-        return  createToken(username);
+        return  createToken(username, Map.of());
     }
 
-    private String createToken(String username) {
+    /**
+     * Issues a token carrying the user's id, roles and token version, which
+     * the filter authenticates without reading the user row.
+     */
+    public String generateToken(CustomUserDetails user){
+        return createToken(user.getUsername(), Map.of(
+                USER_ID_CLAIM, user.getUserId(),
+                ROLES_CLAIM, List.copyOf(user.getRoles()),
+                VERSION_CLAIM, user.getTokenVersion()));
+    }
+
+    private String createToken(String username, Map<String, Object> claims) {
         return Jwts.builder()
+                .addClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis()+JwtConstant.jwtExpiration))
@@ -51,19 +106,13 @@ public class JwtUtil {
     }
 
       public boolean validateToken(String token, String userName){
-          String tokenUsername = extractUserName(token);
-          return (userName.equals(tokenUsername)&& !isTokenExpired(token));
+          JwtPrincipal principal = verify(token);
+          return (userName.equals(principal.username())&& !principal.isExpired(Instant.now()));
 
       }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-
-    }
-
-    private Date extractExpiration(String token) {
-
-       return extractClaim(token,Claims::getExpiration);
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 
 
@@ -0,0 +1,113 @@
+package com.elearn.security;
+
+import com.elearn.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits login attempts before any password is hashed: every attempt counts
+ * against the client address, and failed ones against the account, each in
+ * a fixed window starting with the first attempt. A successful login clears
+ * the account's failures.
+ *
+ * <p>The address is {@code request.getRemoteAddr()}, which is the client's
+ * own once {@code server.forward-headers-strategy} resolves it behind a
+ * proxy. Many users can still share one, so the address limit is set high
+ * and guessing is held back by the per-account limit.</p>
+ */
+@Component
+public class LoginThrottle {
+
+    private final Windows attemptsByAddress;
+    private final Windows failuresByAccount;
+
+    public LoginThrottle(@Value("${security.login.per-ip.attempts:600}") int attemptsPerAddress,
+                         @Value("${security.login.per-ip.window:PT1M}") Duration addressWindow,
+                         @Value("${security.login.per-account.failures:5}") int failuresPerAccount,
+                         @Value("${security.login.per-account.window:PT5M}") Duration accountWindow,
+                         @Value("${security.login.max-tracked:100000}") long maxTracked) {
+        this.attemptsByAddress = new Windows(attemptsPerAddress, addressWindow, maxTracked);
+        this.failuresByAccount = new Windows(failuresPerAccount, accountWindow, maxTracked);
+    }
+
+    /**
+     * Counts an attempt from the address.
+     *
+     * @throws TooManyRequestsException if the account has failed too often or
+     *                                  the address has tried too often
+     */
+    public void checkAttempt(String email, String clientAddress) {
+        long wait = failuresByAccount.retryAfter(account(email));
+        if (wait > 0) {
+            throw new TooManyRequestsException("Too many failed logins for this account, try again later", wait);
+        }
+        wait = attemptsByAddress.acquire(clientAddress);
+        if (wait > 0) {
+            throw new TooManyRequestsException("Too many login attempts, try again later", wait);
+        }
+    }
+
+    public void loginFailed(String email) {
+        failuresByAccount.acquire(account(email));
+    }
+
+    public void loginSucceeded(String email) {
+        failuresByAccount.reset(account(email));
+    }
+
+    private static String account(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Windows {
+
+        private final int limit;
+        private final long lengthNanos;
+        private final Cache<String, Window> windows;
+
+        Windows(int limit, Duration length, long maxEntries) {
+            this.limit = limit;
+            this.lengthNanos = length.toNanos();
+            // Counting happens inside the value, so a window expires as long after its first attempt
+            this.windows = Caffeine.newBuilder()
+                    .maximumSize(maxEntries)
+                    .expireAfterWrite(length)
+                    .build();
+        }
+
+        /** Counts one more and returns the seconds to wait if that is over the limit, otherwise 0. */
+        long acquire(String key) {
+            Window window = windows.get(key, k -> new Window(System.nanoTime()));
+            return window.count.incrementAndGet() > limit ? secondsLeft(window) : 0;
+        }
+
+        /** Seconds to wait if the limit is already reached, otherwise 0. */
+        long retryAfter(String key) {
+            Window window = windows.getIfPresent(key);
+            return window != null && window.count.get() >= limit ? secondsLeft(window) : 0;
+        }
+
+        void reset(String key) {
+            windows.invalidate(key);
+        }
+
+        private long secondsLeft(Window window) {
+            long left = window.start + lengthNanos - System.nanoTime();
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(left + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+
+    private record Window(long start, AtomicInteger count) {
+
+        Window(long start) {
+            this(start, new AtomicInteger());
+        }
+    }
+}
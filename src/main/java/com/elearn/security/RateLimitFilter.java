@@ -0,0 +1,116 @@
+package com.elearn.security;
+
+import com.elearn.dto.CustomMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limits on the routes listed under
+ * {@code security.rate-limit.policies}. Runs right after
+ * {@link JwtAuthenticationFilter}, so signed-in users are limited by their
+ * JWT subject wherever they connect from and everyone else by address,
+ * resolved through {@code server.forward-headers-strategy} behind a proxy.
+ * An address's bucket is {@code address-multiplier} times a user's, as
+ * anonymous clients behind a NAT share one.
+ *
+ * <p>A request over its limit is answered 429 with a {@code Retry-After}
+ * of the seconds until the next token, without reaching the controller.
+ * Requests on routes without a policy pass untouched.</p>
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<RateLimitPolicy> policies;
+    private final Counter[] rejected;
+    private final LongSupplier clock;
+    private final byte[] rejectionBody;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, millisSince(System.nanoTime()));
+    }
+
+    /**
+     * @param clock milliseconds from any origin, staying below 2<sup>40</sup>
+     */
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.policies = !properties.isEnabled() ? List.of() : properties.getPolicies().stream()
+                .map(policy -> new RateLimitPolicy(policy, properties.getMaxClients(), properties.getIdleTimeout(),
+                        properties.getAddressMultiplier()))
+                .toList();
+        this.rejected = policies.stream()
+                .map(policy -> Counter.builder("security.rate_limit.rejected").tag("policy", policy.name())
+                        .register(meterRegistry))
+                .toArray(Counter[]::new);
+        this.clock = clock;
+        try {
+            this.rejectionBody = new ObjectMapper()
+                    .writeValueAsBytes(new CustomMessage("Too many requests, try again later", false));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!policies.isEmpty()) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            for (int i = 0; i < policies.size(); i++) {
+                RateLimitPolicy policy = policies.get(i);
+                if (policy.matches(request.getMethod(), path)) {
+                    long waitMillis = policy.tryAcquire(user(), request.getRemoteAddr(), clock.getAsLong());
+                    if (waitMillis > 0) {
+                        rejected[i].increment();
+                        reject(response, waitMillis);
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String user() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+
+    private static LongSupplier millisSince(long originNanos) {
+        return () -> (System.nanoTime() - originNanos) / 1_000_000;
+    }
+}
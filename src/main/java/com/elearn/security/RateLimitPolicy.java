@@ -0,0 +1,166 @@
+package com.elearn.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One route's limit, with a bucket per signed-in user and per client
+ * address, the latter scaled by the address multiplier. Buckets are kept in bounded maps and dropped once idle, which
+ * loses nothing since an idle client's bucket would be full again.
+ */
+final class RateLimitPolicy {
+
+    /** Distinct paths whose match is remembered, enough for every route with a few ids each */
+    private static final long MATCHED_PATHS = 10_000;
+
+    private final String name;
+    private final List<PathPattern> paths;
+    private final String[] prefixes;
+    private final String[] suffixes;
+    private final Cache<String, Boolean> matchedPaths;
+    private final Function<String, Boolean> matcher;
+    private final Set<String> methods;
+    private final long capacity;
+    private final double refillPerMill;
+    private final long addressCapacity;
+    private final double addressRefillPerMill;
+    private final Cache<String, TokenBucket> users;
+    private final Cache<String, TokenBucket> addresses;
+
+    RateLimitPolicy(RateLimitProperties.Policy policy, long maxClients, Duration idleTimeout, int addressMultiplier) {
+        if (addressMultiplier < 1) {
+            throw new IllegalArgumentException("The rate limit address multiplier must be at least 1");
+        }
+        if (policy.getCapacity() < 1 || (long) policy.getCapacity() * addressMultiplier > TokenBucket.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Rate limit " + policy.getName() + " needs a capacity from 1 to "
+                    + TokenBucket.MAX_CAPACITY / addressMultiplier);
+        }
+        if (!(policy.getRefillPerSecond() > 0)) {
+            throw new IllegalArgumentException("Rate limit " + policy.getName() + " needs a positive refill rate");
+        }
+        this.name = policy.getName();
+        this.paths = policy.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.prefixes = policy.getPaths().stream().map(RateLimitPolicy::literalPrefix).toArray(String[]::new);
+        this.suffixes = policy.getPaths().stream().map(RateLimitPolicy::literalSuffix).toArray(String[]::new);
+        this.matchedPaths = cache(MATCHED_PATHS, null);
+        this.matcher = this::parseAndMatch;
+        this.methods = policy.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.capacity = policy.getCapacity() * TokenBucket.SCALE;
+        // Thousandths of a token per millisecond equals tokens per second
+        this.refillPerMill = policy.getRefillPerSecond();
+        this.addressCapacity = capacity * addressMultiplier;
+        this.addressRefillPerMill = refillPerMill * addressMultiplier;
+        this.users = cache(maxClients, idleTimeout);
+        this.addresses = cache(maxClients, idleTimeout);
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Whether the request is covered. Most requests are ruled out on the raw
+     * path by the patterns' literal prefix and suffix; the rest are parsed
+     * once per distinct path and the answer remembered. Paths with encoded
+     * characters or path parameters never take the shortcut, since they may
+     * match once decoded.
+     */
+    boolean matches(String method, String path) {
+        if (!methods.isEmpty() && !methods.contains(method)) {
+            return false;
+        }
+        return (path.indexOf('%') >= 0 || path.indexOf(';') >= 0 || mayMatch(path))
+                && matchedPaths.get(path, matcher);
+    }
+
+    private boolean mayMatch(String path) {
+        // A trailing separator may still match, so only the prefix is checked then
+        boolean trailingSeparator = path.endsWith("/");
+        for (int i = 0; i < prefixes.length; i++) {
+            if (path.startsWith(prefixes[i]) && (trailingSeparator || path.endsWith(suffixes[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean parseAndMatch(String path) {
+        PathContainer parsed = PathContainer.parsePath(path);
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(parsed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @param user the signed-in user, or {@code null} to limit by address
+     * @return 0 if the request may proceed, otherwise the milliseconds until
+     *         it would be allowed
+     */
+    long tryAcquire(String user, String address, long now) {
+        if (user != null) {
+            return tryAcquire(users, user, capacity, refillPerMill, now);
+        }
+        return tryAcquire(addresses, address, addressCapacity, addressRefillPerMill, now);
+    }
+
+    private static long tryAcquire(Cache<String, TokenBucket> buckets, String client, long capacity,
+                                   double refillPerMill, long now) {
+        TokenBucket bucket = buckets.getIfPresent(client);
+        if (bucket == null) {
+            // Looked up first so a hit does not allocate the loader
+            bucket = buckets.get(client, key -> new TokenBucket(capacity, now));
+        }
+        return bucket.tryTake(capacity, refillPerMill, now);
+    }
+
+    /** The pattern up to the segment holding its first wildcard or variable, without the separator before it. */
+    private static String literalPrefix(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (isWildcard(pattern.charAt(i))) {
+                return pattern.substring(0, Math.max(0, pattern.lastIndexOf('/', i)));
+            }
+        }
+        return pattern;
+    }
+
+    /** The segments of the pattern after the one holding its last wildcard or variable. */
+    private static String literalSuffix(String pattern) {
+        for (int i = pattern.length() - 1; i >= 0; i--) {
+            if (isWildcard(pattern.charAt(i))) {
+                int separator = pattern.indexOf('/', i);
+                return separator < 0 ? "" : pattern.substring(separator);
+            }
+        }
+        return pattern;
+    }
+
+    private static boolean isWildcard(char c) {
+        return c == '*' || c == '?' || c == '{' || c == '}';
+    }
+
+    /** A bounded cache, dropping entries unused for the idle timeout unless that is null */
+    private static <V> Cache<String, V> cache(long maximumSize, Duration idleTimeout) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                // Upkeep is a few steps per request, cheaper on the request thread than handing it to the pool
+                .executor(Runnable::run);
+        return idleTimeout != null ? builder.expireAfterAccess(idleTimeout).build() : builder.build();
+    }
+}
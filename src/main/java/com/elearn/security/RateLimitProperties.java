@@ -0,0 +1,56 @@
+package com.elearn.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request rate limits by route, bound from {@code security.rate-limit}.
+ */
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Clients tracked per policy, the least recently seen are dropped first */
+    private long maxClients = 100_000;
+
+    /** A client's bucket is dropped after this long without requests */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Capacity and refill of an address's bucket relative to a user's, since
+     * one address may be a NAT or proxy in front of many anonymous clients
+     */
+    private int addressMultiplier = 10;
+
+    /** Checked in order, a request counts against the first policy matching it */
+    private List<Policy> policies = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        private String name;
+
+        /** Path patterns relative to the context path, such as {@code /api/v1/search/**} */
+        private List<String> paths = new ArrayList<>();
+
+        /** HTTP methods limited, all of them when empty */
+        private List<String> methods = new ArrayList<>();
+
+        /** Requests a client may make in a burst */
+        private int capacity;
+
+        /** Requests per second a client may sustain */
+        private double refillPerSecond;
+    }
+}
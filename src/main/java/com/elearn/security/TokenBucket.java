@@ -0,0 +1,80 @@
+package com.elearn.security;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A token bucket packed into one long: the tokens left, in thousandths, in
+ * the top 24 bits and the time of the last refill, in milliseconds, in the
+ * low 40. Taking a token is a single compare-and-set, so concurrent requests
+ * of one client never block each other.
+ *
+ * <p>Tokens are added lazily when one is taken. Capacity and rate belong to
+ * the {@link RateLimitPolicy} and are passed in, so a bucket is a header and
+ * one field.</p>
+ */
+final class TokenBucket {
+
+    /** Tokens are counted in thousandths so slow refill rates still add up */
+    static final long SCALE = 1000;
+    /** Largest capacity the 24 token bits hold, in whole tokens */
+    static final long MAX_CAPACITY = ((1L << 24) - 1) / SCALE;
+
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(TokenBucket.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long state;
+
+    /**
+     * A full bucket.
+     *
+     * @param capacity in thousandths of a token
+     * @param now      milliseconds on the policy's clock, below 2<sup>40</sup>
+     */
+    TokenBucket(long capacity, long now) {
+        this.state = capacity << TIME_BITS | now;
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @param capacity      in thousandths of a token
+     * @param refillPerMill thousandths of a token added per millisecond
+     * @return 0 if a token was taken, otherwise the milliseconds until one
+     *         will be available
+     */
+    long tryTake(long capacity, double refillPerMill, long now) {
+        while (true) {
+            long current = state;
+            long tokens = current >>> TIME_BITS;
+            long refilled = current & TIME_MASK;
+            long elapsed = now - refilled;
+            if (elapsed > 0 && tokens < capacity) {
+                long added = (long) (elapsed * refillPerMill);
+                if (added > 0) {
+                    // The fraction of a thousandth not yet added is dropped
+                    tokens = Math.min(capacity, tokens + added);
+                    refilled = now;
+                }
+            } else if (elapsed > 0) {
+                // A full bucket starts refilling from now, not from when it filled up
+                refilled = now;
+            }
+            if (tokens < SCALE) {
+                return Math.max(1, (long) Math.ceil((SCALE - tokens) / refillPerMill));
+            }
+            if (STATE.compareAndSet(this, current, (tokens - SCALE) << TIME_BITS | refilled)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.elearn.security;
+
+import com.elearn.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Current token version of each user, checked against the version an access
+ * token was issued at so the token can stand in for the user row.
+ *
+ * <p>A disabled or deleted account has no version and all of its tokens are
+ * refused. Versions are read from the database at most once per
+ * {@code security.jwt.token-version.ttl} per user, which bounds how long a
+ * revoked token, a role change or a disabled account goes unnoticed on other
+ * nodes. On this node the version is read again as soon as a
+ * {@link UserChangedEvent} commits.</p>
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final long REVOKED = -1;
+
+    private final LoadingCache<String, Long> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${security.jwt.token-version.max-entries:10000}") long maxEntries,
+                             @Value("${security.jwt.token-version.ttl:PT30S}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userId -> userRepository.findActiveTokenVersion(userId).orElse(REVOKED));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "tokenVersions");
+    }
+
+    /**
+     * Whether a token issued at this version is still good for the user.
+     */
+    public boolean isCurrent(String userId, long tokenVersion) {
+        long current = versions.get(userId);
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    public void invalidate(String userId) {
+        versions.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangedEvent event) {
+        invalidate(event.userId());
+    }
+}
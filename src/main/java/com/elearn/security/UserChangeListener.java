@@ -0,0 +1,24 @@
+package com.elearn.security;
+
+import com.elearn.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Turns every change to a {@link User} row into a {@link UserChangedEvent},
+ * whichever code made it. Created by Hibernate through the Spring bean
+ * container.
+ */
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.elearn.security;
+
+/**
+ * Published when a user row is updated or deleted. That covers changes to the
+ * password and the active flag, and role changes, which bump the token
+ * version. Caches of the user drop it once the transaction commits.
+ */
+public record UserChangedEvent(String userId) {
+}
@@ -0,0 +1,54 @@
+package com.elearn.security;
+
+import com.elearn.dto.CustomUserDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Users loaded for authentication, by the name they log in with, so repeat
+ * logins and requests with tokens that only name a subject skip the user
+ * and role queries.
+ *
+ * <p>A user is dropped when a {@link UserChangedEvent} for it commits.
+ * Entries also expire after {@code security.user-details.ttl}, which bounds
+ * staleness on other nodes that did not see the change. Hits and misses are
+ * exported as the {@code userDetails} cache metrics.</p>
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, CustomUserDetails> users;
+
+    public UserDetailsCache(@Value("${security.user-details.max-entries:10000}") long maxEntries,
+                            @Value("${security.user-details.ttl:PT5M}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "userDetails");
+    }
+
+    /**
+     * Returns the cached user, loading it on a miss. Concurrent misses for
+     * the same name load once; a failed load is not cached.
+     */
+    public CustomUserDetails get(String username, Function<String, CustomUserDetails> loader) {
+        return users.get(username, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangedEvent event) {
+        // Entries are keyed by login name, which the event does not carry and may itself have changed
+        users.asMap().values().removeIf(user -> user.getUserId().equals(event.userId()));
+    }
+}
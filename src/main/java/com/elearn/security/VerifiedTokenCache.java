@@ -0,0 +1,106 @@
+package com.elearn.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Tokens whose signature was checked recently, so a client sending the same
+ * token on every request pays for the HMAC and the JSON parsing once.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token rather than the
+ * token itself, which keeps bearer credentials out of the heap and the keys
+ * at a fixed size. Each entry is evicted when its token expires, and a hit
+ * is checked against the expiry again, so an expired token is never
+ * accepted from the cache. Tokens without an expiry are not cached.</p>
+ *
+ * <p>A maximum of 0 turns the cache off.</p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<TokenDigest, JwtPrincipal> verified;
+
+    public VerifiedTokenCache(@Value("${security.jwt.verified-cache.max-entries:10000}") long maxEntries,
+                              MeterRegistry meterRegistry) {
+        if (maxEntries <= 0) {
+            this.verified = null;
+            return;
+        }
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedTokens");
+    }
+
+    /**
+     * Returns the principal of a token verified before, or verifies it and
+     * caches the result. Concurrent misses for the same token may each
+     * verify it.
+     *
+     * @param verifier checks the signature and expiry, throwing if the token
+     *                 is not valid; failures are not cached
+     */
+    public JwtPrincipal get(String token, Function<String, JwtPrincipal> verifier) {
+        if (verified == null) {
+            return verifier.apply(token);
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        JwtPrincipal principal = verified.getIfPresent(digest);
+        if (principal != null && !principal.isExpired(Instant.now())) {
+            return principal;
+        }
+        principal = verifier.apply(token);
+        if (principal.expiresAt() != null) {
+            verified.put(digest, principal);
+        }
+        return principal;
+    }
+
+    record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            try {
+                ByteBuffer sha = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.UTF_8)));
+                return new TokenDigest(sha.getLong(), sha.getLong(), sha.getLong(), sha.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, JwtPrincipal principal, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, JwtPrincipal principal, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.elearn.services;
+
+import com.elearn.media.BannerInfo;
+import com.elearn.media.BannerSize;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serves course banners from memory where possible.
+ *
+ * <p>Callers look up the {@link BannerInfo} first, which is enough to answer
+ * conditional requests, and only fetch the bytes when the client's copy is
+ * out of date.</p>
+ */
+public interface BannerService {
+
+    /**
+     * @throws com.elearn.exception.ResourceNotFoundException if the course or its banner does not exist
+     */
+    BannerInfo getBannerInfo(String courseId);
+
+    byte[] getBannerBytes(BannerInfo info, BannerSize size);
+
+    /**
+     * Stores the variants rendered from the banner stored under
+     * {@code bannerKey}. They are only served once the course points at that
+     * key.
+     */
+    void storeVariants(String courseId, String bannerKey, Map<BannerSize, byte[]> variants) throws IOException;
+
+    /**
+     * Drops everything cached for the course, again after the surrounding
+     * transaction commits so a concurrent read cannot cache the old banner.
+     */
+    void evict(String courseId);
+}
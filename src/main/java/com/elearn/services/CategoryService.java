@@ -1,7 +1,7 @@
 package com.elearn.services;
 
 import com.elearn.dto.CategoryDto;
-import com.elearn.dto.CourseDto;
+import com.elearn.dto.CourseSummaryDto;
 import com.elearn.dto.CustomPageResponse;
 
 import java.util.List;
@@ -9,10 +9,23 @@ import java.util.List;
 public interface CategoryService{
     CategoryDto insert(CategoryDto categoryDto);
     CustomPageResponse<CategoryDto> getAll(int pageNumber, int pageSize, String sortBy);
+
+    /**
+     * Returns the page of categories following the cursor, or the first
+     * page without one, counting them only when {@code includeTotal} is set.
+     *
+     * @param sortBy one of {@link com.elearn.config.AppConstants.Pagination#CATEGORY_CURSOR_SORTS}
+     */
+    CustomPageResponse<CategoryDto> scroll(String cursor, int pageSize, String sortBy, boolean includeTotal);
     CategoryDto get(String categoryId);
     void delete(String categoryId);
     CategoryDto update(CategoryDto categoryDto, String categoryId);
     void addCourseToCategory(String catId, String courseId);
-    List<CourseDto> getCoursesOfCat(String categoryId);
+    /**
+     * Returns summaries of the category's courses in title order.
+     *
+     * @throws com.elearn.exception.ResourceNotFoundException if the category does not exist
+     */
+    List<CourseSummaryDto> getCoursesOfCat(String categoryId);
 
 }
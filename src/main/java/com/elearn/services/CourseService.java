@@ -1,11 +1,15 @@
 package com.elearn.services;
 
+import com.elearn.dto.CourseBrowseResponse;
 import com.elearn.dto.CourseDto;
+import com.elearn.dto.CourseSummaryDto;
 import com.elearn.dto.CustomPageResponse;
 import com.elearn.dto.ResourceContentType;
-import org.springframework.web.multipart.MultipartFile;
+import com.elearn.media.BannerSize;
+import com.elearn.search.CourseFilter;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public interface CourseService {
@@ -16,15 +20,61 @@ public interface CourseService {
 
     CourseDto getCourseById(String id);
 
-    public CustomPageResponse<CourseDto> getAll(int pageNumber, int pageSize, String sortBy);
+    /**
+     * Returns one page of course summaries, read without descriptions,
+     * videos or categories.
+     */
+    public CustomPageResponse<CourseSummaryDto> getAll(int pageNumber, int pageSize, String sortBy);
 
-    CustomPageResponse<CourseDto> getAllCoursesLive(int pageNumber, int pageSize, String sortBy);
+    CustomPageResponse<CourseSummaryDto> getAllCoursesLive(int pageNumber, int pageSize, String sortBy);
+
+    /**
+     * Returns the page of courses following the cursor, or the first page
+     * without one. Unlike {@link #getAll} every page costs the same, and the
+     * courses are only counted when {@code includeTotal} is set.
+     *
+     * @param sortBy one of {@link com.elearn.config.AppConstants.Pagination#COURSE_CURSOR_SORTS}
+     * @throws com.elearn.exception.InvalidInputException if the cursor, sort or page size is invalid
+     */
+    CustomPageResponse<CourseSummaryDto> scrollCourses(String cursor, int pageSize, String sortBy, boolean liveOnly,
+                                                       boolean includeTotal);
 
     void deleteCourse(String id);
 
+    /**
+     * Returns the best matching courses for the keyword, ranked by relevance.
+     */
     List<CourseDto> searchCourses(String keyword);
 
-    CourseDto saveBanner(MultipartFile file, String courseId) throws IOException;
+    /**
+     * Returns one page of the courses matching the keyword, ranked by
+     * relevance. With {@code fuzzy} set, words within one or two typos of
+     * the keyword's words match as well. Paging stops at
+     * {@link com.elearn.config.AppConstants.Search#MAX_RESULTS}.
+     */
+    CustomPageResponse<CourseDto> searchCourses(String keyword, boolean fuzzy, int pageNumber, int pageSize);
+
+    /**
+     * Returns one page of the courses passing the filter together with the
+     * count of every category, live status and price band, answered from
+     * memory in a single call.
+     *
+     * @throws com.elearn.exception.ServiceUnavailableException while the catalog index loads after startup
+     */
+    CourseBrowseResponse browseCourses(CourseFilter filter, int pageNumber, int pageSize);
+
+    /**
+     * Saves a banner read from a raw stream, written once, straight into the
+     * media store. The content type is checked before any byte is read and
+     * the size limit while the bytes arrive.
+     */
+    CourseDto saveBanner(String courseId, String fileName, String contentType, InputStream content) throws IOException;
 
     ResourceContentType getCourseBannerById(String courseId);
+
+    /**
+     * Returns the banner of a course in the requested size. Variants are
+     * served from memory once read.
+     */
+    ResourceContentType getCourseBannerById(String courseId, BannerSize size);
 }
@@ -1,10 +1,70 @@
 package com.elearn.services;
 
-import org.springframework.web.multipart.MultipartFile;
+import com.elearn.storage.StagedFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 
 public interface FileService {
     boolean deleteCourseBannerIfExists(String path);
-    String save(MultipartFile file, String outputPath, String filename) throws IOException;
+
+    /**
+     * @return whether uploads are kept in the content-addressed store
+     */
+    boolean isContentAddressed();
+
+    /**
+     * Moves a finished local file into the content-addressed store, dropping it
+     * when a blob with the same digest already exists.
+     *
+     * @param file        the file to take over, it no longer exists afterwards
+     * @param contentType the media type of the file
+     * @return the key of the stored blob
+     * @throws IOException if the file cannot be read or moved
+     */
+    String storeContentAddressed(Path file, String contentType) throws IOException;
+
+    /**
+     * Same as {@link #storeContentAddressed(Path, String)} for a caller that has
+     * already computed the SHA-256 digest of the file while handling it.
+     *
+     * @param file        the file to take over, it no longer exists afterwards
+     * @param sha256      the lower-case hex SHA-256 digest of the file
+     * @param contentType the media type of the file
+     * @return the key of the stored blob
+     * @throws IOException if the file cannot be moved
+     */
+    String storeContentAddressed(Path file, String sha256, String contentType) throws IOException;
+
+    /**
+     * Copies an upload stream to a staging file, hashing it on the way. For a
+     * local store the file sits on the store's own file system, so
+     * {@link #store(StagedFile, String, String, String)} later renames it into
+     * place and every byte is written exactly once.
+     *
+     * @param content  the upload, read to the end
+     * @param maxBytes the largest upload accepted
+     * @return the staged file, which the caller must store or delete
+     * @throws com.elearn.exception.PayloadTooLargeException as soon as more than {@code maxBytes} arrive
+     */
+    StagedFile stage(InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Moves a staged file into the store, under its digest when content
+     * addressing is on, otherwise under {@code outputPath/filename}.
+     *
+     * @return the key of the stored file
+     */
+    String store(StagedFile staged, String outputPath, String filename, String contentType) throws IOException;
+
+    /**
+     * Drops one reference to a stored file and deletes it once no video or
+     * course banner refers to it any more. Inside a transaction the check is
+     * deferred until after commit.
+     *
+     * @param path the key previously returned by this service
+     * @return {@code true} if the file was deleted right away
+     */
+    boolean release(String path);
 }
@@ -0,0 +1,20 @@
+package com.elearn.services;
+
+import com.elearn.dto.SuggestionDto;
+
+import java.util.List;
+
+/**
+ * Search features that span courses and videos.
+ */
+public interface SearchService {
+
+    /**
+     * Course and video titles with a word starting with the prefix, most
+     * popular first. Answered from memory; empty until the search index has
+     * loaded after startup.
+     *
+     * @throws com.elearn.exception.InvalidInputException if the prefix is blank or the limit is out of range
+     */
+    List<SuggestionDto> suggest(String prefix, int limit);
+}
@@ -0,0 +1,30 @@
+package com.elearn.services;
+
+import com.elearn.dto.IngestJobDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Asynchronous ingest of uploaded video files.
+ *
+ * <p>The request thread only receives the upload and returns a job; checksum,
+ * probe, store and database update run on a bounded background pipeline whose
+ * progress can be polled or followed as server-sent events.</p>
+ */
+public interface VideoIngestService {
+
+    /**
+     * Receives the upload into staging and queues it for ingest.
+     *
+     * @param content the upload, read to the end unless the job is refused
+     * @throws com.elearn.exception.ServiceUnavailableException if the ingest queue is full
+     * @throws com.elearn.exception.PayloadTooLargeException    if the upload exceeds {@code video.upload.max-size}
+     */
+    IngestJobDto submit(String videoId, String fileName, String contentType, InputStream content) throws IOException;
+
+    IngestJobDto getJob(String jobId);
+
+    SseEmitter subscribe(String jobId);
+}
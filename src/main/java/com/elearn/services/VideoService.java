@@ -2,6 +2,7 @@ package com.elearn.services;
 
 import com.elearn.dto.CustomPageResponse;
 import com.elearn.dto.VideoDto;
+import com.elearn.dto.VideoSummaryDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -11,8 +12,23 @@ public interface VideoService {
     VideoDto createVideo(VideoDto videoDto);
     VideoDto updateVideo(String videoId, VideoDto videoDto);
     VideoDto getVideoById(String videoId);
-    CustomPageResponse<VideoDto> getAllVideos(int pageNumber, int pageSize, String sortBy);
+    /**
+     * Returns one page of video summaries, read without file details or courses.
+     */
+    CustomPageResponse<VideoSummaryDto> getAllVideos(int pageNumber, int pageSize, String sortBy);
+
+    /**
+     * Returns the page of videos following the cursor, or the first page
+     * without one, counting them only when {@code includeTotal} is set.
+     *
+     * @param sortBy one of {@link com.elearn.config.AppConstants.Pagination#VIDEO_CURSOR_SORTS}
+     */
+    CustomPageResponse<VideoSummaryDto> scrollVideos(String cursor, int pageSize, String sortBy, boolean includeTotal);
     void deleteVideo(String videoId);
     List<VideoDto> searchVideos(String keyword);
-    List<VideoDto> getVideoOfCourse(String courseId);
+    CustomPageResponse<VideoDto> searchVideos(String keyword, boolean fuzzy, int pageNumber, int pageSize);
+    /**
+     * Returns summaries of the course's videos in title order.
+     */
+    List<VideoSummaryDto> getVideoOfCourse(String courseId);
 }
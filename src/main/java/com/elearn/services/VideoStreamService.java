@@ -0,0 +1,20 @@
+package com.elearn.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+public interface VideoStreamService {
+
+    /**
+     * Streams the file of a video to the client, honouring {@code Range} and
+     * {@code If-Range} request headers.
+     *
+     * @param videoId  the id of the video to stream
+     * @param request  the incoming request carrying the range headers
+     * @param response the response the bytes are written to
+     * @throws IOException if the file cannot be read or the client disconnects
+     */
+    void streamVideo(String videoId, HttpServletRequest request, HttpServletResponse response) throws IOException;
+}
@@ -1,10 +1,19 @@
 package com.elearn.services;
 
 import com.elearn.dto.VideoUploadResponse;
-import org.springframework.web.multipart.MultipartFile;
 
-public interface VideoUploadService {
+import java.io.InputStream;
 
+public interface VideoUploadService {
 
-    VideoUploadResponse uploadVideo( String videoId, MultipartFile file);
+    /**
+     * Uploads a video from a raw stream, writing it once, straight into the
+     * media store. The content type is checked before any byte is read and
+     * the size limit while the bytes arrive.
+     *
+     * @param fileName    the client's file name, used for the key when content addressing is off
+     * @param contentType the declared media type, must be {@code video/*}
+     * @param content     the file content, read to the end but not closed
+     */
+    VideoUploadResponse uploadVideo(String videoId, String fileName, String contentType, InputStream content);
 }
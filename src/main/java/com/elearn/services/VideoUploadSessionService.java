@@ -0,0 +1,28 @@
+package com.elearn.services;
+
+import com.elearn.dto.UploadSessionDto;
+import com.elearn.dto.UploadSessionRequest;
+import com.elearn.dto.VideoUploadResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Resumable, chunked upload of video files.
+ *
+ * <p>A client opens a session for a video, sends chunks at arbitrary offsets
+ * (in parallel and in any order), asks which ranges have arrived, and finally
+ * completes the session, which attaches the assembled file to the video.</p>
+ */
+public interface VideoUploadSessionService {
+
+    UploadSessionDto createSession(String videoId, UploadSessionRequest request) throws IOException;
+
+    UploadSessionDto writeChunk(String videoId, String uploadId, long offset, long length, InputStream body) throws IOException;
+
+    UploadSessionDto getSession(String videoId, String uploadId);
+
+    VideoUploadResponse completeSession(String videoId, String uploadId) throws IOException;
+
+    void abortSession(String videoId, String uploadId) throws IOException;
+}
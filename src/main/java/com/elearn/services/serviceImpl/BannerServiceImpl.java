@@ -0,0 +1,114 @@
+package com.elearn.services.serviceImpl;
+
+import com.elearn.entity.Course;
+import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.media.BannerCache;
+import com.elearn.media.BannerInfo;
+import com.elearn.media.BannerSize;
+import com.elearn.media.ThumbnailGenerator;
+import com.elearn.repository.CourseRepo;
+import com.elearn.services.BannerService;
+import com.elearn.storage.MediaStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Deliberately not transactional: a cache hit must not even borrow a
+ * database connection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BannerServiceImpl implements BannerService {
+
+    private final CourseRepo courseRepository;
+    private final MediaStore mediaStore;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BannerCache bannerCache;
+
+    @Override
+    public BannerInfo getBannerInfo(String courseId) {
+        return bannerCache.getInfo(courseId, this::loadInfo);
+    }
+
+    @Override
+    public byte[] getBannerBytes(BannerInfo info, BannerSize size) {
+        return bannerCache.getImage(info, size, key -> size.isVariant() ? loadVariant(info, size) : loadOriginal(info));
+    }
+
+    @Override
+    public void storeVariants(String courseId, String bannerKey, Map<BannerSize, byte[]> variants) throws IOException {
+        for (Map.Entry<BannerSize, byte[]> variant : variants.entrySet()) {
+            byte[] bytes = variant.getValue();
+            mediaStore.put(BannerInfo.variantKey(courseId, bannerKey, variant.getKey()), new ByteArrayInputStream(bytes),
+                    bytes.length, ThumbnailGenerator.CONTENT_TYPE);
+        }
+    }
+
+    @Override
+    public void evict(String courseId) {
+        bannerCache.invalidate(courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bannerCache.invalidate(courseId);
+                }
+            });
+        }
+    }
+
+    private BannerInfo loadInfo(String courseId) {
+        log.debug("Loading banner info for course id: {}", courseId);
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+        if (course.getBanner() == null) {
+            throw new ResourceNotFoundException("Banner not found for course id: " + courseId);
+        }
+        long lastModified = course.getLastModifiedDate() != null ? course.getLastModifiedDate().getTime() : 0L;
+        return new BannerInfo(courseId, course.getBanner(), course.getBannerContentType(), lastModified);
+    }
+
+    private byte[] loadOriginal(BannerInfo info) {
+        try {
+            if (!mediaStore.exists(info.key())) {
+                throw new ResourceNotFoundException("Banner file not found for course id: " + info.courseId());
+            }
+            try (InputStream in = mediaStore.get(info.key())) {
+                return in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read banner for course id: " + info.courseId(), e);
+        }
+    }
+
+    /**
+     * Reads a stored variant, rendering all of them from the original first
+     * for banners saved before variants were generated.
+     */
+    private byte[] loadVariant(BannerInfo info, BannerSize size) {
+        String key = info.variantKey(size);
+        try {
+            if (mediaStore.exists(key)) {
+                try (InputStream in = mediaStore.get(key)) {
+                    return in.readAllBytes();
+                }
+            }
+            log.info("Generating missing banner variants for course id: {}", info.courseId());
+            Map<BannerSize, byte[]> variants = thumbnailGenerator.generate(new ByteArrayInputStream(loadOriginal(info)));
+            storeVariants(info.courseId(), info.key(), variants);
+            return variants.get(size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read banner for course id: " + info.courseId(), e);
+        }
+    }
+}
@@ -1,27 +1,35 @@
 package com.elearn.services.serviceImpl;
 
+import com.elearn.config.AppConstants;
 import com.elearn.dto.CategoryDto;
-import com.elearn.dto.CourseDto;
+import com.elearn.dto.CourseSummaryDto;
 import com.elearn.dto.CustomPageResponse;
 import com.elearn.entity.Category;
 import com.elearn.entity.Course;
 import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.mapper.CategoryMapper;
 import com.elearn.repository.CategoryRepository;
 import com.elearn.repository.CourseRepo;
+import com.elearn.search.CatalogChangeEvent;
 import com.elearn.services.CategoryService;
+import com.elearn.util.KeysetCursor;
+import com.elearn.util.ValidationUtil;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -34,7 +42,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CourseRepo courseRepo;
-    private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Inserts a new category into the system.
@@ -47,10 +55,10 @@ public class CategoryServiceImpl implements CategoryService {
         String catId = UUID.randomUUID().toString();
         categoryDto.setId(catId);
         categoryDto.setAddedDate(new Date());
-        Category category = modelMapper.map(categoryDto, Category.class);
+        Category category = CategoryMapper.toEntity(categoryDto);
         Category savedCat = categoryRepository.save(category);
         log.info("Category inserted with ID: {}", catId);
-        return modelMapper.map(savedCat, CategoryDto.class);
+        return CategoryMapper.toDto(savedCat);
     }
 
     /**
@@ -68,7 +76,7 @@ public class CategoryServiceImpl implements CategoryService {
         Page<Category> categoryPage = categoryRepository.findAll(pageRequest);
         List<CategoryDto> categoryDtoList = categoryPage.getContent()
                 .stream()
-                .map(cat -> modelMapper.map(cat, CategoryDto.class))
+                .map(CategoryMapper::toDto)
                 .toList();
 
         CustomPageResponse<CategoryDto> response = new CustomPageResponse<>();
@@ -83,6 +91,27 @@ public class CategoryServiceImpl implements CategoryService {
         return response;
     }
 
+    /**
+     * Retrieves the categories after a cursor, seeking to it through the
+     * title index instead of counting past an offset.
+     *
+     * @param cursor       the cursor of the previous page, or null for the first
+     * @param pageSize     number of categories per page
+     * @param sortBy       sort field
+     * @param includeTotal whether to also count all categories
+     * @return cursor page of category DTOs
+     */
+    @Override
+    public CustomPageResponse<CategoryDto> scroll(String cursor, int pageSize, String sortBy, boolean includeTotal) {
+        String sortField = ValidationUtil.validateCursorPage(sortBy, pageSize, AppConstants.Pagination.CATEGORY_CURSOR_SORTS);
+        ScrollPosition position = KeysetCursor.decode(cursor, sortField, Map.of(sortField, String.class, "id", String.class));
+
+        Window<Category> window = categoryRepository.findBy((root, query, cb) -> cb.conjunction(),
+                query -> query.sortBy(Sort.by(sortField)).limit(pageSize).scroll(position));
+        Long total = includeTotal ? categoryRepository.count() : null;
+        return KeysetCursor.page(window, CategoryMapper::toDto, sortField, pageSize, total);
+    }
+
     /**
      * Retrieves a specific category by ID.
      *
@@ -95,7 +124,9 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
         log.info("Category found with ID: {}", categoryId);
-        return modelMapper.map(category, CategoryDto.class);
+        CategoryDto categoryDto = CategoryMapper.toDto(category);
+        categoryDto.setCourses(courseRepo.findSummariesByCategoryId(categoryId));
+        return categoryDto;
     }
 
     /**
@@ -105,10 +136,13 @@ public class CategoryServiceImpl implements CategoryService {
      * @throws ResourceNotFoundException if category not found
      */
     @Override
+    @Transactional
     public void delete(String categoryId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
+        List<String> courseIds = category.getCourses().stream().map(Course::getId).toList();
         categoryRepository.delete(category);
+        courseIds.forEach(courseId -> eventPublisher.publishEvent(CatalogChangeEvent.course(courseId)));
         log.warn("Category deleted with ID: {}", categoryId);
     }
 
@@ -127,7 +161,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDescription(categoryDto.getDescription()); // fix: previously set to getId()
         Category savedCategory = categoryRepository.save(category);
         log.info("Category updated with ID: {}", categoryId);
-        return modelMapper.map(savedCategory, CategoryDto.class);
+        return CategoryMapper.toDto(savedCategory);
     }
 
     /**
@@ -146,6 +180,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         category.addCourse(course);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangeEvent.course(courseId));
         log.info("Course with ID {} added to category ID {}", courseId, catId);
     }
 
@@ -153,14 +188,16 @@ public class CategoryServiceImpl implements CategoryService {
      * Gets all courses under a specific category.
      *
      * @param categoryId the category ID
-     * @return list of course DTOs
+     * @return list of course summaries
      */
     @Override
-    public List<CourseDto> getCoursesOfCat(String categoryId) {
-        Category category = categoryRepository.findById(categoryId)
+    public List<CourseSummaryDto> getCoursesOfCat(String categoryId) {
+        // A lookup by id rather than an exists query, so it is served from the cache
+        categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category Not found with ID: " + categoryId));
-        List<Course> courses = category.getCourses();
+        // One query for the listed columns instead of loading every course with its videos
+        List<CourseSummaryDto> courses = courseRepo.findSummariesByCategoryId(categoryId);
         log.info("Fetched {} courses under category ID {}", courses.size(), categoryId);
-        return courses.stream().map(course -> modelMapper.map(course, CourseDto.class)).toList();
+        return courses;
     }
 }
@@ -1,40 +1,62 @@
 package com.elearn.services.serviceImpl;
 
 
+import com.elearn.dto.CourseBrowseResponse;
 import com.elearn.dto.CourseDto;
+import com.elearn.dto.CourseSummaryDto;
 import com.elearn.dto.CustomPageResponse;
 import com.elearn.dto.ResourceContentType;
 import com.elearn.entity.Course;
 import com.elearn.exception.DuplicateResourceException;
 import com.elearn.exception.InvalidInputException;
 import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.exception.ServiceUnavailableException;
+import com.elearn.media.BannerInfo;
+import com.elearn.media.BannerSize;
+import com.elearn.media.ThumbnailGenerator;
 import com.elearn.repository.CourseRepo;
+import com.elearn.mapper.CourseMapper;
+import com.elearn.repository.projection.CourseSummaryView;
+import com.elearn.search.CatalogChangeEvent;
+import com.elearn.search.CatalogSearchIndex;
+import com.elearn.search.CourseFilter;
+import com.elearn.search.FacetResults;
+import com.elearn.search.SearchHit;
+import com.elearn.search.SearchResults;
+import com.elearn.services.BannerService;
 import com.elearn.services.CategoryService;
 import com.elearn.services.CourseService;
 import com.elearn.services.FileService;
+import com.elearn.storage.StagedFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 import com.elearn.config.AppConstants;
 
+import com.elearn.util.KeysetCursor;
 import com.elearn.util.ValidationUtil;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -48,11 +70,19 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class CourseServiceImpl implements CourseService {
 
+    /** The index loads within seconds of startup */
+    private static final long CATALOG_RETRY_SECONDS = 5;
+    private static final Map<String, Class<?>> CURSOR_SORT_TYPES =
+            Map.of("title", String.class, "price", Double.class, "createdDate", Date.class);
 
     private final CourseRepo courseRepository;
-    private final ModelMapper modelMapper;
     private final CategoryService categoryService;
     private final FileService fileService;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BannerService bannerService;
+    private final CatalogSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -64,15 +94,16 @@ public class CourseServiceImpl implements CourseService {
             throw new DuplicateResourceException("Course with title " + courseDto.getTitle() + " already exists");
         }
 
-        Course course = modelMapper.map(courseDto, Course.class);
+        Course course = CourseMapper.toEntity(courseDto);
         course.setId(UUID.randomUUID().toString());
         course.setCreatedDate(new Date());
         course.setLastModifiedDate(new Date());
         
         Course savedCourse = courseRepository.save(course);
+        eventPublisher.publishEvent(CatalogChangeEvent.course(savedCourse.getId()));
         log.info("Created course with id: {}", savedCourse.getId());
         
-        return modelMapper.map(savedCourse, CourseDto.class);
+        return CourseMapper.toDto(savedCourse);
     }
 
     @Override
@@ -90,51 +121,69 @@ public class CourseServiceImpl implements CourseService {
             throw new DuplicateResourceException("Course with title " + courseDto.getTitle() + " already exists");
         }
 
-        modelMapper.map(courseDto, existingCourse);
+        CourseMapper.update(courseDto, existingCourse);
         existingCourse.setLastModifiedDate(new Date());
         
         Course updatedCourse = courseRepository.save(existingCourse);
+        eventPublisher.publishEvent(CatalogChangeEvent.course(courseId));
+        bannerService.evict(courseId);
         log.info("Updated course with id: {}", courseId);
         
-        return modelMapper.map(updatedCourse, CourseDto.class);
+        return CourseMapper.toDto(updatedCourse);
     }
 
     @Override
     public CourseDto getCourseById(String id) {
         log.debug("Fetching course with id: {}", id);
         
-        Course course = courseRepository.findById(id)
+        Course course = courseRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
                 
-        return modelMapper.map(course, CourseDto.class);
+        return CourseMapper.toDto(course);
     }
 
     @Override
-    public CustomPageResponse<CourseDto> getAll(int pageNumber, int pageSize, String sortBy) {
+    public CustomPageResponse<CourseSummaryDto> getAll(int pageNumber, int pageSize, String sortBy) {
         log.debug("Fetching all courses - page: {}, size: {}, sortBy: {}", pageNumber, pageSize, sortBy);
         
         String sortField = (sortBy != null && !sortBy.trim().isEmpty()) ? sortBy : "title";
         Sort sort = Sort.by(sortField).ascending();
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
         
-        Page<Course> coursesPage = courseRepository.findAll(pageable);
+        Page<CourseSummaryView> coursesPage = courseRepository.findAllBy(pageable);
         
         return buildCustomPageResponse(coursesPage, pageNumber, pageSize);
     }
 
     @Override
-    public CustomPageResponse<CourseDto> getAllCoursesLive(int pageNumber, int pageSize, String sortBy) {
+    public CustomPageResponse<CourseSummaryDto> getAllCoursesLive(int pageNumber, int pageSize, String sortBy) {
         log.debug("Fetching all live courses - page: {}, size: {}, sortBy: {}", pageNumber, pageSize, sortBy);
         
         String sortField = (sortBy != null && !sortBy.trim().isEmpty()) ? sortBy : "title";
         Sort sort = Sort.by(sortField).ascending();
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
         
-        Page<Course> liveCourses = courseRepository.findByLive(true, pageable);
+        Page<CourseSummaryView> liveCourses = courseRepository.findByLive(true, pageable);
         
         return buildCustomPageResponse(liveCourses, pageNumber, pageSize);
     }
 
+    @Override
+    public CustomPageResponse<CourseSummaryDto> scrollCourses(String cursor, int pageSize, String sortBy, boolean liveOnly,
+                                                              boolean includeTotal) {
+        String sortField = ValidationUtil.validateCursorPage(sortBy, pageSize, AppConstants.Pagination.COURSE_CURSOR_SORTS);
+        ScrollPosition position = KeysetCursor.decode(cursor, sortField,
+                Map.of(sortField, CURSOR_SORT_TYPES.get(sortField), "id", String.class));
+        log.debug("Scrolling courses - size: {}, sortBy: {}, liveOnly: {}", pageSize, sortField, liveOnly);
+
+        // Spring Data appends the id to the sort, which makes the keyset unique
+        Window<CourseSummaryView> window = liveOnly
+                ? courseRepository.findByLive(true, position, Limit.of(pageSize), Sort.by(sortField))
+                : courseRepository.findAllBy(position, Limit.of(pageSize), Sort.by(sortField));
+        Long total = !includeTotal ? null : liveOnly ? courseRepository.countByLive(true) : courseRepository.count();
+        return KeysetCursor.page(window, CourseMapper::toSummary, sortField, pageSize, total);
+    }
+
     @Override
     @Transactional
     public void deleteCourse(String id) {
@@ -145,97 +194,187 @@ public class CourseServiceImpl implements CourseService {
         }
         
         courseRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.course(id));
+        bannerService.evict(id);
         log.info("Deleted course with id: {}", id);
     }
 
     @Override
     public List<CourseDto> searchCourses(String keyword) {
-        log.debug("Searching courses with keyword: {}", keyword);
+        return searchCourses(keyword, false, 0, AppConstants.Search.DEFAULT_RESULTS).getContent();
+    }
+
+    @Override
+    public CustomPageResponse<CourseDto> searchCourses(String keyword, boolean fuzzy, int pageNumber, int pageSize) {
+        log.debug("Searching courses with keyword: {} (fuzzy: {}) - page: {}, size: {}", keyword, fuzzy, pageNumber, pageSize);
         
-        if (!StringUtils.hasText(keyword) || keyword.length() < 3) {
-            throw new InvalidInputException("Search keyword must be at least 3 characters long");
+        if (!StringUtils.hasText(keyword) || keyword.length() < AppConstants.Search.MIN_KEYWORD_LENGTH) {
+            throw new InvalidInputException("Search keyword must be at least "
+                    + AppConstants.Search.MIN_KEYWORD_LENGTH + " characters long");
         }
-        
-        return courseRepository.findByTitleContainingIgnoreCaseOrShortDescContainingIgnoreCase(keyword, keyword)
-                .stream()
-                .map(course -> modelMapper.map(course, CourseDto.class))
+        ValidationUtil.validateSearchPage(pageNumber, pageSize);
+
+        if (!searchIndex.isReady()) {
+            // Only until the index has loaded after startup
+            List<CourseDto> matches = courseRepository
+                    .findByTitleContainingIgnoreCaseOrShortDescContainingIgnoreCase(keyword, keyword)
+                    .stream()
+                    .map(CourseMapper::toDto)
+                    .collect(Collectors.toList());
+            int from = Math.min(pageNumber * pageSize, matches.size());
+            int to = Math.min(from + pageSize, matches.size());
+            return searchPage(matches.subList(from, to), matches.size(), pageNumber, pageSize);
+        }
+
+        SearchResults results = searchIndex.searchCourses(keyword, fuzzy, pageNumber * pageSize, pageSize);
+        List<String> ids = results.hits().stream().map(SearchHit::id).toList();
+        // Primary-key lookups for one page of hits, in ranking order
+        Map<String, Course> courses = courseRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        List<CourseDto> content = ids.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .map(CourseMapper::toDto)
                 .collect(Collectors.toList());
+        return searchPage(content, Math.min(results.totalHits(), AppConstants.Search.MAX_RESULTS), pageNumber, pageSize);
     }
 
     @Override
-    @Transactional
-    public CourseDto saveBanner(MultipartFile file, String courseId) throws IOException {
+    public CourseBrowseResponse browseCourses(CourseFilter filter, int pageNumber, int pageSize) {
+        ValidationUtil.validatePagination(pageNumber, pageSize);
+        validateRange(filter.minPrice(), filter.maxPrice(), "price");
+        validateRange(filter.minDiscount(), filter.maxDiscount(), "discount");
+        if (!searchIndex.isReady()) {
+            throw new ServiceUnavailableException("Course catalog is loading", CATALOG_RETRY_SECONDS);
+        }
+
+        FacetResults results = searchIndex.filterCourses(filter, pageNumber * pageSize, pageSize);
+        List<CourseSummaryDto> content = results.courses().stream().map(CourseMapper::toSummary).toList();
+        List<CourseBrowseResponse.PriceBand> bands = results.priceBands().stream()
+                .map(band -> new CourseBrowseResponse.PriceBand(band.from(), band.to(), band.count()))
+                .toList();
+        return new CourseBrowseResponse(searchPage(content, results.total(), pageNumber, pageSize),
+                results.categories(), results.live(), results.notLive(), results.discounted(), bands);
+    }
+
+    /**
+     * Receives and renders the banner without a transaction, so no database
+     * connection is held while a slow client streams the body or ImageIO
+     * decodes it. Only pointing the course at the stored file is transactional.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CourseDto saveBanner(String courseId, String fileName, String contentType, InputStream content) throws IOException {
         log.info("Saving banner for course id: {}", courseId);
-        
-        validateFile(file);
-        
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
-        // Delete old banner if exists
-        if (course.getBanner() != null) {
-            fileService.deleteCourseBannerIfExists(course.getBanner());
+        ValidationUtil.validateImageContentType(contentType);
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
         }
 
-        String filePath = fileService.save(
-            file, 
-            AppConstants.Paths.COURSE_BANNER_UPLOAD_DIR, 
-            "banner_" + courseId + "." + getFileExtension(Objects.requireNonNull(file.getOriginalFilename()))
-        );
+        StagedFile staged = fileService.stage(content, AppConstants.Validation.MAX_FILE_SIZE_BYTES);
+        String filePath;
+        try {
+            if (staged.size() == 0) {
+                throw new InvalidInputException("File cannot be empty");
+            }
+
+            // Rendering the variants first also rejects files ImageIO cannot decode
+            Map<BannerSize, byte[]> variants;
+            try (InputStream in = Files.newInputStream(staged.path())) {
+                variants = thumbnailGenerator.generate(in);
+            }
+
+            filePath = fileService.store(
+                staged,
+                AppConstants.Paths.BANNER_KEY_PREFIX,
+                // A name of its own per upload, the variants are versioned by it
+                "banner_" + courseId + "_" + UUID.randomUUID() + "." + getFileExtension(Objects.requireNonNull(fileName)),
+                contentType
+            );
+            bannerService.storeVariants(courseId, filePath, variants);
+        } finally {
+            Files.deleteIfExists(staged.path());
+        }
+
+        // A file stored for a course deleted meanwhile is left to the media garbage collector
+        return transactionTemplate.execute(status -> updateBanner(courseId, filePath, contentType));
+    }
+
+    private CourseDto updateBanner(String courseId, String filePath, String contentType) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
+        String oldBanner = course.getBanner();
         course.setBanner(filePath);
-        course.setBannerContentType(file.getContentType());
+        course.setBannerContentType(contentType);
         course.setLastModifiedDate(new Date());
         
         Course updatedCourse = courseRepository.save(course);
+        // Browse results list the banner key from the index
+        eventPublisher.publishEvent(CatalogChangeEvent.course(courseId));
+        bannerService.evict(courseId);
         log.info("Saved banner for course id: {}", courseId);
+
+        // Drop the old banner only after the course points at the new one
+        if (oldBanner != null && !oldBanner.equals(filePath)) {
+            fileService.release(oldBanner);
+        }
         
-        return modelMapper.map(updatedCourse, CourseDto.class);
+        return CourseMapper.toDto(updatedCourse);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ResourceContentType getCourseBannerById(String courseId) {
-        log.debug("Fetching banner for course id: {}", courseId);
-        
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
-                
-        if (course.getBanner() == null) {
-            throw new ResourceNotFoundException("Banner not found for course id: " + courseId);
-        }
-        
-        Path path = Paths.get(course.getBanner());
-        Resource resource = new FileSystemResource(path);
-        
-        if (!resource.exists()) {
-            throw new ResourceNotFoundException("Banner file not found for course id: " + courseId);
-        }
-        
+        return getCourseBannerById(courseId, BannerSize.ORIGINAL);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResourceContentType getCourseBannerById(String courseId, BannerSize size) {
+        log.debug("Fetching {} banner for course id: {}", size, courseId);
+
+        BannerInfo info = bannerService.getBannerInfo(courseId);
+
         ResourceContentType contentType = new ResourceContentType();
-        contentType.setResource(resource);
-        contentType.setContentType(course.getBannerContentType());
-        
+        contentType.setResource(new ByteArrayResource(bannerService.getBannerBytes(info, size)));
+        contentType.setContentType(info.contentType(size));
         return contentType;
     }
     
     // Private helper methods
     
-    private void validateFile(MultipartFile file) {
-        ValidationUtil.validateFile(file);
-    }
-    
     private String getFileExtension(String filename) {
         int lastDot = filename.lastIndexOf('.');
         return lastDot == -1 ? "" : filename.substring(lastDot + 1);
     }
     
-    private CustomPageResponse<CourseDto> buildCustomPageResponse(Page<Course> page, int pageNumber, int pageSize) {
-        List<CourseDto> content = page.getContent().stream()
-                .map(course -> modelMapper.map(course, CourseDto.class))
-                .collect(Collectors.toList());
-                
-        CustomPageResponse<CourseDto> response = new CustomPageResponse<>();
-        response.setContent(content);
+    private static void validateRange(Double min, Double max, String name) {
+        if ((min != null && min < 0) || (max != null && max < 0)) {
+            throw new InvalidInputException("The " + name + " range cannot be negative");
+        }
+        if (min != null && max != null && min > max) {
+            throw new InvalidInputException("Minimum " + name + " cannot be greater than maximum " + name);
+        }
+    }
+
+    private <T> CustomPageResponse<T> searchPage(List<T> content, long totalElements,
+                                                 int pageNumber, int pageSize) {
+        int totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+        return CustomPageResponse.<T>builder()
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .isLast(pageNumber >= totalPages - 1)
+                .content(content)
+                .build();
+    }
+
+    private CustomPageResponse<CourseSummaryDto> buildCustomPageResponse(Page<CourseSummaryView> page, int pageNumber, int pageSize) {
+        CustomPageResponse<CourseSummaryDto> response = new CustomPageResponse<>();
+        response.setContent(page.getContent().stream().map(CourseMapper::toSummary).toList());
         response.setPageNumber(pageNumber);
         response.setPageSize(pageSize);
         response.setTotalPages(page.getTotalPages());
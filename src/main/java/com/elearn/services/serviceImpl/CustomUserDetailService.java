@@ -3,18 +3,24 @@ package com.elearn.services.serviceImpl;
 import com.elearn.dto.CustomUserDetails;
 import com.elearn.entity.User;
 import com.elearn.repository.UserRepository;
+import com.elearn.security.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailService implements UserDetailsService {
+public class CustomUserDetailService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepo;
+    private final UserDetailsCache userDetailsCache;
     /**
      * @param username 
      * @return
@@ -23,8 +29,27 @@ public class CustomUserDetailService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
+        return userDetailsCache.get(username, this::load);
+    }
+
+    private CustomUserDetails load(String username) {
         User user = this.userRepo.findByEmail(username)
                 .orElseThrow(() -> new BadCredentialsException("User not found in database !!"));
         return new CustomUserDetails(user);
     }
+
+    /**
+     * Stores the password hashed again at the current strength, called by
+     * the authentication provider after a successful login with a weaker
+     * stored hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = this.userRepo.findById(((CustomUserDetails) user).getUserId())
+                .orElseThrow(() -> new BadCredentialsException("User not found in database !!"));
+        entity.setPassword(newPassword);
+        log.info("Rehashed the password of user {}", entity.getUserId());
+        return new CustomUserDetails(entity);
+    }
 }
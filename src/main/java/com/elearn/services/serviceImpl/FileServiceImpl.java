@@ -1,84 +1,253 @@
 package com.elearn.services.serviceImpl;
 
+import com.elearn.config.AppConstants;
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.VideoRepository;
 import com.elearn.services.FileService;
+import com.elearn.storage.InFlightMedia;
+import com.elearn.storage.MediaStore;
+import com.elearn.storage.StagedFile;
+import com.elearn.storage.StoredObject;
+import com.elearn.upload.LimitedInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * File storage for course banners and videos on top of the configured
+ * {@link MediaStore}. Every value handed out is a media store key.
+ *
+ * <p>In content-addressed mode every upload is stored once under
+ * {@code media/ab/cd/<sha256>}, sharded by the first two digest bytes so no
+ * directory grows unbounded. Blobs are reference-counted through
+ * {@code Video.filePath} and {@code Course.banner}: {@link #release(String)}
+ * deletes a blob only when no row points at it any more.</p>
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileServiceImpl implements FileService {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final VideoRepository videoRepository;
+    private final CourseRepo courseRepository;
+    private final MediaStore mediaStore;
+    private final InFlightMedia inFlightMedia;
+
+    /** Striped locks so a blob is never deleted while a duplicate upload is being pointed at it. */
+    private final Object[] blobLocks = createLocks();
+
+    @Value("${media.storage.content-addressed:false}")
+    private boolean contentAddressed;
+
+    @Value("${media.storage.release-grace:PT10M}")
+    private Duration releaseGrace;
+
+    @Value("${video.upload.path}")
+    private String videoUploadPath;
+
     /**
      * @param path 
      * @return
      */
     @Override
     public boolean deleteCourseBannerIfExists(String path) {
+        try {
+            return mediaStore.delete(path);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-        Path filePath = Paths.get(path);
-        if (Files.exists(filePath)) {
+    @Override
+    public StagedFile stage(InputStream content, long maxBytes) throws IOException {
+        Path staging = createStagingFile();
+        MessageDigest digest = newDigest();
+        LimitedInputStream limited = new LimitedInputStream(content, maxBytes);
+        try (InputStream in = new DigestInputStream(limited, digest)) {
+            Files.copy(in, staging, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staging);
+            throw e;
+        }
+        return new StagedFile(staging, limited.getCount(), HEX.formatHex(digest.digest()));
+    }
 
-            try {
-                Files.delete(filePath);
-                return true;
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+    @Override
+    public String store(StagedFile staged, String outputPath, String filename, String contentType) throws IOException {
+        if (contentAddressed) {
+            return staged.sha256() != null
+                    ? storeContentAddressed(staged.path(), staged.sha256(), contentType)
+                    : storeContentAddressed(staged.path(), contentType);
         }
+        String key = outputPath + "/" + filename;
+        inFlightMedia.hold(key);
+        mediaStore.putFile(key, staged.path(), contentType);
+        return key;
+    }
 
-       return false;
+    @Override
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
+    @Override
+    public String storeContentAddressed(Path file, String contentType) throws IOException {
+        String digest;
+        try (InputStream in = Files.newInputStream(file)) {
+            digest = sha256(in);
+        }
+        return storeContentAddressed(file, digest, contentType);
     }
 
-    /**
-     * @param file 
-     * @param outputPath
-     * @param filename
-     * @return
-     * @throws IOException
-     */
     @Override
+    public String storeContentAddressed(Path file, String digest, String contentType) throws IOException {
+        String key = blobKey(digest);
+        synchronized (lockFor(digest)) {
+            inFlightMedia.hold(key);
+            if (mediaStore.exists(key)) {
+                Files.delete(file);
+                mediaStore.touch(key);
+                log.info("{} deduplicated to existing blob {}", file.getFileName(), digest);
+            } else {
+                mediaStore.putFile(key, file, contentType);
+                log.info("Stored {} as blob {}", file.getFileName(), digest);
+            }
+        }
+        return key;
+    }
 
-    public String save(MultipartFile file, String outputPath, String filename) throws IOException {
-        // Validate empty file
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("File is empty or null.");
+    @Override
+    public boolean release(String path) {
+        if (path == null) {
+            return false;
         }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Count references only once the new ones are committed, a rollback must not lose the file
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseNow(path);
+                }
+            });
+            return false;
+        }
+        return releaseNow(path);
+    }
 
-        // Validate content type (you can customize this list)
-        String contentType = file.getContentType();
-        if (contentType == null || !isAllowedContentType(contentType)) {
-            throw new IllegalArgumentException("Unsupported file type: " + contentType);
+    private boolean releaseNow(String key) {
+        if (!isManaged(key)) {
+            log.warn("Refusing to release file outside the media store: {}", key);
+            return false;
         }
 
-        // Optional: Validate file size (e.g., max 10MB)
-        long maxSizeInBytes = 10 * 1024 * 1024;
-        if (file.getSize() > maxSizeInBytes) {
-            throw new IllegalArgumentException("File size exceeds maximum limit (10MB).");
+        synchronized (lockFor(Paths.get(key).getFileName().toString())) {
+            // A duplicate upload holds the key under this same lock before it reuses the blob
+            if (inFlightMedia.isHeld(key)) {
+                log.debug("Keeping {} held by an upload in progress", key);
+                return false;
+            }
+            long references = videoRepository.countByFilePath(key) + courseRepository.countByBanner(key);
+            if (references > 0) {
+                log.debug("Keeping {} with {} remaining references", key, references);
+                return false;
+            }
+            try {
+                Optional<StoredObject> stored = mediaStore.stat(key);
+                if (stored.isEmpty()) {
+                    return false;
+                }
+                // A blob touched by a recent duplicate upload may be about to gain a reference.
+                // Nothing retries the release: a blob kept here, such as a banner replaced
+                // within the grace period, stays until the media garbage collector removes it.
+                long age = System.currentTimeMillis() - stored.get().lastModified();
+                if (age < releaseGrace.toMillis()) {
+                    log.debug("Keeping recently used file {}", key);
+                    return false;
+                }
+                mediaStore.delete(key);
+                log.info("Deleted unreferenced file {}", key);
+                return true;
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Failed to delete unreferenced file {}: {}", key, e.getMessage());
+                return false;
+            }
         }
+    }
 
-        // Create directory if it doesn't exist
-        Path directoryPath = Paths.get(outputPath);
-        Files.createDirectories(directoryPath);
+    private static String blobKey(String digest) {
+        return String.join("/", AppConstants.Paths.MEDIA_KEY_PREFIX,
+                digest.substring(0, 2), digest.substring(2, 4), digest);
+    }
 
-        // Use provided filename or fallback to original filename with timestamp
-        String cleanFileName = (filename != null && !filename.isEmpty())
-                ? filename
-                : System.currentTimeMillis() + "_" + file.getOriginalFilename();
+    /**
+     * Keys inside the store are managed; absolute paths are legacy rows and only
+     * count when they sit below the old video upload directory.
+     */
+    private boolean isManaged(String key) {
+        Path path = Paths.get(key);
+        if (!path.isAbsolute()) {
+            return !path.normalize().startsWith("..");
+        }
+        return path.normalize().startsWith(Paths.get(videoUploadPath).toAbsolutePath().normalize());
+    }
 
-        Path filePath = directoryPath.resolve(cleanFileName);
+    private Object lockFor(String key) {
+        return blobLocks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
 
-        // Save the file
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    private static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HEX.formatHex(digest.digest());
+    }
 
-        return filePath.toString();
+    private Path createStagingFile() throws IOException {
+        Optional<Path> local = mediaStore.localPath(AppConstants.Paths.STAGING_KEY_PREFIX + "/" + UUID.randomUUID());
+        if (local.isPresent()) {
+            Files.createDirectories(local.get().getParent());
+            return local.get();
+        }
+        return Files.createTempFile("upload-", ".tmp");
     }
 
-    private boolean isAllowedContentType(String contentType) {
-        return contentType.startsWith("image/") ||
-                contentType.startsWith("video/") ||
-                contentType.equals("application/pdf");
-    }}
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
+    private static Object[] createLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+}
@@ -6,6 +6,7 @@ import com.elearn.entity.Course;
 import com.elearn.entity.Order;
 import com.elearn.entity.User;
 import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.mapper.OrderMapper;
 import com.elearn.repository.CourseRepo;
 import com.elearn.repository.OrderRepository;
 import com.elearn.repository.UserRepository;
@@ -13,7 +14,6 @@ import com.elearn.services.OrderService;
 import com.elearn.exception.PaymentException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -39,7 +39,6 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepo;
     private final CourseRepo courseRepo;
     private final UserRepository userRepo;
-    private final ModelMapper modelMapper;
 
     @Value("${esewa.merchant.code}")
     public String merchantCode;
@@ -113,7 +112,7 @@ public class OrderServiceImpl implements OrderService {
                 .build();
 
         Order savedOrder = orderRepo.save(order);
-        return modelMapper.map(savedOrder, OrderDto.class);
+        return OrderMapper.toDto(savedOrder);
     }
 
     /**
@@ -246,7 +245,7 @@ public class OrderServiceImpl implements OrderService {
         Order savedOrder = orderRepo.save(order);
 
         log.info("Payment completed for order: {}", pid);
-        return modelMapper.map(savedOrder, OrderDto.class);
+        return OrderMapper.toDto(savedOrder);
     }
 
     // Add this method if not already present
@@ -254,6 +253,6 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto getOrderById(String orderId) {
         Order order = orderRepo.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-        return modelMapper.map(order, OrderDto.class);
+        return OrderMapper.toDto(order);
     }
 }
\ No newline at end of file
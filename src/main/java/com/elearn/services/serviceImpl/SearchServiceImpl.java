@@ -0,0 +1,33 @@
+package com.elearn.services.serviceImpl;
+
+import com.elearn.config.AppConstants;
+import com.elearn.dto.SuggestionDto;
+import com.elearn.exception.InvalidInputException;
+import com.elearn.search.CatalogSearchIndex;
+import com.elearn.services.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final CatalogSearchIndex searchIndex;
+
+    @Override
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        if (!StringUtils.hasText(prefix)) {
+            throw new InvalidInputException("Prefix must not be empty");
+        }
+        if (limit < 1 || limit > AppConstants.Search.MAX_SUGGESTIONS) {
+            throw new InvalidInputException("Limit must be between 1 and " + AppConstants.Search.MAX_SUGGESTIONS);
+        }
+        return searchIndex.suggest(prefix, limit).stream()
+                .map(suggestion -> new SuggestionDto(suggestion.kind().name(), suggestion.id(),
+                        suggestion.courseId(), suggestion.title()))
+                .toList();
+    }
+}
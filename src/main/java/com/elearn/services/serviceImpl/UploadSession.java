@@ -0,0 +1,217 @@
+package com.elearn.services.serviceImpl;
+
+import com.elearn.dto.ByteRangeDto;
+import com.elearn.exception.InvalidInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * State of one resumable upload: a preallocated part file plus the set of
+ * byte ranges that have been written to it so far.
+ *
+ * <p>Chunks are written with positional {@link FileChannel} writes under the
+ * read side of a lock, so any number of them can land concurrently; sealing or
+ * discarding the session takes the write side and waits for them to finish.</p>
+ */
+final class UploadSession {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String uploadId;
+    private final String videoId;
+    private final String fileName;
+    private final String contentType;
+    private final long totalSize;
+    private final Path partFile;
+    private final FileChannel channel;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Received ranges as start -> end (exclusive), kept merged. Guarded by itself. */
+    private final TreeMap<Long, Long> received = new TreeMap<>();
+    private volatile long lastActivity = System.currentTimeMillis();
+    private boolean closed;
+
+    private UploadSession(String uploadId, String videoId, String fileName, String contentType,
+                          long totalSize, Path partFile, FileChannel channel) {
+        this.uploadId = uploadId;
+        this.videoId = videoId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.partFile = partFile;
+        this.channel = channel;
+    }
+
+    static UploadSession open(String uploadId, String videoId, String fileName, String contentType,
+                              long totalSize, Path partFile) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(partFile.toFile(), "rw")) {
+            file.setLength(totalSize);
+        }
+        FileChannel channel = FileChannel.open(partFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new UploadSession(uploadId, videoId, fileName, contentType, totalSize, partFile, channel);
+    }
+
+    /**
+     * Copies {@code length} bytes from {@code in} into the part file at
+     * {@code offset}. Whatever arrived before a premature end of stream is
+     * still recorded, so the client only has to resend the missing tail.
+     */
+    void write(long offset, long length, InputStream in) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            lastActivity = System.currentTimeMillis();
+
+            byte[] bytes = new byte[(int) Math.min(BUFFER_SIZE, length)];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long position = offset;
+            long end = offset + length;
+            try {
+                while (position < end) {
+                    int read = in.read(bytes, 0, (int) Math.min(bytes.length, end - position));
+                    if (read < 0) {
+                        break;
+                    }
+                    buffer.clear().limit(read);
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                }
+            } finally {
+                markReceived(offset, position);
+                lastActivity = System.currentTimeMillis();
+            }
+            if (position < end) {
+                throw new InvalidInputException("Chunk ended after " + (position - offset)
+                        + " of " + length + " bytes");
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes the part file once all in-flight chunks are done.
+     *
+     * @return the path of the assembled file
+     */
+    Path seal() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            channel.force(true);
+            channel.close();
+            closed = true;
+            return partFile;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void discard() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                channel.close();
+                closed = true;
+            }
+            Files.deleteIfExists(partFile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean isComplete() {
+        synchronized (received) {
+            Map.Entry<Long, Long> first = received.firstEntry();
+            return first != null && first.getKey() == 0 && first.getValue() == totalSize;
+        }
+    }
+
+    long receivedBytes() {
+        synchronized (received) {
+            long total = 0;
+            for (Map.Entry<Long, Long> range : received.entrySet()) {
+                total += range.getValue() - range.getKey();
+            }
+            return total;
+        }
+    }
+
+    List<ByteRangeDto> receivedRanges() {
+        synchronized (received) {
+            List<ByteRangeDto> ranges = new ArrayList<>(received.size());
+            for (Map.Entry<Long, Long> range : received.entrySet()) {
+                ranges.add(new ByteRangeDto(range.getKey(), range.getValue() - 1));
+            }
+            return ranges;
+        }
+    }
+
+    boolean isExpired(long now, long timeoutMillis) {
+        return now - lastActivity > timeoutMillis;
+    }
+
+    private void markReceived(long start, long end) {
+        if (end <= start) {
+            return;
+        }
+        synchronized (received) {
+            Map.Entry<Long, Long> floor = received.floorEntry(start);
+            if (floor != null && floor.getValue() >= start) {
+                start = floor.getKey();
+                end = Math.max(end, floor.getValue());
+            }
+            Map.Entry<Long, Long> next = received.ceilingEntry(start);
+            while (next != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                received.remove(next.getKey());
+                next = received.ceilingEntry(start);
+            }
+            received.put(start, end);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Upload session " + uploadId + " is already closed");
+        }
+    }
+
+    String getUploadId() {
+        return uploadId;
+    }
+
+    String getVideoId() {
+        return videoId;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    long getTotalSize() {
+        return totalSize;
+    }
+
+    long getLastActivity() {
+        return lastActivity;
+    }
+}
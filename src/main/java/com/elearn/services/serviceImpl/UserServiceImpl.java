@@ -6,6 +6,7 @@ import com.elearn.dto.UserDto;
 import com.elearn.dto.UserResponseDto;
 import com.elearn.entity.Roles;
 import com.elearn.entity.User;
+import com.elearn.mapper.UserMapper;
 import com.elearn.exception.DuplicateResourceException;
 import com.elearn.exception.ResourceNotFoundException;
 import com.elearn.repository.RoleRepo;
@@ -14,15 +15,12 @@ import com.elearn.services.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Service implementation for user management operations.
@@ -54,9 +52,6 @@ public class UserServiceImpl implements UserService {
     
     /** Service for encoding and validating passwords. */
     private final PasswordEncoder passwordEncoder;
-    
-    /** Mapper for converting between DTOs and entity objects. */
-    private final ModelMapper modelMapper;
 
     /**
      * Creates a new user with the provided details.
@@ -153,7 +148,7 @@ public class UserServiceImpl implements UserService {
      * @return a new User entity with the provided details
      */
     private User createNewUser(UserDto userDto) {
-        User user = modelMapper.map(userDto, User.class);
+        User user = UserMapper.toEntity(userDto);
         
         user.setUserId(UUID.randomUUID().toString());
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
@@ -202,37 +197,18 @@ public class UserServiceImpl implements UserService {
      * @return the mapped UserResponseDto
      */
     private UserResponseDto mapToUserResponseDto(User user) {
-        UserResponseDto responseDto = modelMapper.map(user, UserResponseDto.class);
-        if (user.getRoles() != null) {
-            responseDto.setRoles(mapRolesToRoleNames(user.getRoles()));
-        }
-        return responseDto;
+        return UserMapper.toResponseDto(user);
     }
 
     /**
      * Maps a User entity to a UserDto.
      * 
-     * <p>Note that the password is explicitly set to null in the DTO
-     * to prevent accidental exposure of sensitive information.</p>
+     * <p>The password is never copied to the DTO.</p>
      *
      * @param user the user entity to map
      * @return the mapped UserDto with password set to null
      */
     private UserDto mapToUserDto(User user) {
-        UserDto dto = modelMapper.map(user, UserDto.class);
-        dto.setPassword(null); // Never expose password in DTO
-        return dto;
-    }
-
-    /**
-     * Converts a set of Roles to a set of role names.
-     * 
-     * @param roles the set of Roles to convert
-     * @return an unmodifiable set of role names
-     */
-    private Set<String> mapRolesToRoleNames(Set<Roles> roles) {
-        return roles.stream()
-                .map(Roles::getRoleName)
-                .collect(Collectors.toUnmodifiableSet());
+        return UserMapper.toDto(user);
     }
 }
@@ -0,0 +1,221 @@
+package com.elearn.services.serviceImpl;
+
+import com.elearn.dto.IngestJobDto;
+import com.elearn.exception.InvalidInputException;
+import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.exception.ServiceUnavailableException;
+import com.elearn.ingest.IngestContext;
+import com.elearn.ingest.IngestJob;
+import com.elearn.ingest.IngestStage;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.FileService;
+import com.elearn.services.VideoIngestService;
+import com.elearn.storage.StagedFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs video ingest jobs on virtual threads.
+ *
+ * <p>Two limits keep the pipeline from being flooded: at most
+ * {@code video.ingest.concurrency} jobs run their stages at once, and at most
+ * {@code video.ingest.queue-capacity} jobs may be queued or running before new
+ * submissions are rejected with 503. A rejected upload is refused before any
+ * of its body is read. Job status is kept in memory and dropped
+ * {@code video.ingest.job-retention} after the job finishes.</p>
+ */
+@Slf4j
+@Service
+public class VideoIngestServiceImpl implements VideoIngestService {
+
+    private static final String STAGE_TIMER = "video.ingest.stage";
+
+    private final VideoRepository videoRepository;
+    private final FileService fileService;
+    private final List<IngestStage> stages;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, IngestJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ingest-", 0).factory());
+    private final Semaphore running;
+    private final int queueCapacity;
+
+    @Value("${video.upload.max-size:4294967296}")
+    private long maxUploadSize;
+
+    @Value("${video.ingest.job-retention:PT1H}")
+    private Duration jobRetention;
+
+    @Value("${video.ingest.sse-timeout:PT30M}")
+    private Duration sseTimeout;
+
+    public VideoIngestServiceImpl(VideoRepository videoRepository,
+                                  FileService fileService,
+                                  List<IngestStage> stages,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${video.ingest.concurrency:2}") int concurrency,
+                                  @Value("${video.ingest.queue-capacity:16}") int queueCapacity) {
+        this.videoRepository = videoRepository;
+        this.fileService = fileService;
+        this.stages = List.copyOf(stages);
+        this.meterRegistry = meterRegistry;
+        this.running = new Semaphore(concurrency, true);
+        this.queueCapacity = queueCapacity;
+        meterRegistry.gauge("video.ingest.admitted", admitted);
+    }
+
+    @Override
+    public IngestJobDto submit(String videoId, String fileName, String contentType, InputStream content) throws IOException {
+        log.info("Submitting ingest for video id: {}", videoId);
+
+        if (contentType == null || !contentType.startsWith("video/")) {
+            throw new InvalidInputException("Invalid content type: " + contentType);
+        }
+        if (!videoRepository.existsById(videoId)) {
+            throw new ResourceNotFoundException("Video not found with id " + videoId);
+        }
+
+        if (admitted.incrementAndGet() > queueCapacity) {
+            admitted.decrementAndGet();
+            throw new ServiceUnavailableException("Ingest queue is full, try again later", 30);
+        }
+
+        IngestJob job;
+        IngestContext context;
+        try {
+            pruneFinishedJobs();
+
+            // Received next to the store, so the store stage renames it rather than copying it again
+            StagedFile staged = fileService.stage(content, maxUploadSize);
+            if (staged.size() == 0) {
+                Files.deleteIfExists(staged.path());
+                throw new InvalidInputException("File is empty");
+            }
+
+            job = new IngestJob(UUID.randomUUID().toString(), videoId, staged.size());
+            context = new IngestContext(job, videoId, fileName, contentType, staged.path());
+            context.setSize(staged.size());
+            context.setSha256(staged.sha256());
+            jobs.put(job.getJobId(), job);
+        } catch (IOException | RuntimeException e) {
+            admitted.decrementAndGet();
+            throw e;
+        }
+
+        executor.execute(() -> run(context));
+        return job.toDto();
+    }
+
+    @Override
+    public IngestJobDto getJob(String jobId) {
+        return findJob(jobId).toDto();
+    }
+
+    @Override
+    public SseEmitter subscribe(String jobId) {
+        IngestJob job = findJob(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private IngestJob findJob(String jobId) {
+        IngestJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Ingest job not found with id " + jobId);
+        }
+        return job;
+    }
+
+    private void run(IngestContext context) {
+        IngestJob job = context.getJob();
+        String currentStage = null;
+        String failure = null;
+        try {
+            running.acquire();
+            try {
+                for (IngestStage stage : stages) {
+                    currentStage = stage.name();
+                    job.stageStarted(currentStage);
+                    runStage(stage, context);
+                }
+            } finally {
+                running.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Ingest was interrupted";
+        } catch (Exception e) {
+            log.error("Ingest job {} failed in stage {}", job.getJobId(), currentStage, e);
+            failure = "Failed in stage " + currentStage + ": " + e.getMessage();
+        } finally {
+            deleteStagedFile(context);
+            admitted.decrementAndGet();
+        }
+
+        // Only announced once the job's place in the queue is free, so a client may submit again right away
+        if (failure == null) {
+            job.succeeded("Stored as " + context.getStoredKey());
+            log.info("Ingest job {} for video {} finished", job.getJobId(), context.getVideoId());
+        } else {
+            job.failed(failure);
+        }
+    }
+
+    private void runStage(IngestStage stage, IngestContext context) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            stage.process(context);
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder(STAGE_TIMER)
+                    .tag("stage", stage.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void deleteStagedFile(IngestContext context) {
+        Path staged = context.getStagedFile();
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Could not delete staged ingest file {}", staged, e);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - jobRetention.toMillis();
+        jobs.values().removeIf(job -> job.getState().isFinished() && job.getUpdatedAt().getTime() < cutoff);
+    }
+}
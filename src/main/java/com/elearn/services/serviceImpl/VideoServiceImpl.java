@@ -1,25 +1,43 @@
 package com.elearn.services.serviceImpl;
 
+import com.elearn.config.AppConstants;
 import com.elearn.dto.CustomPageResponse;
 import com.elearn.dto.VideoDto;
+import com.elearn.dto.VideoSummaryDto;
 import com.elearn.entity.Course;
 import com.elearn.entity.Video;
 import com.elearn.exception.ResourceNotFoundException;
 import com.elearn.repository.CourseRepo;
+import com.elearn.mapper.VideoMapper;
 import com.elearn.repository.VideoRepository;
+import com.elearn.repository.projection.VideoSummaryView;
+import com.elearn.search.CatalogChangeEvent;
+import com.elearn.search.CatalogSearchIndex;
+import com.elearn.search.SearchHit;
+import com.elearn.search.SearchResults;
 import com.elearn.services.VideoService;
+import com.elearn.util.KeysetCursor;
+import com.elearn.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,7 +48,8 @@ public class VideoServiceImpl implements VideoService {
 
     private final VideoRepository videoRepository;
     private final CourseRepo courseRepo;
-    private final ModelMapper modelMapper;
+    private final CatalogSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new video and associates it with a course.
@@ -42,7 +61,7 @@ public class VideoServiceImpl implements VideoService {
     public VideoDto createVideo(VideoDto videoDto) {
         logger.info("Creating a new video");
         videoDto.setId(UUID.randomUUID().toString());
-        Video video = modelMapper.map(videoDto, Video.class);
+        Video video = VideoMapper.toEntity(videoDto);
 
         Course course = courseRepo.findById(videoDto.getCourse().getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + videoDto.getCourse().getId()));
@@ -50,8 +69,9 @@ public class VideoServiceImpl implements VideoService {
         course.getVideos().add(video);
         video.setCourse(course);
         Video savedVideo = videoRepository.save(video);
+        eventPublisher.publishEvent(CatalogChangeEvent.video(savedVideo.getId()));
         logger.info("Video created with ID: {}", savedVideo.getId());
-        return modelMapper.map(savedVideo, VideoDto.class);
+        return VideoMapper.toDto(savedVideo);
     }
 
     /**
@@ -77,8 +97,9 @@ public class VideoServiceImpl implements VideoService {
         video.setCourse(course);
 
         Video updatedVideo = videoRepository.save(video);
+        eventPublisher.publishEvent(CatalogChangeEvent.video(videoId));
         logger.info("Video updated with ID: {}", updatedVideo.getId());
-        return modelMapper.map(updatedVideo, VideoDto.class);
+        return VideoMapper.toDto(updatedVideo);
     }
 
     /**
@@ -90,9 +111,9 @@ public class VideoServiceImpl implements VideoService {
     @Override
     public VideoDto getVideoById(String videoId) {
         logger.info("Fetching video with ID: {}", videoId);
-        Video video = videoRepository.findById(videoId)
+        Video video = videoRepository.findDetailById(videoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Video not found with id " + videoId));
-        return modelMapper.map(video, VideoDto.class);
+        return VideoMapper.toDto(video);
     }
 
     /**
@@ -104,22 +125,30 @@ public class VideoServiceImpl implements VideoService {
      * @return paginated response of video DTOs
      */
     @Override
-    public CustomPageResponse<VideoDto> getAllVideos(int pageNumber, int pageSize, String sortBy) {
+    @Transactional(readOnly = true)
+    public CustomPageResponse<VideoSummaryDto> scrollVideos(String cursor, int pageSize, String sortBy, boolean includeTotal) {
+        String sortField = ValidationUtil.validateCursorPage(sortBy, pageSize, AppConstants.Pagination.VIDEO_CURSOR_SORTS);
+        ScrollPosition position = KeysetCursor.decode(cursor, sortField, Map.of(sortField, String.class, "id", String.class));
+        logger.info("Scrolling videos - size: {}, sortBy: {}", pageSize, sortField);
+
+        Window<VideoSummaryView> window = videoRepository.findAllBy(position, Limit.of(pageSize), Sort.by(sortField));
+        Long total = includeTotal ? videoRepository.count() : null;
+        return KeysetCursor.page(window, VideoMapper::toSummary, sortField, pageSize, total);
+    }
+
+    @Override
+    public CustomPageResponse<VideoSummaryDto> getAllVideos(int pageNumber, int pageSize, String sortBy) {
         logger.info("Fetching all videos - page: {}, size: {}, sortBy: {}", pageNumber, pageSize, sortBy);
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy).ascending());
-        Page<Video> videoPage = videoRepository.findAll(pageable);
-
-        List<VideoDto> contentList = videoPage.getContent().stream()
-                .map(video -> modelMapper.map(video, VideoDto.class))
-                .collect(Collectors.toList());
+        Page<VideoSummaryView> videoPage = videoRepository.findAllBy(pageable);
 
-        return CustomPageResponse.<VideoDto>builder()
+        return CustomPageResponse.<VideoSummaryDto>builder()
                 .pageNumber(videoPage.getNumber())
                 .pageSize(videoPage.getSize())
                 .totalElements(videoPage.getTotalElements())
                 .totalPages(videoPage.getTotalPages())
                 .isLast(videoPage.isLast())
-                .content(contentList)
+                .content(videoPage.getContent().stream().map(VideoMapper::toSummary).toList())
                 .build();
 
     }
@@ -133,21 +162,71 @@ public class VideoServiceImpl implements VideoService {
     public void deleteVideo(String videoId) {
         logger.info("Deleting video with ID: {}", videoId);
         videoRepository.deleteById(videoId);
+        eventPublisher.publishEvent(CatalogChangeEvent.video(videoId));
     }
 
     /**
      * Searches videos by keyword in title or description.
      *
      * @param keyword the search keyword
-     * @return list of matching video DTOs
+     * @return the best matching video DTOs, most relevant first
      */
     @Override
     public List<VideoDto> searchVideos(String keyword) {
-        logger.info("Searching videos with keyword: {}", keyword);
-        List<Video> videos = videoRepository.searchByTitleOrDescription(keyword);
-        return videos.stream()
-                .map(video -> modelMapper.map(video, VideoDto.class))
+        return searchVideos(keyword, false, 0, AppConstants.Search.DEFAULT_RESULTS).getContent();
+    }
+
+    /**
+     * Searches videos by keyword in title or description, one page at a time.
+     *
+     * @param keyword    the search keyword
+     * @param fuzzy      whether words within a typo or two of the keyword's words match too
+     * @param pageNumber page number
+     * @param pageSize   size of the page
+     * @return paginated response of matching video DTOs, most relevant first
+     */
+    @Override
+    public CustomPageResponse<VideoDto> searchVideos(String keyword, boolean fuzzy, int pageNumber, int pageSize) {
+        logger.info("Searching videos with keyword: {} (fuzzy: {}) - page: {}, size: {}", keyword, fuzzy, pageNumber, pageSize);
+        ValidationUtil.validateSearchPage(pageNumber, pageSize);
+        if (!StringUtils.hasText(keyword)) {
+            return page(List.of(), 0, pageNumber, pageSize);
+        }
+
+        if (!searchIndex.isReady()) {
+            // Only until the index has loaded after startup
+            List<VideoDto> matches = videoRepository.searchByTitleOrDescription(keyword).stream()
+                    .map(VideoMapper::toDto)
+                    .collect(Collectors.toList());
+            int from = Math.min(pageNumber * pageSize, matches.size());
+            int to = Math.min(from + pageSize, matches.size());
+            return page(matches.subList(from, to), matches.size(), pageNumber, pageSize);
+        }
+
+        SearchResults results = searchIndex.searchVideos(keyword, fuzzy, pageNumber * pageSize, pageSize);
+        List<String> ids = results.hits().stream().map(SearchHit::id).toList();
+        // Primary-key lookups for one page of hits, in ranking order
+        Map<String, Video> videos = videoRepository.findDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Video::getId, Function.identity()));
+        List<VideoDto> content = ids.stream()
+                .map(videos::get)
+                .filter(Objects::nonNull)
+                .map(VideoMapper::toDto)
                 .collect(Collectors.toList());
+        return page(content, Math.min(results.totalHits(), AppConstants.Search.MAX_RESULTS), pageNumber, pageSize);
+    }
+
+    private static CustomPageResponse<VideoDto> page(List<VideoDto> content, long totalElements,
+                                                     int pageNumber, int pageSize) {
+        int totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+        return CustomPageResponse.<VideoDto>builder()
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .isLast(pageNumber >= totalPages - 1)
+                .content(content)
+                .build();
     }
 
     /**
@@ -157,11 +236,8 @@ public class VideoServiceImpl implements VideoService {
      * @return list of video DTOs belonging to the course
      */
     @Override
-    public List<VideoDto> getVideoOfCourse(String courseId) {
+    public List<VideoSummaryDto> getVideoOfCourse(String courseId) {
         logger.info("Fetching videos for course ID: {}", courseId);
-        List<Video> videos = videoRepository.findByCourseId(courseId);
-        return videos.stream()
-                .map(video -> modelMapper.map(video, VideoDto.class))
-                .collect(Collectors.toList());
+        return videoRepository.findSummariesByCourseId(courseId);
     }
-}
\ No newline at end of file
+}
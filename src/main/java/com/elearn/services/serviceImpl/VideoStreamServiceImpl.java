@@ -0,0 +1,159 @@
+package com.elearn.services.serviceImpl;
+
+import com.elearn.entity.Video;
+import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.VideoStreamService;
+import com.elearn.storage.MediaStore;
+import com.elearn.storage.StoredObject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams uploaded video files with HTTP byte-range support.
+ *
+ * <p>For media on local disk bytes are never copied onto the heap: when the
+ * connector supports it the transfer is handed to Tomcat's sendfile, otherwise
+ * the store pushes the region through {@code FileChannel.transferTo}. Remote
+ * stores stream the range straight from the backend.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VideoStreamServiceImpl implements VideoStreamService {
+
+    static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final VideoRepository videoRepository;
+    private final MediaStore mediaStore;
+
+    @Override
+    public void streamVideo(String videoId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Video video = videoRepository.findById(videoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Video not found with id " + videoId));
+
+        if (video.getFilePath() == null) {
+            throw new ResourceNotFoundException("No file uploaded for video id " + videoId);
+        }
+
+        String key = video.getFilePath();
+        StoredObject object = mediaStore.stat(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Video file not found for video id " + videoId));
+
+        long length = object.size();
+        long lastModified = object.lastModified();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setContentType(StringUtils.hasText(video.getContentType())
+                ? video.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long count = length;
+
+        HttpRange range = resolveRange(request, etag, lastModified);
+        if (range != null) {
+            long end = -1;
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException ex) {
+                log.debug("Invalid range for video {}: {}", videoId, ex.getMessage());
+            }
+            if (start >= length || end < start) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            count = end - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (start + count - 1) + "/" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(key, start, count, request, response);
+    }
+
+    /**
+     * Returns the single range to serve, or {@code null} when the whole file
+     * should be sent. Malformed or multi-range headers are ignored as permitted
+     * by RFC 9110, and a stale {@code If-Range} validator downgrades the request
+     * to a full response.
+     */
+    private HttpRange resolveRange(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (!StringUtils.hasText(rangeHeader)) {
+            return null;
+        }
+        if (!ifRangeMatches(request, etag, lastModified)) {
+            return null;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException ex) {
+            log.debug("Ignoring malformed Range header '{}': {}", rangeHeader, ex.getMessage());
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (!StringUtils.hasText(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak validators never match for sub-range requests
+            return ifRange.equals(etag);
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return since != -1 && lastModified / 1000 <= since / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private void transfer(String key, long start, long count,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> localPath = mediaStore.localPath(key);
+        if (localPath.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // Tomcat writes the region itself with sendfile once the servlet returns
+            request.setAttribute(SENDFILE_FILENAME_ATTR, localPath.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        mediaStore.transferTo(key, start, count, out);
+    }
+}
@@ -1,45 +1,40 @@
 package com.elearn.services.serviceImpl;
 
-import com.elearn.dto.VideoDto;
+import com.elearn.config.AppConstants;
 import com.elearn.dto.VideoUploadResponse;
 import com.elearn.entity.Video;
+import com.elearn.mapper.VideoMapper;
+import com.elearn.media.PreparedVideo;
+import com.elearn.media.VideoFilePreparer;
 import com.elearn.repository.VideoRepository;
+import com.elearn.services.FileService;
 import com.elearn.services.VideoUploadService;
+import com.elearn.storage.StagedFile;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 
 @Service
 @RequiredArgsConstructor
 public class VideoUploadServiceImpl implements VideoUploadService {
 
     private final VideoRepository videoRepo;
-    private final ModelMapper modelMapper;
+    private final FileService fileService;
+    private final VideoFilePreparer videoFilePreparer;
 
-    @Value("${video.upload.path}")
-    private String uploadPath;
+    @Value("${video.upload.max-size:4294967296}")
+    private long maxUploadSize;
 
     @Override
-    public VideoUploadResponse uploadVideo(String videoId, MultipartFile videoFile) {
+    public VideoUploadResponse uploadVideo(String videoId, String fileName, String contentType, InputStream content) {
         VideoUploadResponse videoUploadResponse = new VideoUploadResponse();
 
-        // 1. Validate empty file
-        if (videoFile.isEmpty()) {
-            videoUploadResponse.setMessage("File is empty !!");
-            videoUploadResponse.setSuccess(false);
-            return videoUploadResponse;
-        }
-
         // 2. Validate content type
-        String contentType = videoFile.getContentType();
         if (contentType == null || !contentType.startsWith("video/")) {
             videoUploadResponse.setMessage("Invalid File !!");
             videoUploadResponse.setSuccess(false);
@@ -47,32 +42,41 @@ public class VideoUploadServiceImpl implements VideoUploadService {
         }
 
         try {
-            // 3. Create directory if not exists
-            Path path = Paths.get(uploadPath);
-            if (!Files.exists(path)) {
-                Files.createDirectories(path);
-            }
-            String filename = System.currentTimeMillis() + "_" + videoFile.getOriginalFilename();
-            Path mainPath = path.resolve(filename);
             Video video = videoRepo.findById(videoId).orElseThrow(() -> new RuntimeException("Video metadata not found !!"));
 
             String oldFilepath = video.getFilePath();
-            if(oldFilepath !=null){
-                Path OldFileObjectPath = Paths.get(oldFilepath);
-                if(Files.exists(OldFileObjectPath)){
 
+            // 3. Receive the file next to the store, then rewrite MP4s for faststart before storing
+            StagedFile staged = fileService.stage(content, maxUploadSize);
+            String storedPath;
+            PreparedVideo prepared;
+            try {
+                if (staged.size() == 0) {
+                    videoUploadResponse.setMessage("File is empty !!");
+                    videoUploadResponse.setSuccess(false);
+                    return videoUploadResponse;
                 }
+                prepared = videoFilePreparer.prepare(staged.path());
+                if (prepared.rewritten()) {
+                    staged = new StagedFile(staged.path(), Files.size(staged.path()), null);
+                }
+                storedPath = fileService.store(staged, AppConstants.Paths.VIDEO_KEY_PREFIX,
+                        System.currentTimeMillis() + "_" + Paths.get(String.valueOf(fileName)).getFileName(), contentType);
+            } finally {
+                Files.deleteIfExists(staged.path());
             }
-
-
-            Files.copy(videoFile.getInputStream(),mainPath, StandardCopyOption.REPLACE_EXISTING);
-            video.setFilePath(mainPath.toString());
+            video.setFilePath(storedPath);
             video.setContentType(contentType);
+            prepared.applyTo(video);
             videoRepo.save(video);
+
+            if (oldFilepath != null && !oldFilepath.equals(storedPath)) {
+                fileService.release(oldFilepath);
+            }
             videoUploadResponse.setMessage("Video File uploaded Successfully");
             ///ENCODE VIDEO METHOD: VIDEO.
             videoUploadResponse.setSuccess(true);
-            videoUploadResponse.setVideoDto(modelMapper.map(video, VideoDto.class));
+            videoUploadResponse.setVideoDto(VideoMapper.toDto(video));
             return videoUploadResponse;
 
 
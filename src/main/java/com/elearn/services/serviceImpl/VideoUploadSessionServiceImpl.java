@@ -0,0 +1,236 @@
+package com.elearn.services.serviceImpl;
+
+import com.elearn.config.AppConstants;
+import com.elearn.dto.UploadSessionDto;
+import com.elearn.dto.UploadSessionRequest;
+import com.elearn.dto.VideoUploadResponse;
+import com.elearn.entity.Video;
+import com.elearn.exception.DuplicateResourceException;
+import com.elearn.exception.InvalidInputException;
+import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.media.VideoFilePreparer;
+import com.elearn.media.PreparedVideo;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.FileService;
+import com.elearn.services.VideoUploadSessionService;
+import com.elearn.storage.StagedFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import com.elearn.mapper.VideoMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps resumable upload sessions in memory, one per video.
+ *
+ * <p>Holding at most one live session per {@code videoId} is what keeps two
+ * clients from interleaving chunks of different files for the same video. A
+ * session that has been idle longer than {@code video.upload.session-timeout}
+ * may be replaced by a new one, and is discarded with its part file by a
+ * sweep every {@code video.upload.session-reap-interval} if nobody does.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VideoUploadSessionServiceImpl implements VideoUploadSessionService {
+
+
+    private final VideoRepository videoRepo;
+    private final FileService fileService;
+    private final VideoFilePreparer videoFilePreparer;
+
+    private final ConcurrentMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${video.upload.path}")
+    private String uploadPath;
+
+    @Value("${video.upload.session-timeout:PT1H}")
+    private Duration sessionTimeout;
+
+    @Value("${video.upload.max-size:4294967296}")
+    private long maxUploadSize;
+
+    @Override
+    public UploadSessionDto createSession(String videoId, UploadSessionRequest request) throws IOException {
+        log.info("Creating upload session for video id: {}", videoId);
+
+        if (request.getContentType() == null || !request.getContentType().startsWith("video/")) {
+            throw new InvalidInputException("Invalid content type: " + request.getContentType());
+        }
+        if (request.getTotalSize() <= 0 || request.getTotalSize() > maxUploadSize) {
+            throw new InvalidInputException("Total size must be between 1 and " + maxUploadSize + " bytes");
+        }
+        if (!videoRepo.existsById(videoId)) {
+            throw new ResourceNotFoundException("Video not found with id " + videoId);
+        }
+
+        Path sessionDir = Paths.get(uploadPath, AppConstants.Paths.UPLOAD_SESSION_DIR);
+        Files.createDirectories(sessionDir);
+
+        String uploadId = UUID.randomUUID().toString();
+        String fileName = Paths.get(request.getFileName()).getFileName().toString();
+        long now = System.currentTimeMillis();
+
+        UploadSession session;
+        try {
+            session = sessions.compute(videoId, (id, existing) -> {
+                try {
+                    if (existing != null) {
+                        if (!existing.isExpired(now, sessionTimeout.toMillis())) {
+                            throw new DuplicateResourceException("An upload is already in progress for video " + id);
+                        }
+                        log.info("Discarding expired upload session {} for video id: {}", existing.getUploadId(), id);
+                        existing.discard();
+                    }
+                    return UploadSession.open(uploadId, id, fileName, request.getContentType(),
+                            request.getTotalSize(), sessionDir.resolve(uploadId + ".part"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Created upload session {} for video id: {} ({} bytes)", uploadId, videoId, request.getTotalSize());
+        return toDto(session);
+    }
+
+    @Override
+    public UploadSessionDto writeChunk(String videoId, String uploadId, long offset, long length, InputStream body) throws IOException {
+        UploadSession session = requireSession(videoId, uploadId);
+
+        if (offset < 0 || length <= 0 || offset + length > session.getTotalSize()) {
+            throw new InvalidInputException("Chunk [" + offset + ", " + (offset + length)
+                    + ") is outside the upload of " + session.getTotalSize() + " bytes");
+        }
+
+        session.write(offset, length, body);
+        log.debug("Wrote {} bytes at offset {} for upload {}", length, offset, uploadId);
+        return toDto(session);
+    }
+
+    @Override
+    public UploadSessionDto getSession(String videoId, String uploadId) {
+        return toDto(requireSession(videoId, uploadId));
+    }
+
+    @Override
+    public VideoUploadResponse completeSession(String videoId, String uploadId) throws IOException {
+        UploadSession session = requireSession(videoId, uploadId);
+
+        if (!session.isComplete()) {
+            throw new InvalidInputException("Upload is incomplete: received " + session.receivedBytes()
+                    + " of " + session.getTotalSize() + " bytes");
+        }
+        // Only one caller can claim the session, later chunks and completions see it as gone
+        if (!sessions.remove(videoId, session)) {
+            throw new ResourceNotFoundException("Upload session not found with id " + uploadId);
+        }
+
+        Video video;
+        try {
+            video = videoRepo.findById(videoId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Video not found with id " + videoId));
+
+            Path partFile = session.seal();
+            PreparedVideo prepared = videoFilePreparer.prepare(partFile);
+            String storedPath = fileService.store(new StagedFile(partFile, session.getTotalSize(), null),
+                    AppConstants.Paths.VIDEO_KEY_PREFIX, System.currentTimeMillis() + "_" + session.getFileName(),
+                    session.getContentType());
+
+            String oldFilepath = video.getFilePath();
+            video.setFilePath(storedPath);
+            video.setContentType(session.getContentType());
+            prepared.applyTo(video);
+            videoRepo.save(video);
+
+            if (oldFilepath != null && !oldFilepath.equals(storedPath)) {
+                fileService.release(oldFilepath);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The session is already unreachable, so nothing else would ever delete its part file
+            discardQuietly(session, e);
+            throw e;
+        }
+        log.info("Completed upload session {} for video id: {}", uploadId, videoId);
+
+        VideoUploadResponse response = new VideoUploadResponse();
+        response.setMessage("Video File uploaded Successfully");
+        response.setSuccess(true);
+        response.setVideoDto(VideoMapper.toDto(video));
+        return response;
+    }
+
+    @Override
+    public void abortSession(String videoId, String uploadId) throws IOException {
+        UploadSession session = requireSession(videoId, uploadId);
+        if (sessions.remove(videoId, session)) {
+            session.discard();
+            log.info("Aborted upload session {} for video id: {}", uploadId, videoId);
+        }
+    }
+
+    /**
+     * Discards sessions nobody has written to within the session timeout,
+     * closing their part files and freeing the space preallocated for them.
+     */
+    @Scheduled(fixedDelayString = "${video.upload.session-reap-interval:PT5M}")
+    public void reapExpiredSessions() {
+        long now = System.currentTimeMillis();
+        for (UploadSession session : sessions.values()) {
+            if (session.isExpired(now, sessionTimeout.toMillis()) && sessions.remove(session.getVideoId(), session)) {
+                log.info("Discarding expired upload session {} for video id: {}",
+                        session.getUploadId(), session.getVideoId());
+                discardQuietly(session, null);
+            }
+        }
+    }
+
+    private static void discardQuietly(UploadSession session, Exception cause) {
+        try {
+            session.discard();
+        } catch (IOException e) {
+            if (cause != null) {
+                cause.addSuppressed(e);
+            } else {
+                log.warn("Failed to discard upload session {}: {}", session.getUploadId(), e.getMessage());
+            }
+        }
+    }
+
+    private UploadSession requireSession(String videoId, String uploadId) {
+        UploadSession session = sessions.get(videoId);
+        if (session == null || !session.getUploadId().equals(uploadId)) {
+            throw new ResourceNotFoundException("Upload session not found with id " + uploadId);
+        }
+        return session;
+    }
+
+    private UploadSessionDto toDto(UploadSession session) {
+        return UploadSessionDto.builder()
+                .uploadId(session.getUploadId())
+                .videoId(session.getVideoId())
+                .fileName(session.getFileName())
+                .contentType(session.getContentType())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.receivedBytes())
+                .receivedRanges(session.receivedRanges())
+                .complete(session.isComplete())
+                .expiresAt(new Date(session.getLastActivity() + sessionTimeout.toMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.elearn.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keys that were just written to the media store but may not be referenced
+ * by a committed row yet, so the garbage collector leaves them alone.
+ *
+ * <p>A hold taken inside a transaction ends when it completes; otherwise it
+ * lasts {@code media.gc.hold-timeout}, long enough for the caller to save
+ * the row. Holds are per node, the collector's grace period covers writes
+ * made on other nodes.</p>
+ */
+@Component
+public class InFlightMedia {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ConcurrentMap<String, Long> holds = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Duration holdTimeout;
+
+    public InFlightMedia(@Value("${media.gc.hold-timeout:PT1H}") Duration holdTimeout) {
+        this.holdTimeout = holdTimeout;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Holds a key. Take the hold before checking whether the object exists,
+     * so a collector that decides to delete it either runs first or sees the hold.
+     */
+    public void hold(String key) {
+        long expiresAt = System.currentTimeMillis() + holdTimeout.toMillis();
+        synchronized (lockFor(key)) {
+            holds.merge(key, expiresAt, Math::max);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    holds.remove(key, expiresAt);
+                }
+            });
+        }
+    }
+
+    /**
+     * The lock the collector holds while it checks and deletes a key.
+     */
+    Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    public boolean isHeld(String key) {
+        Long expiresAt = holds.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            holds.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+}
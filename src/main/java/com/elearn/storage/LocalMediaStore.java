@@ -0,0 +1,200 @@
+package com.elearn.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link MediaStore} on the local file system, keys are paths below a root
+ * directory.
+ *
+ * <p>Rows written before the store existed hold absolute paths or paths
+ * relative to the working directory; those are still resolved so old media
+ * stays readable, but only when they lie below the root or the legacy upload
+ * directory.</p>
+ */
+@Slf4j
+public class LocalMediaStore implements MediaStore {
+
+    private final Path root;
+    private final Path legacyRoot;
+
+    public LocalMediaStore(Path root) {
+        this(root, null);
+    }
+
+    /**
+     * @param legacyRoot the directory old rows wrote videos into, {@code null} if there is none
+     */
+    public LocalMediaStore(Path root, Path legacyRoot) {
+        this.root = root.toAbsolutePath().normalize();
+        this.legacyRoot = legacyRoot != null ? legacyRoot.toAbsolutePath().normalize() : null;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".put-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void putFile(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        move(file, target);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(existing(key));
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(existing(key), StandardOpenOption.READ);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Path path = resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredObject(key, attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), null));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Stream<StoredObject> list(String prefix) throws IOException {
+        Path start = root.resolve(prefix).normalize();
+        if (!start.startsWith(root)) {
+            throw new IllegalArgumentException("Prefix escapes the media root: " + prefix);
+        }
+        if (prefix.endsWith("/") && !Files.isDirectory(start)) {
+            return Stream.empty();
+        }
+        // A prefix may end part-way through a name, so walk its directory and filter
+        Path directory = Files.isDirectory(start) ? start : start.getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        return Files.walk(directory)
+                .filter(Files::isRegularFile)
+                .map(path -> {
+                    String key = root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                        return new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+                    } catch (IOException e) {
+                        // Deleted while walking
+                        return null;
+                    }
+                })
+                .filter(object -> object != null && object.key().startsWith(prefix));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void touch(String key) throws IOException {
+        Files.setLastModifiedTime(existing(key), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    @Override
+    public long transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(existing(key), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            return position - offset;
+        }
+    }
+
+    Path resolve(String key) {
+        Path path = Paths.get(key);
+        if (path.isAbsolute()) {
+            Path legacy = path.normalize();
+            if (!isLegacyLocation(legacy)) {
+                throw new IllegalArgumentException("Key escapes the media root: " + key);
+            }
+            return legacy;
+        }
+        Path resolved = root.resolve(path).normalize();
+        if (!resolved.startsWith(root)) {
+            throw new IllegalArgumentException("Key escapes the media root: " + key);
+        }
+        if (!Files.exists(resolved)) {
+            Path legacy = path.toAbsolutePath().normalize();
+            if (isLegacyLocation(legacy) && Files.exists(legacy)) {
+                return legacy;
+            }
+        }
+        return resolved;
+    }
+
+    private boolean isLegacyLocation(Path path) {
+        return path.startsWith(root) || (legacyRoot != null && path.startsWith(legacyRoot));
+    }
+
+    private Path existing(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(key);
+        }
+        return path;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.debug("Atomic move not supported from {} to {}, copying", source, target);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
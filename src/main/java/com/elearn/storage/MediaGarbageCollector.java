@@ -0,0 +1,428 @@
+package com.elearn.storage;
+
+import com.elearn.config.AppConstants;
+import com.elearn.media.BannerInfo;
+import com.elearn.media.CourseBannerRow;
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.VideoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles the files in the media store (and the legacy
+ * {@code video.upload.path} directory) with {@code Video.filePath} and
+ * {@code Course.banner}, and removes files nothing refers to.
+ *
+ * <p>Only the parts of each tree this application writes media to are
+ * swept: the blob, banner, video, staging and quarantine prefixes of the
+ * media store, and the files directly in the legacy directory along with
+ * its staging directories. Anything else sharing the root, such as the
+ * default avatar and profile pictures, is never looked at.</p>
+ *
+ * <p>Removal is conservative so it can run next to live uploads:</p>
+ * <ul>
+ *     <li>files modified within {@code media.gc.grace} are never touched, and
+ *     staging files (keys starting with a dot) only after {@code media.gc.staging-grace};</li>
+ *     <li>keys held by {@link InFlightMedia} are skipped, and the hold check,
+ *     a fresh stat and a fresh reference count are done under the same lock
+ *     uploads take before reusing a blob;</li>
+ *     <li>orphans are handled in batches of {@code media.gc.batch-size} with a
+ *     pause between batches, at most {@code media.gc.max-files-per-run} per run.</li>
+ * </ul>
+ *
+ * <p>In {@code quarantine} mode (the default) orphans are moved under
+ * {@code .quarantine/} and purged after {@code media.gc.quarantine-retention};
+ * in {@code delete} mode they are deleted right away. Reclaimed bytes are
+ * reported as the {@code media.gc.reclaimed} counter.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "media.gc.enabled", havingValue = "true", matchIfMissing = true)
+public class MediaGarbageCollector {
+
+    public enum Mode { DELETE, QUARANTINE }
+
+    private static final String QUARANTINE_PREFIX = AppConstants.Paths.QUARANTINE_KEY_PREFIX + "/";
+    private static final String VARIANT_PREFIX = AppConstants.Paths.BANNER_VARIANT_KEY_PREFIX + "/";
+    /** Prefixes of the media store holding media, the variants sit below the banner prefix */
+    private static final List<String> MEDIA_PREFIXES = List.of(
+            AppConstants.Paths.MEDIA_KEY_PREFIX + "/",
+            AppConstants.Paths.BANNER_KEY_PREFIX + "/",
+            AppConstants.Paths.VIDEO_KEY_PREFIX + "/",
+            AppConstants.Paths.STAGING_KEY_PREFIX + "/",
+            QUARANTINE_PREFIX);
+    /** Directories of the legacy upload directory besides the flat video files */
+    private static final List<String> LEGACY_PREFIXES = List.of(
+            AppConstants.Paths.UPLOAD_SESSION_DIR + "/",
+            QUARANTINE_PREFIX);
+
+    private final MediaStore mediaStore;
+    private final VideoRepository videoRepository;
+    private final CourseRepo courseRepository;
+    private final InFlightMedia inFlightMedia;
+    private final MeterRegistry meterRegistry;
+    private final Counter reclaimedBytes;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${video.upload.path}")
+    private String videoUploadPath;
+
+    @Value("${media.gc.mode:quarantine}")
+    private String mode;
+
+    @Value("${media.gc.dry-run:false}")
+    private boolean dryRun;
+
+    @Value("${media.gc.grace:PT24H}")
+    private Duration grace;
+
+    @Value("${media.gc.staging-grace:PT48H}")
+    private Duration stagingGrace;
+
+    @Value("${media.gc.quarantine-retention:P7D}")
+    private Duration quarantineRetention;
+
+    @Value("${media.gc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${media.gc.batch-pause:PT1S}")
+    private Duration batchPause;
+
+    @Value("${media.gc.max-files-per-run:10000}")
+    private int maxFilesPerRun;
+
+    public MediaGarbageCollector(MediaStore mediaStore,
+                                 VideoRepository videoRepository,
+                                 CourseRepo courseRepository,
+                                 InFlightMedia inFlightMedia,
+                                 MeterRegistry meterRegistry) {
+        this.mediaStore = mediaStore;
+        this.videoRepository = videoRepository;
+        this.courseRepository = courseRepository;
+        this.inFlightMedia = inFlightMedia;
+        this.meterRegistry = meterRegistry;
+        this.reclaimedBytes = Counter.builder("media.gc.reclaimed")
+                .baseUnit("bytes")
+                .description("Bytes freed by the media garbage collector")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("media.gc.run").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${media.gc.interval:PT6H}", initialDelayString = "${media.gc.initial-delay:PT10M}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Media garbage collection failed", e);
+        }
+    }
+
+    /**
+     * Runs one collection unless one is already running on this node.
+     */
+    public Report run() throws IOException, InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Media garbage collection already running, skipping");
+            return new Report(0, 0, 0);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Report report = collect();
+            log.info("Media garbage collection finished: scanned {}, removed {}, reclaimed {} bytes{}",
+                    report.scanned(), report.removed(), report.reclaimedBytes(), dryRun ? " (dry run)" : "");
+            return report;
+        } finally {
+            sample.stop(runTimer);
+            running.set(false);
+        }
+    }
+
+    private Report collect() throws IOException, InterruptedException {
+        long now = System.currentTimeMillis();
+        Run run = new Run(now - grace.toMillis(), now - stagingGrace.toMillis(),
+                now - quarantineRetention.toMillis(), referencedIdentities(), variantDirectories());
+
+        for (Scope scope : scopes()) {
+            MediaStore store = scope.store();
+            List<StoredObject> batch = new ArrayList<>(batchSize);
+            try (Stream<StoredObject> objects = scope.list()) {
+                Iterator<StoredObject> iterator = objects.iterator();
+                while (iterator.hasNext() && run.removed < maxFilesPerRun) {
+                    StoredObject object = iterator.next();
+                    run.scanned++;
+                    if (isCandidate(store, object, run)) {
+                        batch.add(object);
+                    }
+                    if (batch.size() >= batchSize) {
+                        process(store, batch, run);
+                        batch.clear();
+                        Thread.sleep(batchPause.toMillis());
+                    }
+                }
+            }
+            process(store, batch, run);
+        }
+        return new Report(run.scanned, run.removed, run.reclaimed);
+    }
+
+    /**
+     * The parts of the stores to scan: the media prefixes of the media store,
+     * plus the legacy upload directory when it is a separate tree. Legacy
+     * videos were written flat into that directory, so only its own files are
+     * listed and not whatever else has been put below it.
+     */
+    private List<Scope> scopes() {
+        List<Scope> scopes = new ArrayList<>();
+        for (String prefix : MEDIA_PREFIXES) {
+            scopes.add(new Scope(mediaStore, prefix));
+        }
+
+        Path legacy = Paths.get(videoUploadPath).toAbsolutePath().normalize();
+        Optional<Path> primary = mediaStore.localPath("").map(path -> path.toAbsolutePath().normalize());
+        boolean overlaps = primary.isPresent() && (legacy.startsWith(primary.get()) || primary.get().startsWith(legacy));
+        if (Files.isDirectory(legacy) && !overlaps) {
+            LocalMediaStore legacyStore = new LocalMediaStore(legacy);
+            scopes.add(new Scope(legacyStore, null));
+            for (String prefix : LEGACY_PREFIXES) {
+                scopes.add(new Scope(legacyStore, prefix));
+            }
+        }
+        return scopes;
+    }
+
+    private boolean isCandidate(MediaStore store, StoredObject object, Run run) {
+        String key = object.key();
+        if (key.startsWith(QUARANTINE_PREFIX)) {
+            return object.lastModified() < run.quarantineCutoff;
+        }
+        if (isStaging(key)) {
+            return object.lastModified() < run.stagingCutoff;
+        }
+        if (object.lastModified() >= run.cutoff) {
+            return false;
+        }
+        if (key.startsWith(VARIANT_PREFIX)) {
+            return !run.variantDirectories.contains(variantDirectory(key));
+        }
+        return !run.referenced.contains(key) && !run.referenced.contains(identity(store, key));
+    }
+
+    private void process(MediaStore store, List<StoredObject> batch, Run run) throws IOException {
+        for (StoredObject object : batch) {
+            if (run.removed >= maxFilesPerRun) {
+                return;
+            }
+            String key = object.key();
+            synchronized (inFlightMedia.lockFor(key)) {
+                if (store == mediaStore && inFlightMedia.isHeld(key)) {
+                    continue;
+                }
+                // Recheck against the live state, the snapshot may be minutes old by now
+                Optional<StoredObject> current = store.stat(key);
+                if (current.isEmpty() || !isCandidate(store, current.get(), run) || isReferencedNow(store, key)) {
+                    continue;
+                }
+                remove(store, current.get());
+            }
+            run.removed++;
+            run.reclaimed += object.size();
+        }
+    }
+
+    private boolean isReferencedNow(MediaStore store, String key) {
+        if (key.startsWith(QUARANTINE_PREFIX) || isStaging(key)) {
+            return false;
+        }
+        if (key.startsWith(VARIANT_PREFIX)) {
+            String courseId = variantCourseId(key);
+            return courseRepository.findBannerById(courseId)
+                    .map(banner -> BannerInfo.variantDirectory(courseId, banner).equals(variantDirectory(key)))
+                    .orElse(false);
+        }
+        Set<String> forms = new HashSet<>();
+        if (store == mediaStore) {
+            forms.add(key);
+        }
+        store.localPath(key).ifPresent(path -> forms.add(path.toAbsolutePath().normalize().toString()));
+        for (String form : forms) {
+            if (videoRepository.countByFilePath(form) + courseRepository.countByBanner(form) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(MediaStore store, StoredObject object) throws IOException {
+        String key = object.key();
+        String action = key.startsWith(QUARANTINE_PREFIX) || currentMode() == Mode.DELETE ? "deleted" : "quarantined";
+        log.info("{} orphaned media {} ({} bytes){}", action.equals("deleted") ? "Deleting" : "Quarantining",
+                key, object.size(), dryRun ? " [dry run]" : "");
+        if (!dryRun) {
+            if (action.equals("deleted")) {
+                store.delete(key);
+            } else {
+                quarantine(store, key, object.size());
+            }
+            // Only bytes that actually left the store count as reclaimed
+            if (action.equals("deleted")) {
+                reclaimedBytes.increment(object.size());
+            }
+        }
+        meterRegistry.counter("media.gc.files", "action", action, "dryRun", String.valueOf(dryRun)).increment();
+    }
+
+    private static void quarantine(MediaStore store, String key, long size) throws IOException {
+        String target = QUARANTINE_PREFIX + key;
+        Optional<Path> source = store.localPath(key);
+        Optional<Path> destination = store.localPath(target);
+        if (source.isPresent() && destination.isPresent()) {
+            Files.createDirectories(destination.get().getParent());
+            Files.move(source.get(), destination.get(), StandardCopyOption.REPLACE_EXISTING);
+            // Retention counts from the move, not from the original upload
+            Files.setLastModifiedTime(destination.get(), FileTime.fromMillis(System.currentTimeMillis()));
+            return;
+        }
+        try (InputStream in = store.get(key)) {
+            store.put(target, in, size, null);
+        }
+        store.delete(key);
+    }
+
+    private Set<String> referencedIdentities() {
+        Set<String> referenced = new HashSet<>();
+        List<String> references = new ArrayList<>(videoRepository.findAllFilePaths());
+        references.addAll(courseRepository.findAllBanners());
+        for (String reference : references) {
+            referenced.add(reference);
+            Path path = Paths.get(reference);
+            if (path.isAbsolute()) {
+                referenced.add(path.normalize().toString());
+            } else {
+                referenced.add(identity(mediaStore, reference));
+            }
+        }
+        return referenced;
+    }
+
+    /**
+     * Names a stored object independently of how the key was written: the
+     * absolute file for local stores, the key otherwise.
+     */
+    private static String identity(MediaStore store, String key) {
+        return store.localPath(key)
+                .map(path -> path.toAbsolutePath().normalize().toString())
+                .orElse(key);
+    }
+
+    private static boolean isStaging(String key) {
+        return key.startsWith(".");
+    }
+
+    /**
+     * Variants of the banner each course points at now; older versions, and
+     * the unversioned ones written before variants were versioned, are orphans.
+     */
+    private Set<String> variantDirectories() {
+        Set<String> directories = new HashSet<>();
+        for (CourseBannerRow row : courseRepository.findAllBannerRows()) {
+            directories.add(row.variantDirectory());
+        }
+        return directories;
+    }
+
+    private static String variantDirectory(String key) {
+        return key.substring(0, key.lastIndexOf('/') + 1);
+    }
+
+    private static String variantCourseId(String key) {
+        String rest = key.substring(VARIANT_PREFIX.length());
+        int slash = rest.indexOf('/');
+        return slash < 0 ? rest : rest.substring(0, slash);
+    }
+
+    private Mode currentMode() {
+        return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Outcome of one run.
+     *
+     * @param scanned        objects looked at
+     * @param removed        orphans deleted or quarantined
+     * @param reclaimedBytes size of the removed orphans
+     */
+    public record Report(long scanned, long removed, long reclaimedBytes) {
+    }
+
+    /**
+     * Objects of one store below a key prefix, or only the files directly in
+     * the store's root when the prefix is {@code null}.
+     */
+    private record Scope(MediaStore store, String prefix) {
+
+        Stream<StoredObject> list() throws IOException {
+            if (prefix != null) {
+                return store.list(prefix);
+            }
+            Path root = store.localPath("").orElseThrow();
+            return Files.list(root)
+                    .filter(Files::isRegularFile)
+                    .map(path -> stat(path.getFileName().toString()))
+                    .flatMap(Optional::stream);
+        }
+
+        private Optional<StoredObject> stat(String key) {
+            try {
+                return store.stat(key);
+            } catch (IOException e) {
+                // Deleted while listing
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static final class Run {
+        final long cutoff;
+        final long stagingCutoff;
+        final long quarantineCutoff;
+        final Set<String> referenced;
+        final Set<String> variantDirectories;
+        long scanned;
+        long removed;
+        long reclaimed;
+
+        Run(long cutoff, long stagingCutoff, long quarantineCutoff, Set<String> referenced,
+            Set<String> variantDirectories) {
+            this.cutoff = cutoff;
+            this.stagingCutoff = stagingCutoff;
+            this.quarantineCutoff = quarantineCutoff;
+            this.referenced = referenced;
+            this.variantDirectories = variantDirectories;
+        }
+    }
+}
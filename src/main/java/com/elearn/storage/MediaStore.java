@@ -0,0 +1,92 @@
+package com.elearn.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend for course media (banners and videos).
+ *
+ * <p>Objects are addressed by slash-separated keys such as
+ * {@code media/ab/cd/<sha256>}; the value stored in {@code Video.filePath} and
+ * {@code Course.banner} is such a key. Implementations must be thread-safe.</p>
+ */
+public interface MediaStore {
+
+    /**
+     * Writes an object, replacing any existing object with the same key.
+     *
+     * @param key         the object key
+     * @param content     the bytes to store, read to the end but not closed
+     * @param length      the number of bytes in {@code content}
+     * @param contentType the media type recorded with the object, may be {@code null}
+     */
+    void put(String key, InputStream content, long length, String contentType) throws IOException;
+
+    /**
+     * Takes over a finished local file. Local stores move it into place, remote
+     * stores upload it; the source file no longer exists afterwards.
+     */
+    void putFile(String key, Path file, String contentType) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    /**
+     * Opens {@code length} bytes of the object starting at {@code offset}.
+     */
+    InputStream getRange(String key, long offset, long length) throws IOException;
+
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    default boolean exists(String key) throws IOException {
+        return stat(key).isPresent();
+    }
+
+    /**
+     * Lists the objects whose keys start with {@code prefix}, in no particular
+     * order. The stream may hold open resources and must be closed.
+     *
+     * @param prefix a key prefix, empty for everything
+     */
+    Stream<StoredObject> list(String prefix) throws IOException;
+
+    /**
+     * Deletes an object; deleting a missing key is not an error.
+     *
+     * @return {@code true} if an object was deleted, or may have been when the
+     * store cannot tell
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Marks an object as recently used. Stores that cannot update the
+     * modification time without rewriting the object may ignore this.
+     */
+    default void touch(String key) throws IOException {
+    }
+
+    /**
+     * The file backing an object when it lives on local disk, which allows
+     * zero-copy reads (sendfile) and in-place writes.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * Copies a byte range of the object into {@code target}.
+     *
+     * @return the number of bytes copied
+     */
+    default long transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        try (InputStream in = getRange(key, offset, length)) {
+            OutputStream out = Channels.newOutputStream(target);
+            return in.transferTo(out);
+        }
+    }
+}
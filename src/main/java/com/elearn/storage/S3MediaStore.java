@@ -0,0 +1,158 @@
+package com.elearn.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.MetadataDirective;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link MediaStore} backed by an S3-compatible object store (AWS S3, MinIO,
+ * Ceph RGW and similar).
+ *
+ * <p>Small objects are buffered in memory before upload and larger ones are
+ * spooled to a temp file, because request signing needs to read the payload
+ * before it is sent.</p>
+ */
+@Slf4j
+public class S3MediaStore implements MediaStore {
+
+    private static final int IN_MEMORY_PUT_LIMIT = 8 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final String bucket;
+
+    public S3MediaStore(S3Client s3, String bucket) {
+        this.s3 = s3;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length, String contentType) throws IOException {
+        if (length >= 0 && length <= IN_MEMORY_PUT_LIMIT) {
+            byte[] bytes = content.readNBytes((int) length);
+            s3.putObject(putRequest(key, contentType), RequestBody.fromBytes(bytes));
+            return;
+        }
+        Path spool = Files.createTempFile("s3-put-", ".tmp");
+        try {
+            Files.copy(content, spool, StandardCopyOption.REPLACE_EXISTING);
+            s3.putObject(putRequest(key, contentType), RequestBody.fromFile(spool));
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    @Override
+    public void putFile(String key, Path file, String contentType) throws IOException {
+        s3.putObject(putRequest(key, contentType), RequestBody.fromFile(file));
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        try {
+            return s3.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .range("bytes=" + offset + "-" + (offset + length - 1))
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return Optional.of(new StoredObject(key, head.contentLength(),
+                    head.lastModified() != null ? head.lastModified().toEpochMilli() : 0L,
+                    head.contentType()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<StoredObject> list(String prefix) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .build();
+        // Pages are fetched lazily as the stream is consumed
+        return s3.listObjectsV2Paginator(request).contents().stream()
+                .map(object -> new StoredObject(object.key(), object.size(),
+                        object.lastModified() != null ? object.lastModified().toEpochMilli() : 0L, null));
+    }
+
+    /**
+     * S3 answers a delete of a missing key with success too, so this cannot
+     * tell whether an object was there and always returns {@code true}.
+     */
+    @Override
+    public boolean delete(String key) {
+        s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+        return true;
+    }
+
+    /**
+     * Copies the object onto itself, the only way S3 updates the last
+     * modified time. Replacing the metadata is what makes S3 accept a copy
+     * to the same key, so the content type is carried over explicitly.
+     */
+    @Override
+    public void touch(String key) throws IOException {
+        StoredObject current = stat(key).orElseThrow(() -> new NoSuchFileException(key));
+        s3.copyObject(CopyObjectRequest.builder()
+                .sourceBucket(bucket)
+                .sourceKey(key)
+                .destinationBucket(bucket)
+                .destinationKey(key)
+                .metadataDirective(MetadataDirective.REPLACE)
+                .contentType(current.contentType())
+                .build());
+    }
+
+    private PutObjectRequest putRequest(String key, String contentType) {
+        return PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+    }
+}
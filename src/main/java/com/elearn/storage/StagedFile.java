@@ -0,0 +1,15 @@
+package com.elearn.storage;
+
+import java.nio.file.Path;
+
+/**
+ * An upload written to a staging file next to the media store, together with
+ * what was learned while writing it.
+ *
+ * @param path   the staging file, owned by the caller until it is stored
+ * @param size   the number of bytes written
+ * @param sha256 the lower-case hex SHA-256 digest of the bytes written, or
+ *               {@code null} once the file has been modified after staging
+ */
+public record StagedFile(Path path, long size, String sha256) {
+}
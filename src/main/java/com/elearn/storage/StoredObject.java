@@ -0,0 +1,12 @@
+package com.elearn.storage;
+
+/**
+ * Metadata of an object held by a {@link MediaStore}.
+ *
+ * @param key          the object key
+ * @param size         the object size in bytes
+ * @param lastModified the modification time in epoch milliseconds
+ * @param contentType  the recorded media type, may be {@code null}
+ */
+public record StoredObject(String key, long size, long lastModified, String contentType) {
+}
@@ -0,0 +1,328 @@
+package com.elearn.upload;
+
+import com.elearn.exception.InvalidInputException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Single-pass reader for {@code multipart/form-data} request bodies.
+ *
+ * <p>Parts are handed out one at a time with their body as a stream that ends
+ * at the next boundary, so a file part can be copied straight to its
+ * destination without the container spooling it to a temp file first. Only
+ * one part can be read at a time; asking for the next part skips whatever is
+ * left of the current one.</p>
+ *
+ * <p>Endpoints using this must not declare {@code MultipartFile} or
+ * {@code @RequestParam} arguments, and {@code spring.servlet.multipart.resolve-lazily}
+ * must be on, otherwise the container parses the body before the handler runs.</p>
+ */
+public class MultipartStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] HEADER_END = { '\r', '\n', '\r', '\n' };
+
+    private final InputStream in;
+    /** CRLF + "--" + boundary; the body's first boundary is matched by seeding the buffer with CRLF. */
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    /** Counts buffer refills, so a part stream knows when its boundary scan is stale. */
+    private long fills;
+    private boolean eof;
+    private boolean finished;
+    private PartInputStream current;
+
+    public MultipartStream(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 4)];
+        this.buffer[0] = '\r';
+        this.buffer[1] = '\n';
+        this.limit = 2;
+    }
+
+    /**
+     * Opens the request body and positions it at the file part with the given
+     * field name.
+     *
+     * @throws InvalidInputException if the request is not multipart or has no such file part
+     */
+    public static Part openFilePart(HttpServletRequest request, String fieldName) throws IOException {
+        MultipartStream multipart = new MultipartStream(request.getInputStream(), boundaryOf(request.getContentType()));
+        Part part;
+        while ((part = multipart.nextPart()) != null) {
+            if (fieldName.equals(part.name()) && part.fileName() != null) {
+                return part;
+            }
+        }
+        throw new InvalidInputException("Missing file part '" + fieldName + "'");
+    }
+
+    public static String boundaryOf(String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (RuntimeException e) {
+            throw new InvalidInputException("Expected multipart/form-data but got " + contentType);
+        }
+        if (!MediaType.MULTIPART_FORM_DATA.includes(mediaType)) {
+            throw new InvalidInputException("Expected multipart/form-data but got " + contentType);
+        }
+        String boundary = mediaType.getParameter("boundary");
+        if (!StringUtils.hasText(boundary)) {
+            throw new InvalidInputException("Multipart request has no boundary");
+        }
+        return unquote(boundary);
+    }
+
+    /**
+     * @return the next part, or {@code null} after the closing boundary
+     */
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current != null) {
+            current.skipRemaining();
+        } else {
+            // Skip the preamble up to the first boundary
+            new PartInputStream().skipRemaining();
+        }
+
+        // After a boundary comes "--" for the last one, or CRLF and the next part's headers
+        position += delimiter.length;
+        require(2);
+        if (buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            current = null;
+            return null;
+        }
+        skipTo(CRLF, MAX_HEADER_SIZE);
+
+        String headers = readHeaders();
+        current = new PartInputStream();
+        return parseHeaders(headers, current);
+    }
+
+    private String readHeaders() throws IOException {
+        // An empty header block is just the terminating CRLF
+        require(2);
+        if (buffer[position] == '\r' && buffer[position + 1] == '\n') {
+            position += 2;
+            return "";
+        }
+        int end = indexOf(HEADER_END, MAX_HEADER_SIZE);
+        // Searching may compact the buffer, but never moves past the start of the headers
+        String headers = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+        position = end + HEADER_END.length;
+        return headers;
+    }
+
+    private static Part parseHeaders(String headers, InputStream body) {
+        String name = null;
+        String fileName = null;
+        String contentType = null;
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                for (String param : value.split(";")) {
+                    int eq = param.indexOf('=');
+                    if (eq < 0) {
+                        continue;
+                    }
+                    String key = param.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+                    String paramValue = unquote(param.substring(eq + 1).trim());
+                    if (key.equals("name")) {
+                        name = paramValue;
+                    } else if (key.equals("filename")) {
+                        fileName = paramValue;
+                    }
+                }
+            } else if (header.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        return new Part(name, fileName, contentType, body);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * Makes at least {@code count} bytes available from {@code position}.
+     */
+    private void require(int count) throws IOException {
+        while (limit - position < count) {
+            if (!fill()) {
+                throw new InvalidInputException("Multipart body ended unexpectedly");
+            }
+        }
+    }
+
+    private void skipTo(byte[] marker, int maxDistance) throws IOException {
+        position = indexOf(marker, maxDistance) + marker.length;
+    }
+
+    private int indexOf(byte[] marker, int maxDistance) throws IOException {
+        int from = position;
+        while (true) {
+            int found = search(marker, from);
+            if (found >= 0) {
+                return found;
+            }
+            if (limit - position > maxDistance) {
+                throw new InvalidInputException("Malformed multipart headers");
+            }
+            from = Math.max(position, limit - marker.length + 1);
+            int shift = position;
+            if (!fill()) {
+                throw new InvalidInputException("Multipart body ended unexpectedly");
+            }
+            from -= shift - position;
+        }
+    }
+
+    private int search(byte[] marker, int from) {
+        int last = limit - marker.length;
+        byte first = marker[0];
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            if (Arrays.equals(buffer, i, i + marker.length, marker, 0, marker.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compacts the buffer and reads more input after the unread bytes.
+     *
+     * @return {@code false} at the end of input
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        fills++;
+        return true;
+    }
+
+    /**
+     * A part of the body; {@code fileName} is {@code null} for plain form fields.
+     */
+    public record Part(String name, String fileName, String contentType, InputStream body) {
+    }
+
+    private final class PartInputStream extends InputStream {
+
+        private boolean ended;
+        /** Fill the scan below was made for; the buffer only changes when it is refilled. */
+        private long scannedFill = -1;
+        /** Buffer index the part's bytes may be read up to. */
+        private int readableEnd;
+        /** Whether the boundary starts at {@link #readableEnd}. */
+        private boolean boundaryFound;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int read = read(one, 0, 1);
+            return read == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int available = available();
+            while (available == 0 && !ended) {
+                if (!fill()) {
+                    throw new InvalidInputException("Multipart body ended before the closing boundary");
+                }
+                available = available();
+            }
+            if (ended) {
+                return -1;
+            }
+            int count = Math.min(len, available);
+            System.arraycopy(buffer, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        /**
+         * Bytes that can be returned without crossing the boundary. Sets
+         * {@link #ended} once the boundary is next. The buffer is scanned once
+         * per fill, reads in between only move {@code position} towards the
+         * end found then.
+         */
+        @Override
+        public int available() {
+            if (ended) {
+                return 0;
+            }
+            if (scannedFill != fills) {
+                scan();
+            }
+            if (boundaryFound && position == readableEnd) {
+                ended = true;
+                return 0;
+            }
+            return Math.max(0, readableEnd - position);
+        }
+
+        private void scan() {
+            int found = search(delimiter, position);
+            boundaryFound = found >= 0;
+            // Without a boundary, the tail could be the start of one split across reads
+            readableEnd = boundaryFound ? found : limit - (delimiter.length - 1);
+            scannedFill = fills;
+        }
+
+        void skipRemaining() throws IOException {
+            byte[] scratch = new byte[8192];
+            while (read(scratch, 0, scratch.length) != -1) {
+                // discard
+            }
+        }
+
+        @Override
+        public void close() {
+            // The request stream belongs to the container
+        }
+    }
+}
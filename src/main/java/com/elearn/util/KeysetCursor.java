@@ -0,0 +1,109 @@
+package com.elearn.util;
+
+import com.elearn.dto.CustomPageResponse;
+import com.elearn.exception.InvalidInputException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Opaque cursors for keyset pagination.
+ *
+ * <p>A cursor holds the sort field and the sort key and id of the last row
+ * of a page, as URL-safe Base64 of a small JSON object. The next page
+ * starts right after that row with an indexed range scan, so it costs the
+ * same however deep the client has scrolled, unlike an offset that the
+ * database has to count its way to.</p>
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {};
+    private static final String SORT = "s";
+    private static final String KEYS = "k";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Decodes a cursor for a listing sorted by {@code sortField}, or returns
+     * the start of the listing when there is none.
+     *
+     * @param keyTypes type of every key in the cursor: the sort field and the id
+     * @throws InvalidInputException if the cursor is malformed or was issued for another sort
+     */
+    public static ScrollPosition decode(String cursor, String sortField, Map<String, Class<?>> keyTypes) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> decoded;
+        try {
+            decoded = JSON.readValue(Base64.getUrlDecoder().decode(cursor), MAP);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidInputException("Invalid cursor");
+        }
+        if (!sortField.equals(decoded.get(SORT)) || !(decoded.get(KEYS) instanceof Map<?, ?> keys)
+                || !keys.keySet().equals(keyTypes.keySet())) {
+            throw new InvalidInputException("Cursor does not belong to a listing sorted by " + sortField);
+        }
+        Map<String, Object> position = new LinkedHashMap<>();
+        keyTypes.forEach((name, type) -> position.put(name, fromJson(keys.get(name), type)));
+        return ScrollPosition.forward(position);
+    }
+
+    /**
+     * Builds a cursor page from a window, with the total when one was counted.
+     */
+    public static <E, T> CustomPageResponse<T> page(Window<E> window, Function<E, T> mapper, String sortField,
+                                                    int pageSize, Long total) {
+        List<T> content = window.stream().map(mapper).toList();
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            next = encode(sortField, (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return CustomPageResponse.<T>builder()
+                .pageSize(pageSize)
+                .totalElements(total)
+                .totalPages(total == null ? null : (int) ((total + pageSize - 1) / pageSize))
+                .isLast(next == null)
+                .content(content)
+                .nextCursor(next)
+                .build();
+    }
+
+    static String encode(String sortField, KeysetScrollPosition position) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((name, value) -> keys.put(name, value instanceof Date date ? date.getTime() : value));
+        try {
+            byte[] json = JSON.writeValueAsBytes(Map.of(SORT, sortField, KEYS, keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode cursor for " + sortField, e);
+        }
+    }
+
+    private static Object fromJson(Object value, Class<?> type) {
+        if (type == Date.class && value instanceof Number millis) {
+            return new Date(millis.longValue());
+        }
+        if ((type == Double.class || type == double.class) && value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (type == String.class && value instanceof String) {
+            return value;
+        }
+        throw new InvalidInputException("Invalid cursor");
+    }
+}
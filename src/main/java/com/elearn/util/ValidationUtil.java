@@ -6,6 +6,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Utility class for common validation operations.
@@ -100,6 +101,18 @@ public final class ValidationUtil {
         }
     }
 
+    /**
+     * Validates the declared type of an image upload before its content is read.
+     * @param contentType the media type sent by the client
+     * @throws InvalidInputException if the type is not an allowed image type
+     */
+    public static void validateImageContentType(String contentType) {
+        if (contentType == null || !AppConstants.Validation.ALLOWED_FILE_TYPES.contains(contentType)) {
+            throw new InvalidInputException("Invalid file type. Allowed types: " + 
+                String.join(", ", AppConstants.Validation.ALLOWED_FILE_TYPES));
+        }
+    }
+
     /**
      * Validates pagination parameters.
      * @param pageNumber the page number (0-based)
@@ -116,4 +129,37 @@ public final class ValidationUtil {
                 AppConstants.Validation.MAX_PAGE_SIZE);
         }
     }
+
+    /**
+     * Validates a cursor page request and resolves its sort field.
+     * @param sortBy the requested sort field, blank for the default
+     * @param pageSize the number of rows per page
+     * @param allowed the sort fields backed by an index
+     * @return the sort field to use
+     * @throws InvalidInputException if the page size or sort field is not allowed
+     */
+    public static String validateCursorPage(String sortBy, int pageSize, Set<String> allowed) {
+        validatePagination(0, pageSize);
+
+        String sortField = StringUtils.hasText(sortBy) ? sortBy.trim() : AppConstants.Pagination.DEFAULT_SORT_BY;
+        if (!allowed.contains(sortField)) {
+            throw new InvalidInputException("Cursor pages can only be sorted by " + String.join(", ", allowed.stream().sorted().toList()));
+        }
+        return sortField;
+    }
+
+    /**
+     * Validates a page of search results.
+     * @param pageNumber the page number (0-based)
+     * @param pageSize the number of hits per page
+     * @throws InvalidInputException if the page is invalid or lies past the deepest reachable hit
+     */
+    public static void validateSearchPage(int pageNumber, int pageSize) {
+        validatePagination(pageNumber, pageSize);
+
+        if ((long) (pageNumber + 1) * pageSize > AppConstants.Search.MAX_RESULTS) {
+            throw new InvalidInputException("Search results are limited to the first " +
+                AppConstants.Search.MAX_RESULTS + " hits");
+        }
+    }
 }
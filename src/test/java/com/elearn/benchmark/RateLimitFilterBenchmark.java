@@ -0,0 +1,154 @@
+package com.elearn.benchmark;
+
+import com.elearn.security.RateLimitFilter;
+import com.elearn.security.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per request of {@link RateLimitFilter} with the policies shipped in
+ * {@code application.yml}, given enough refill that nothing is rejected.
+ *
+ * <p>{@code disabled} is the filter with rate limiting turned off, the
+ * baseline of passing a request through a filter at all. {@code unmatched}
+ * is a route no policy covers, {@code address} an anonymous request taking a
+ * token from its address's bucket and {@code user} a signed-in one taking it
+ * from the user's.</p>
+ *
+ * <p>Measured on a single-core VM with JDK 21, time and allocation per request:</p>
+ * <pre>
+ * disabled     61 ns, 128 B
+ * unmatched   127 ns, 128 B
+ * address     332 ns, 192 B
+ * user        371 ns, 128 B
+ * </pre>
+ *
+ * <p>The 128 bytes are {@link org.springframework.web.filter.OncePerRequestFilter}'s
+ * own, and the extra 64 of {@code address} the empty security context the
+ * benchmark starts each request with. Parsing the path took about 600 ns and
+ * 560 bytes before matches were remembered per path, and handing cache upkeep
+ * to the common pool, which starts a thread per task on one core, another
+ * 200 ns.</p>
+ *
+ * <p>Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.elearn.benchmark.RateLimitFilterBenchmark},
+ * adding {@code -prof gc} for the allocation per request.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private RateLimitFilter disabledFilter;
+    private RateLimitFilter filter;
+    private MockHttpServletRequest unmatchedRequest;
+    private MockHttpServletRequest searchRequest;
+    private MockHttpServletResponse response;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties disabled = properties();
+        disabled.setEnabled(false);
+        disabledFilter = new RateLimitFilter(disabled, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(properties(), new SimpleMeterRegistry());
+
+        unmatchedRequest = request("/api/v1/courses/c1");
+        searchRequest = request("/api/v1/search/courses");
+        response = new MockHttpServletResponse();
+        authentication = new UsernamePasswordAuthenticationToken("learner@example.com", null,
+                AuthorityUtils.createAuthorityList("ROLE_GUEST"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public int disabled() throws Exception {
+        return filter(disabledFilter, searchRequest);
+    }
+
+    @Benchmark
+    public int unmatched() throws Exception {
+        return filter(filter, unmatchedRequest);
+    }
+
+    @Benchmark
+    public int address() throws Exception {
+        SecurityContextHolder.clearContext();
+        return filter(filter, searchRequest);
+    }
+
+    @Benchmark
+    public int user() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return filter(filter, searchRequest);
+    }
+
+    private int filter(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        // Lets OncePerRequestFilter run the filter again on the same request
+        request.clearAttributes();
+        filter.doFilter(request, response, chain);
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("203.0.113.7");
+        return request;
+    }
+
+    /** The policies of application.yml, with the search bucket refilled faster than it is drained. */
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setAddressMultiplier(1);
+        properties.setPolicies(List.of(
+                policy("search", 16_000, 1_000_000_000, "/api/v1/search/**", "/api/v1/courses/browse"),
+                policy("banner", 60, 20, "/api/v1/courses/*/banner"),
+                policy("payment", 5, 0.2, "/api/orders/payment-url/**")));
+        return properties;
+    }
+
+    private static RateLimitProperties.Policy policy(String name, int capacity, double refillPerSecond,
+                                                     String... paths) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPaths(List.of(paths));
+        policy.setCapacity(capacity);
+        policy.setRefillPerSecond(refillPerSecond);
+        return policy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
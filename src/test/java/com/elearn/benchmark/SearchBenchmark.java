@@ -0,0 +1,106 @@
+package com.elearn.benchmark;
+
+import com.elearn.search.InvertedIndex;
+import com.elearn.search.SearchDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of course search over a synthetic catalog.
+ *
+ * <p>Targets with 10,000 courses on a 4-core developer machine, for exact,
+ * prefix and fuzzy queries alike: median under 1 ms, 99th percentile under
+ * 5 ms. The vocabulary is deliberately small, so most words occur in most
+ * courses and posting lists are far longer than in a real catalog. Fuzzy
+ * queries pay for the trigram dictionary once per index segment; that cost
+ * is excluded here by a warm-up call in {@link #setUp()}.</p>
+ *
+ * <p>Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.elearn.benchmark.SearchBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "java", "python", "spring", "boot", "kotlin", "docker", "kubernetes", "react", "angular", "typescript",
+            "javascript", "data", "science", "machine", "learning", "microservices", "security", "testing",
+            "design", "patterns", "algorithms", "structures", "cloud", "devops", "database", "oracle", "postgres",
+            "performance", "concurrency", "streams", "functional", "reactive", "web", "mobile", "android", "swift",
+            "beginners", "advanced", "masterclass", "bootcamp", "fundamentals", "practice", "projects", "course"
+    };
+
+    @Param({"10000"})
+    int courses;
+
+    private InvertedIndex index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<SearchDocument> documents = new ArrayList<>(courses);
+        for (int i = 0; i < courses; i++) {
+            documents.add(new SearchDocument("c" + i, null,
+                    sentence(random, 4) + " " + i,
+                    sentence(random, 20),
+                    sentence(random, 120)));
+        }
+        index = new InvertedIndex(3f, 2f, 1f);
+        index.rebuild(documents, ForkJoinPool.commonPool());
+        index.search("warmup", true, 0, 10);
+    }
+
+    @Benchmark
+    public Object exact() {
+        return index.search("spring boot microservices", 0, 10);
+    }
+
+    @Benchmark
+    public Object prefix() {
+        return index.search("micro serv", 0, 10);
+    }
+
+    @Benchmark
+    public Object fuzzy() {
+        return index.search("sprng boot mircoservices", true, 0, 10);
+    }
+
+    @Benchmark
+    public Object fuzzyTransposition() {
+        return index.search("pyhton", true, 0, 10);
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            builder.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return builder.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.elearn.testserv;
+
+import com.elearn.entity.Course;
+import com.elearn.media.BannerCache;
+import com.elearn.media.BannerInfo;
+import com.elearn.media.BannerSize;
+import com.elearn.media.ThumbnailGenerator;
+import com.elearn.repository.CourseRepo;
+import com.elearn.services.serviceImpl.BannerServiceImpl;
+import com.elearn.storage.LocalMediaStore;
+import com.elearn.storage.MediaStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BannerServiceTest {
+
+    private static final byte[] BANNER = "png-bytes".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path tempDir;
+
+    private CourseRepo courseRepo;
+    private MediaStore mediaStore;
+    private BannerServiceImpl service;
+    private Course course;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(tempDir.resolve("courses/banners"));
+        Files.write(tempDir.resolve("courses/banners/banner_c1.png"), BANNER);
+
+        course = new Course();
+        course.setId("c1");
+        course.setBanner("courses/banners/banner_c1.png");
+        course.setBannerContentType("image/png");
+        course.setLastModifiedDate(new Date(1_700_000_000_000L));
+
+        courseRepo = mock(CourseRepo.class);
+        when(courseRepo.findById("c1")).thenReturn(Optional.of(course));
+        mediaStore = spy(new LocalMediaStore(tempDir));
+
+        BannerCache cache = new BannerCache(1024 * 1024, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        service = new BannerServiceImpl(courseRepo, mediaStore, new ThumbnailGenerator(), cache);
+    }
+
+    @Test
+    void repeatRequestsSkipDatabaseAndStore() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            BannerInfo info = service.getBannerInfo("c1");
+            assertArrayEquals(BANNER, service.getBannerBytes(info, BannerSize.ORIGINAL));
+        }
+
+        verify(courseRepo, times(1)).findById("c1");
+        verify(mediaStore, times(1)).get("courses/banners/banner_c1.png");
+    }
+
+    @Test
+    void evictionPicksUpNewBannerVersion() {
+        BannerInfo before = service.getBannerInfo("c1");
+
+        course.setLastModifiedDate(new Date(1_800_000_000_000L));
+        service.evict("c1");
+        BannerInfo after = service.getBannerInfo("c1");
+
+        assertNotEquals(before.etag(BannerSize.ORIGINAL), after.etag(BannerSize.ORIGINAL));
+        assertEquals(1_800_000_000_000L, after.lastModified());
+        verify(courseRepo, times(2)).findById("c1");
+    }
+}
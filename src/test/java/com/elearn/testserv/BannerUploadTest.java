@@ -0,0 +1,101 @@
+package com.elearn.testserv;
+
+import com.elearn.entity.Course;
+import com.elearn.media.ThumbnailGenerator;
+import com.elearn.repository.CourseRepo;
+import com.elearn.search.CatalogChangeEvent;
+import com.elearn.search.CatalogSearchIndex;
+import com.elearn.services.BannerService;
+import com.elearn.services.CategoryService;
+import com.elearn.services.FileService;
+import com.elearn.services.serviceImpl.CourseServiceImpl;
+import com.elearn.storage.StagedFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A banner upload receives and stores the file before its transaction
+ * begins, so a slow client never holds a database connection.
+ */
+class BannerUploadTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CourseRepo courseRepo;
+    private FileService fileService;
+    private PlatformTransactionManager transactionManager;
+    private ApplicationEventPublisher eventPublisher;
+    private BannerService bannerService;
+    private CourseServiceImpl service;
+    private Course course;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        course = new Course();
+        course.setId("c1");
+        course.setBanner("media/00/11/old");
+
+        courseRepo = mock(CourseRepo.class);
+        when(courseRepo.existsById("c1")).thenReturn(true);
+        when(courseRepo.findById("c1")).thenReturn(Optional.of(course));
+        when(courseRepo.save(course)).thenReturn(course);
+
+        fileService = mock(FileService.class);
+        Path staged = Files.writeString(tempDir.resolve("staged"), "png-bytes");
+        when(fileService.stage(any(), anyLong())).thenReturn(new StagedFile(staged, 9, "aabbcc"));
+        when(fileService.store(any(), anyString(), anyString(), eq("image/png"))).thenReturn("media/aa/bb/aabbcc");
+
+        ThumbnailGenerator thumbnailGenerator = mock(ThumbnailGenerator.class);
+        when(thumbnailGenerator.generate(any())).thenReturn(Map.of());
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        bannerService = mock(BannerService.class);
+        service = new CourseServiceImpl(courseRepo, mock(CategoryService.class), fileService, thumbnailGenerator,
+                bannerService, mock(CatalogSearchIndex.class), eventPublisher,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void storesTheFileBeforeTheTransactionBegins() throws Exception {
+        service.saveBanner("c1", "banner.png", "image/png", new ByteArrayInputStream(new byte[9]));
+
+        InOrder order = inOrder(fileService, bannerService, transactionManager, courseRepo, eventPublisher);
+        order.verify(fileService).stage(any(), anyLong());
+        order.verify(fileService).store(any(), anyString(), anyString(), eq("image/png"));
+        // Versioned by the new key, so they only show once the course points at it
+        order.verify(bannerService).storeVariants(eq("c1"), eq("media/aa/bb/aabbcc"), any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(courseRepo).findById("c1");
+        order.verify(courseRepo).save(course);
+        // The browse index lists the banner, so it re-reads the course once this commits
+        order.verify(eventPublisher).publishEvent(CatalogChangeEvent.course("c1"));
+        order.verify(fileService).release("media/00/11/old");
+        order.verify(transactionManager).commit(any());
+        assertEquals("media/aa/bb/aabbcc", course.getBanner());
+    }
+}
@@ -0,0 +1,97 @@
+package com.elearn.testserv;
+
+import com.elearn.search.CourseCategoryRow;
+import com.elearn.search.CourseFacetIndex;
+import com.elearn.search.CourseFacetRow;
+import com.elearn.search.CourseFilter;
+import com.elearn.search.CourseSort;
+import com.elearn.search.FacetResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CourseFacetIndexTest {
+
+    private CourseFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseFacetIndex(0, 1000, 5000);
+        index.replaceAll(List.of(
+                        row("spring", "Spring Boot", 4000, 500, true),
+                        row("java", "Java Basics", 0, 0, true),
+                        row("react", "React Hooks", 2500, 0, false),
+                        row("k8s", "Kubernetes", 8000, 1000, true)),
+                List.of(
+                        new CourseCategoryRow("spring", "backend"),
+                        new CourseCategoryRow("java", "backend"),
+                        new CourseCategoryRow("react", "frontend"),
+                        new CourseCategoryRow("k8s", "devops"),
+                        new CourseCategoryRow("k8s", "backend")));
+    }
+
+    @Test
+    void countsEachFacetWithoutItsOwnFilter() {
+        FacetResults results = index.filter(filter(Set.of("backend"), true, null, null, CourseSort.TITLE), 0, 10);
+
+        assertEquals(List.of("java", "k8s", "spring"), ids(results));
+        assertEquals(3, results.total());
+        // Other categories still count the live courses they hold
+        assertEquals(Map.of("backend", 3, "devops", 1), results.categories());
+        assertEquals(3, results.live());
+        assertEquals(0, results.notLive());
+        assertEquals(2, results.discounted());
+        assertEquals(List.of(1, 1, 1), results.priceBands().stream().map(FacetResults.PriceBandCount::count).toList());
+    }
+
+    @Test
+    void filtersRangesAndSorts() {
+        FacetResults byPrice = index.filter(filter(Set.of(), null, 1000.0, 4000.0, CourseSort.PRICE_DESC), 0, 10);
+        assertEquals(List.of("spring", "react"), ids(byPrice));
+
+        FacetResults page = index.filter(filter(Set.of(), null, null, null, CourseSort.PRICE_ASC), 1, 2);
+        assertEquals(List.of("react", "spring"), ids(page));
+        assertEquals(4, page.total());
+
+        FacetResults unknown = index.filter(filter(Set.of("nope"), null, null, null, CourseSort.TITLE), 0, 10);
+        assertEquals(0, unknown.total());
+    }
+
+    @Test
+    void appliesChanges() {
+        index.apply(List.of(row("react", "React Hooks", 2500, 0, true)),
+                List.of(new CourseCategoryRow("react", "backend")), List.of("k8s"));
+
+        FacetResults results = index.filter(filter(Set.of("backend"), true, null, null, CourseSort.TITLE), 0, 10);
+        assertEquals(List.of("java", "react", "spring"), ids(results));
+        assertEquals(Map.of("backend", 3), results.categories());
+    }
+
+    @Test
+    void appliesBannerChanges() {
+        index.apply(List.of(new CourseFacetRow("java", "Java Basics", null, 0, 0, true, "media/aa/bb/new")),
+                List.of(new CourseCategoryRow("java", "backend")), List.of());
+
+        FacetResults results = index.filter(filter(Set.of(), null, null, null, CourseSort.TITLE), 0, 10);
+        CourseFacetRow java = results.courses().stream().filter(row -> row.id().equals("java")).findFirst().orElseThrow();
+        assertEquals("media/aa/bb/new", java.banner());
+    }
+
+    private static CourseFilter filter(Set<String> categories, Boolean live, Double minPrice, Double maxPrice,
+                                       CourseSort sort) {
+        return new CourseFilter(categories, live, minPrice, maxPrice, null, null, sort);
+    }
+
+    private static CourseFacetRow row(String id, String title, double price, double discount, boolean live) {
+        return new CourseFacetRow(id, title, null, price, discount, live, null);
+    }
+
+    private static List<String> ids(FacetResults results) {
+        return results.courses().stream().map(CourseFacetRow::id).toList();
+    }
+}
@@ -0,0 +1,184 @@
+package com.elearn.testserv;
+
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.serviceImpl.FileServiceImpl;
+import com.elearn.storage.InFlightMedia;
+import com.elearn.storage.LocalMediaStore;
+import com.elearn.storage.StagedFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Content-addressed storage and reference-counted release, on a local store
+ * with the repositories' reference counts stubbed.
+ */
+class FileServiceTest {
+
+    private static final String KEY = "media/ab/cd/abcdef";
+
+    @TempDir
+    Path root;
+
+    private VideoRepository videoRepository;
+    private CourseRepo courseRepository;
+    private InFlightMedia inFlightMedia;
+    private FileServiceImpl fileService;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        videoRepository = mock(VideoRepository.class);
+        courseRepository = mock(CourseRepo.class);
+        when(videoRepository.countByFilePath(anyString())).thenReturn(0L);
+        when(courseRepository.countByBanner(anyString())).thenReturn(0L);
+
+        inFlightMedia = new InFlightMedia(Duration.ofHours(1));
+        fileService = new FileServiceImpl(videoRepository, courseRepository,
+                new LocalMediaStore(root, root.resolve("legacy")), inFlightMedia);
+        ReflectionTestUtils.setField(fileService, "contentAddressed", true);
+        ReflectionTestUtils.setField(fileService, "releaseGrace", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(fileService, "videoUploadPath", root.resolve("legacy").toString());
+        transaction = new TransactionTemplate(new NoOpTransactionManager());
+    }
+
+    @Test
+    void identicalUploadsShareOneBlob() throws IOException {
+        String first = fileService.store(stage("same banner"), "courses/banners", "a.png", "image/png");
+        String second = fileService.store(stage("same banner"), "courses/banners", "b.png", "image/png");
+        String other = fileService.store(stage("another banner"), "courses/banners", "c.png", "image/png");
+
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+        assertEquals(2, blobs());
+        assertEquals("same banner", Files.readString(root.resolve(first)));
+    }
+
+    @Test
+    void releaseKeepsABlobAnotherRowStillReferences() throws IOException {
+        blob(Duration.ofHours(1));
+        when(courseRepository.countByBanner(KEY)).thenReturn(1L);
+
+        assertFalse(fileService.release(KEY));
+        assertTrue(Files.exists(root.resolve(KEY)));
+
+        when(courseRepository.countByBanner(KEY)).thenReturn(0L);
+        assertTrue(fileService.release(KEY));
+        assertFalse(Files.exists(root.resolve(KEY)));
+    }
+
+    @Test
+    void releaseInATransactionWaitsForTheCommit() throws IOException {
+        blob(Duration.ofHours(1));
+
+        transaction.executeWithoutResult(status -> {
+            assertFalse(fileService.release(KEY));
+            assertTrue(Files.exists(root.resolve(KEY)));
+        });
+
+        assertFalse(Files.exists(root.resolve(KEY)));
+    }
+
+    @Test
+    void releaseIsSkippedWhenTheTransactionRollsBack() throws IOException {
+        blob(Duration.ofHours(1));
+
+        transaction.executeWithoutResult(status -> {
+            fileService.release(KEY);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(Files.exists(root.resolve(KEY)));
+    }
+
+    @Test
+    void releaseKeepsBlobsUsedWithinTheGracePeriod() throws IOException {
+        blob(Duration.ofMinutes(1));
+
+        assertFalse(fileService.release(KEY));
+        assertTrue(Files.exists(root.resolve(KEY)));
+    }
+
+    @Test
+    void releaseKeepsBlobsHeldByAnUploadInProgress() throws IOException {
+        blob(Duration.ofHours(1));
+        inFlightMedia.hold(KEY);
+
+        assertFalse(fileService.release(KEY));
+        assertTrue(Files.exists(root.resolve(KEY)));
+    }
+
+    @Test
+    void absolutePathsAreOnlyFollowedIntoTheLegacyUploadDirectory(@TempDir Path elsewhere) throws IOException {
+        Path legacy = Files.createDirectories(root.resolve("legacy")).resolve("1700000000000_lecture.mp4");
+        Files.writeString(legacy, "old video");
+        Path outside = Files.writeString(elsewhere.resolve("secret"), "not media");
+
+        assertThrows(IllegalArgumentException.class, () -> fileService.deleteCourseBannerIfExists(outside.toString()));
+        assertTrue(Files.exists(outside));
+        assertTrue(fileService.deleteCourseBannerIfExists(legacy.toString()));
+        assertFalse(Files.exists(legacy));
+    }
+
+    private StagedFile stage(String content) throws IOException {
+        return fileService.stage(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 1024);
+    }
+
+    private void blob(Duration age) throws IOException {
+        Path file = root.resolve(KEY);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "blob");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    }
+
+    private long blobs() throws IOException {
+        try (Stream<Path> files = Files.walk(root.resolve("media"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    /** Runs the synchronization callbacks of a transaction without a resource behind it. */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
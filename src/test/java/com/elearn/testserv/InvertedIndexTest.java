@@ -0,0 +1,109 @@
+package com.elearn.testserv;
+
+import com.elearn.search.InvertedIndex;
+import com.elearn.search.SearchDocument;
+import com.elearn.search.SearchHit;
+import com.elearn.search.SearchResults;
+import com.elearn.search.Tokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(3f, 1f);
+        index.put("spring", "Spring Boot in Practice", "Build web services with Java and Spring");
+        index.put("java", "Java Fundamentals", "Variables, loops and classes");
+        index.put("js", "Modern JavaScript", "The language of the browser");
+        index.put("docker", "Docker for Developers", "Containers, images and a little Java tooling");
+    }
+
+    @Test
+    void tokenizerFoldsCaseAccentsAndDropsStopWords() {
+        assertEquals(List.of("cafe", "creme"), Tokenizer.tokenize("The CAFÉ and crème"));
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        SearchResults results = index.search("java", 0, 10);
+
+        assertEquals("java", results.hits().get(0).id());
+        assertEquals(4, results.totalHits());
+        // Matches through a prefix ("javascript") rank below exact matches of the same field
+        assertTrue(score(results, "js") < score(results, "java"));
+    }
+
+    @Test
+    void pagesFollowTheRanking() {
+        List<SearchHit> all = index.search("java", 0, 10).hits();
+        List<SearchHit> second = index.search("java", 2, 2).hits();
+
+        assertEquals(all.subList(2, 4), second);
+        assertTrue(index.search("java", 10, 10).hits().isEmpty());
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsLeaveNoTerms() {
+        index.put("docker", "Kubernetes Basics", "Pods and deployments");
+        index.remove("spring");
+
+        assertEquals(List.of("java", "js"), index.search("java", 0, 10).hits().stream().map(SearchHit::id).toList());
+        assertEquals("docker", index.search("kubernetes", 0, 10).hits().get(0).id());
+        assertTrue(index.search("spring", 0, 10).hits().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void fuzzyModeToleratesTypos() {
+        index.put("python", "Python for Data Science", "Pandas and notebooks");
+
+        assertTrue(index.search("pyhton", 0, 10).hits().isEmpty());
+        assertEquals("python", index.search("pyhton", true, 0, 10).hits().get(0).id());
+        assertEquals("spring", index.search("sprng boot", true, 0, 10).hits().get(0).id());
+        // Two edits are too many for a five letter word
+        assertTrue(index.search("dcokr", true, 0, 10).hits().isEmpty());
+    }
+
+    @Test
+    void parallelRebuildRanksLikeIncrementalUpdates() {
+        List<SearchDocument> documents = new ArrayList<>();
+        InvertedIndex incremental = new InvertedIndex(3f, 1f);
+        for (int i = 0; i < 2000; i++) {
+            String title = "Course " + i + (i % 7 == 0 ? " java" : " python") + (i % 11 == 0 ? " spring" : "");
+            String description = "lesson " + (i % 13) + " about java streams";
+            documents.add(new SearchDocument("c" + i, "owner" + (i % 5), title, description));
+            incremental.apply(List.of(documents.get(i)), List.of());
+        }
+        InvertedIndex rebuilt = new InvertedIndex(3f, 1f);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            rebuilt.rebuild(documents, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (String query : List.of("java", "spring python", "lesson streams", "jav")) {
+            SearchResults expected = incremental.search(query, 0, 50);
+            SearchResults actual = rebuilt.search(query, 0, 50);
+            assertEquals(expected.totalHits(), actual.totalHits(), query);
+            assertEquals(expected.hits().stream().map(SearchHit::id).toList(),
+                    actual.hits().stream().map(SearchHit::id).toList(), query);
+        }
+        assertEquals(400, rebuilt.idsOwnedBy(Set.of("owner3")).size());
+    }
+
+    private static double score(SearchResults results, String id) {
+        return results.hits().stream().filter(hit -> hit.id().equals(id)).findFirst().orElseThrow().score();
+    }
+}
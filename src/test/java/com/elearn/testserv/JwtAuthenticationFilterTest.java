@@ -0,0 +1,125 @@
+package com.elearn.testserv;
+
+import com.elearn.dto.CustomUserDetails;
+import com.elearn.entity.Roles;
+import com.elearn.entity.User;
+import com.elearn.repository.UserRepository;
+import com.elearn.security.JwtAuthenticationFilter;
+import com.elearn.security.JwtUtil;
+import com.elearn.security.TokenVersionCache;
+import com.elearn.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private UserRepository userRepository;
+    private UserDetailsService userDetailsService;
+    private TokenVersionCache tokenVersions;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().userId("u1").email("learner@example.com").password("hash").isActive(true)
+                .roles(new HashSet<>()).build();
+        user.assignRole(new Roles("r1", "ROLE_GUEST", new HashSet<>()));
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findActiveTokenVersion("u1")).thenReturn(Optional.of(user.getTokenVersion()));
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("learner@example.com")).thenReturn(new CustomUserDetails(user));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tokenVersions = new TokenVersionCache(userRepository, 100, Duration.ofMinutes(1), meterRegistry);
+        jwtUtil = new JwtUtil(new VerifiedTokenCache(100, meterRegistry));
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenVersions);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        String token = jwtUtil.generateToken(new CustomUserDetails(user));
+
+        for (int i = 0; i < 3; i++) {
+            Authentication authentication = authenticate(token);
+            assertNotNull(authentication);
+            CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+            assertEquals("u1", principal.getUserId());
+            assertEquals("learner@example.com", principal.getUsername());
+            assertNull(principal.getPassword());
+            assertEquals(Set.of("ROLE_GUEST"), authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+        }
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(userRepository, times(1)).findActiveTokenVersion("u1");
+    }
+
+    @Test
+    void refusesTokensOfAnOlderVersion() throws Exception {
+        String token = jwtUtil.generateToken(new CustomUserDetails(user));
+        assertNotNull(authenticate(token));
+
+        user.removeRole(user.getRoles().iterator().next());
+        when(userRepository.findActiveTokenVersion("u1")).thenReturn(Optional.of(user.getTokenVersion()));
+        tokenVersions.invalidate("u1");
+
+        assertNull(authenticate(token));
+        assertNotNull(authenticate(jwtUtil.generateToken(new CustomUserDetails(user))));
+    }
+
+    @Test
+    void refusesTokensOfDisabledAccounts() throws Exception {
+        String token = jwtUtil.generateToken(new CustomUserDetails(user));
+        when(userRepository.findActiveTokenVersion("u1")).thenReturn(Optional.empty());
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void looksUpTheUserForTokensWithoutClaims() throws Exception {
+        Authentication authentication = authenticate(jwtUtil.generateToken("learner@example.com"));
+
+        assertNotNull(authentication);
+        assertEquals("u1", ((CustomUserDetails) authentication.getPrincipal()).getUserId());
+        verify(userDetailsService).loadUserByUsername("learner@example.com");
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
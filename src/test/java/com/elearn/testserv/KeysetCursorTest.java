@@ -0,0 +1,59 @@
+package com.elearn.testserv;
+
+import com.elearn.dto.CustomPageResponse;
+import com.elearn.exception.InvalidInputException;
+import com.elearn.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    private static final Map<String, Class<?>> KEYS = Map.of("createdDate", Date.class, "id", String.class);
+
+    @Test
+    void nextCursorResumesAfterTheLastRow() {
+        List<String> rows = List.of("a", "b");
+        Window<String> window = Window.from(rows,
+                i -> ScrollPosition.forward(Map.of("createdDate", new Date(1_700_000_000_000L + i), "id", rows.get(i))),
+                true);
+
+        CustomPageResponse<String> page = KeysetCursor.page(window, String::toUpperCase, "createdDate", 2, null);
+
+        assertEquals(List.of("A", "B"), page.getContent());
+        assertNull(page.getTotalElements());
+        KeysetScrollPosition next = (KeysetScrollPosition) KeysetCursor.decode(page.getNextCursor(), "createdDate", KEYS);
+        assertEquals(Map.of("createdDate", new Date(1_700_000_000_001L), "id", "b"), next.getKeys());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        Window<String> window = Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("title", "a", "id", "a")), false);
+
+        CustomPageResponse<String> page = KeysetCursor.page(window, s -> s, "title", 10, 21L);
+
+        assertTrue(page.isLast());
+        assertNull(page.getNextCursor());
+        assertEquals(3, page.getTotalPages());
+        assertTrue(KeysetCursor.decode(null, "title", Map.of()).isInitial());
+    }
+
+    @Test
+    void rejectsForeignAndMalformedCursors() {
+        Window<String> window = Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("title", "a", "id", "a")), true);
+        String cursor = KeysetCursor.page(window, s -> s, "title", 1, null).getNextCursor();
+
+        assertThrows(InvalidInputException.class, () -> KeysetCursor.decode(cursor, "createdDate", KEYS));
+        assertThrows(InvalidInputException.class, () -> KeysetCursor.decode("not a cursor", "title", KEYS));
+    }
+}
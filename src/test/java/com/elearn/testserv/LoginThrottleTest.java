@@ -0,0 +1,50 @@
+package com.elearn.testserv;
+
+import com.elearn.exception.TooManyRequestsException;
+import com.elearn.security.LoginThrottle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private final LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(1), 2, Duration.ofMinutes(5), 1000);
+
+    @Test
+    void limitsAttemptsPerAddress() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAttempt("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> throttle.checkAttempt("other@example.com", "10.0.0.1"));
+        assertTrue(e.getRetryAfterSeconds() > 0 && e.getRetryAfterSeconds() <= 60);
+        assertDoesNotThrow(() -> throttle.checkAttempt("other@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void locksAnAccountAfterRepeatedFailuresFromAnyAddress() {
+        throttle.checkAttempt("learner@example.com", "10.0.0.1");
+        throttle.loginFailed("learner@example.com");
+        throttle.checkAttempt("learner@example.com", "10.0.0.2");
+        throttle.loginFailed("Learner@Example.com ");
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> throttle.checkAttempt("learner@example.com", "10.0.0.3"));
+        assertTrue(e.getRetryAfterSeconds() > 60 && e.getRetryAfterSeconds() <= 300);
+        assertDoesNotThrow(() -> throttle.checkAttempt("someone@example.com", "10.0.0.3"));
+    }
+
+    @Test
+    void successClearsTheAccountsFailures() {
+        throttle.loginFailed("learner@example.com");
+        throttle.loginSucceeded("learner@example.com");
+        throttle.loginFailed("learner@example.com");
+
+        assertDoesNotThrow(() -> throttle.checkAttempt("learner@example.com", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.elearn.testserv;
+
+import com.elearn.media.BannerInfo;
+import com.elearn.media.BannerSize;
+import com.elearn.media.CourseBannerRow;
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.VideoRepository;
+import com.elearn.storage.InFlightMedia;
+import com.elearn.storage.LocalMediaStore;
+import com.elearn.storage.MediaGarbageCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MediaGarbageCollectorTest {
+
+    @TempDir
+    Path root;
+
+    private VideoRepository videoRepository;
+    private CourseRepo courseRepo;
+    private InFlightMedia inFlightMedia;
+    private MediaGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        videoRepository = mock(VideoRepository.class);
+        courseRepo = mock(CourseRepo.class);
+        when(videoRepository.findAllFilePaths()).thenReturn(List.of("videos/referenced.mp4"));
+        when(courseRepo.findAllBanners()).thenReturn(List.of());
+        when(courseRepo.findAllBannerRows()).thenReturn(List.of(new CourseBannerRow("c1", "media/00/11/current")));
+        when(videoRepository.countByFilePath(anyString())).thenReturn(0L);
+        when(videoRepository.countByFilePath("videos/referenced.mp4")).thenReturn(1L);
+        when(courseRepo.findBannerById("c1")).thenReturn(Optional.of("media/00/11/current"));
+
+        inFlightMedia = new InFlightMedia(Duration.ofHours(1));
+        collector = new MediaGarbageCollector(new LocalMediaStore(root), videoRepository, courseRepo,
+                inFlightMedia, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(collector, "videoUploadPath", root.toString());
+        ReflectionTestUtils.setField(collector, "mode", "delete");
+        ReflectionTestUtils.setField(collector, "grace", Duration.ofHours(24));
+        ReflectionTestUtils.setField(collector, "stagingGrace", Duration.ofHours(48));
+        ReflectionTestUtils.setField(collector, "quarantineRetention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(collector, "batchSize", 2);
+        ReflectionTestUtils.setField(collector, "batchPause", Duration.ZERO);
+        ReflectionTestUtils.setField(collector, "maxFilesPerRun", 100);
+    }
+
+    @Test
+    void deletesOnlyOldUnreferencedFiles() throws Exception {
+        write("videos/referenced.mp4", Duration.ofDays(3));
+        write("videos/orphan.mp4", Duration.ofDays(3));
+        write("videos/recent.mp4", Duration.ofHours(1));
+        write("videos/held.mp4", Duration.ofDays(3));
+        write(".incoming/upload.tmp", Duration.ofHours(30));
+        String current = BannerInfo.variantKey("c1", "media/00/11/current", BannerSize.CARD);
+        String replaced = BannerInfo.variantKey("c1", "media/00/11/replaced", BannerSize.CARD);
+        write(current, Duration.ofDays(3));
+        write(replaced, Duration.ofDays(3));
+        write("courses/banners/variants/c1/card.jpg", Duration.ofDays(3));
+        write(BannerInfo.variantKey("gone", "media/00/11/gone", BannerSize.CARD), Duration.ofDays(3));
+        inFlightMedia.hold("videos/held.mp4");
+
+        MediaGarbageCollector.Report report = collector.run();
+
+        assertEquals(4, report.removed());
+        assertFalse(Files.exists(root.resolve("videos/orphan.mp4")));
+        assertFalse(Files.exists(root.resolve(BannerInfo.variantKey("gone", "media/00/11/gone", BannerSize.CARD))));
+        // Variants of a replaced banner, versioned or written before variants were versioned
+        assertFalse(Files.exists(root.resolve(replaced)));
+        assertFalse(Files.exists(root.resolve("courses/banners/variants/c1/card.jpg")));
+        assertTrue(Files.exists(root.resolve("videos/referenced.mp4")));
+        assertTrue(Files.exists(root.resolve("videos/recent.mp4")));
+        assertTrue(Files.exists(root.resolve("videos/held.mp4")));
+        assertTrue(Files.exists(root.resolve(".incoming/upload.tmp")));
+        assertTrue(Files.exists(root.resolve(current)));
+    }
+
+    @Test
+    void leavesFilesOutsideTheMediaPrefixesAlone() throws Exception {
+        write("default.jpg", Duration.ofDays(30));
+        write("profiles/u1.png", Duration.ofDays(30));
+        write("videos/orphan.mp4", Duration.ofDays(3));
+
+        MediaGarbageCollector.Report report = collector.run();
+
+        assertEquals(1, report.scanned());
+        assertTrue(Files.exists(root.resolve("default.jpg")));
+        assertTrue(Files.exists(root.resolve("profiles/u1.png")));
+        assertFalse(Files.exists(root.resolve("videos/orphan.mp4")));
+    }
+
+    @Test
+    void sweepsOnlyTheFlatFilesAndStagingOfTheLegacyDirectory(@TempDir Path legacy) throws Exception {
+        ReflectionTestUtils.setField(collector, "videoUploadPath", legacy.toString());
+        write(legacy, "1700000000000_lecture.mp4", Duration.ofDays(3));
+        write(legacy, ".sessions/abandoned.part", Duration.ofDays(3));
+        write(legacy, "profiles/u1.png", Duration.ofDays(3));
+
+        collector.run();
+
+        assertFalse(Files.exists(legacy.resolve("1700000000000_lecture.mp4")));
+        assertFalse(Files.exists(legacy.resolve(".sessions/abandoned.part")));
+        assertTrue(Files.exists(legacy.resolve("profiles/u1.png")));
+    }
+
+    @Test
+    void quarantinesOrphansAndPurgesThemAfterRetention() throws Exception {
+        ReflectionTestUtils.setField(collector, "mode", "quarantine");
+        write("videos/orphan.mp4", Duration.ofDays(3));
+        write(".quarantine/videos/expired.mp4", Duration.ofDays(8));
+
+        collector.run();
+
+        assertFalse(Files.exists(root.resolve("videos/orphan.mp4")));
+        assertTrue(Files.exists(root.resolve(".quarantine/videos/orphan.mp4")));
+        assertFalse(Files.exists(root.resolve(".quarantine/videos/expired.mp4")));
+    }
+
+    @Test
+    void dryRunLeavesFilesInPlace() throws Exception {
+        ReflectionTestUtils.setField(collector, "dryRun", true);
+        write("videos/orphan.mp4", Duration.ofDays(3));
+
+        MediaGarbageCollector.Report report = collector.run();
+
+        assertEquals(1, report.removed());
+        assertTrue(Files.exists(root.resolve("videos/orphan.mp4")));
+    }
+
+    private void write(String key, Duration age) throws Exception {
+        write(root, key, age);
+    }
+
+    private static void write(Path root, String key, Duration age) throws Exception {
+        Path file = root.resolve(key);
+        Files.createDirectories(file.getParent());
+        Files.write(file, key.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.elearn.testserv;
+
+import com.elearn.media.VideoMetadata;
+import com.elearn.media.mp4.Mp4Faststart;
+import com.elearn.media.mp4.Mp4FormatException;
+import com.elearn.media.mp4.Mp4Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Mp4FaststartTest {
+
+    private static final byte[] PAYLOAD = "frame-data-0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void movesMoovInFrontOfMdatAndPatchesChunkOffsets() throws Exception {
+        byte[] ftyp = box("ftyp", "isom".getBytes(StandardCharsets.US_ASCII), new byte[4]);
+        byte[] mdat = box("mdat", PAYLOAD);
+        byte[] moov = moov(ftyp.length + 8);
+        Path source = write("tail.mp4", ftyp, mdat, moov);
+        Path target = tempDir.resolve("fast.mp4");
+
+        assertTrue(Mp4Faststart.rewrite(source, target));
+
+        byte[] out = Files.readAllBytes(target);
+        assertEquals(Files.size(source), out.length);
+        assertEquals("moov", new String(out, ftyp.length + 4, 4, StandardCharsets.US_ASCII));
+
+        int chunkOffset = ByteBuffer.wrap(out).getInt(indexOf(out, "stco") + 16);
+        assertEquals(ftyp.length + moov.length + 8, chunkOffset);
+        assertArrayEquals(PAYLOAD, Arrays.copyOfRange(out, chunkOffset, chunkOffset + PAYLOAD.length));
+    }
+
+    @Test
+    void leavesFaststartFilesAlone() throws Exception {
+        byte[] ftyp = box("ftyp", "isom".getBytes(StandardCharsets.US_ASCII), new byte[4]);
+        byte[] moov = moov(0);
+        Path source = write("fast.mp4", ftyp, moov, box("mdat", PAYLOAD));
+        Path target = tempDir.resolve("copy.mp4");
+
+        assertFalse(Mp4Faststart.rewrite(source, target));
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    void probesDurationResolutionAndCodec() throws Exception {
+        byte[] ftyp = box("ftyp", "isom".getBytes(StandardCharsets.US_ASCII), new byte[4]);
+        Path file = write("probe.mp4", ftyp, box("mdat", PAYLOAD), moov(ftyp.length + 8));
+
+        assertTrue(Mp4Parser.isMp4(file));
+        VideoMetadata metadata = Mp4Parser.probe(file);
+
+        assertEquals(10_000L, metadata.durationMillis());
+        assertEquals(1280, metadata.width());
+        assertEquals(720, metadata.height());
+        assertEquals("avc1.64001f", metadata.codec());
+        assertEquals(Files.size(file) * 8 / 10, metadata.bitrate());
+    }
+
+    @Test
+    void rejectsTruncatedMoovAsAFormatError() throws Exception {
+        byte[] ftyp = box("ftyp", "isom".getBytes(StandardCharsets.US_ASCII), new byte[4]);
+        byte[] mdat = box("mdat", PAYLOAD);
+        // A child claiming a 64-bit size with the moov ending before the size field
+        byte[] largeSizeCut = box("moov", ByteBuffer.allocate(8).putInt(1).put("trak".getBytes(StandardCharsets.US_ASCII)).array());
+        Path cutChild = write("cut-child.mp4", ftyp, mdat, largeSizeCut);
+        // A full box with no room for its version byte
+        Path emptyMvhd = write("empty-mvhd.mp4", ftyp, mdat, box("moov", box("mvhd")));
+
+        assertThrows(Mp4FormatException.class, () -> Mp4Parser.probe(cutChild));
+        assertThrows(Mp4FormatException.class, () -> Mp4Faststart.rewrite(cutChild, tempDir.resolve("out.mp4")));
+        assertThrows(Mp4FormatException.class, () -> Mp4Parser.probe(emptyMvhd));
+    }
+
+    private byte[] moov(int chunkOffset) {
+        ByteBuffer mvhd = ByteBuffer.allocate(100);
+        mvhd.putInt(12, 1000).putInt(16, 10_000);
+
+        ByteBuffer tkhd = ByteBuffer.allocate(84);
+        tkhd.putInt(76, 1280 << 16).putInt(80, 720 << 16);
+
+        ByteBuffer hdlr = ByteBuffer.allocate(25);
+        hdlr.put(8, "vide".getBytes(StandardCharsets.US_ASCII));
+
+        ByteBuffer visual = ByteBuffer.allocate(78);
+        visual.putShort(24, (short) 1280).putShort(26, (short) 720);
+        byte[] avc1 = box("avc1", visual.array(), box("avcC", new byte[] { 1, 0x64, 0x00, 0x1f, (byte) 0xff }));
+        byte[] stsd = box("stsd", ByteBuffer.allocate(8).putInt(4, 1).array(), avc1);
+        byte[] stco = box("stco", ByteBuffer.allocate(12).putInt(4, 1).putInt(8, chunkOffset).array());
+
+        byte[] stbl = box("stbl", stsd, stco);
+        byte[] mdia = box("mdia", box("hdlr", hdlr.array()), box("minf", stbl));
+        byte[] trak = box("trak", box("tkhd", tkhd.array()), mdia);
+        return box("moov", box("mvhd", mvhd.array()), trak);
+    }
+
+    private static byte[] box(String type, byte[]... parts) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            body.writeBytes(part);
+        }
+        return ByteBuffer.allocate(8 + body.size())
+                .putInt(8 + body.size())
+                .put(type.getBytes(StandardCharsets.US_ASCII))
+                .put(body.toByteArray())
+                .array();
+    }
+
+    private Path write(String name, byte[]... boxes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] box : boxes) {
+            out.writeBytes(box);
+        }
+        Path file = tempDir.resolve(name);
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    private static int indexOf(byte[] data, String type) {
+        byte[] pattern = type.getBytes(StandardCharsets.US_ASCII);
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i - 4;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.elearn.testserv;
+
+import com.elearn.exception.InvalidInputException;
+import com.elearn.upload.MultipartStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultipartStreamTest {
+
+    private static final String BOUNDARY = "----formBoundary7MA4YWxk";
+
+    @Test
+    void readsFieldsAndFileParts() throws Exception {
+        byte[] file = new byte[200_000];
+        new Random(42).nextBytes(file);
+        byte[] body = body(file);
+
+        MultipartStream multipart = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY);
+
+        MultipartStream.Part title = multipart.nextPart();
+        assertEquals("title", title.name());
+        assertNull(title.fileName());
+        assertEquals("Intro", new String(title.body().readAllBytes(), StandardCharsets.UTF_8));
+
+        MultipartStream.Part upload = multipart.nextPart();
+        assertEquals("file", upload.name());
+        assertEquals("lecture.mp4", upload.fileName());
+        assertEquals("video/mp4", upload.contentType());
+        assertArrayEquals(file, upload.body().readAllBytes());
+
+        assertNull(multipart.nextPart());
+    }
+
+    @Test
+    void handlesBoundariesSplitAcrossReads() throws Exception {
+        // Content that almost forms a delimiter must come through untouched
+        byte[] file = ("x\r\n--" + BOUNDARY.substring(0, 10) + "y\r\n-").getBytes(StandardCharsets.ISO_8859_1);
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(body(file))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+
+        MultipartStream.Part part = findFile(new MultipartStream(trickle, BOUNDARY));
+
+        assertArrayEquals(file, part.body().readAllBytes());
+    }
+
+    @Test
+    void smallReadsAcrossManyFillsStopAtTheBoundary() throws Exception {
+        byte[] file = new byte[300_000];
+        new Random(7).nextBytes(file);
+        InputStream body = findFile(new MultipartStream(new ByteArrayInputStream(body(file)), BOUNDARY)).body();
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] chunk = new byte[997];
+        int read;
+        while ((read = body.read(chunk)) != -1) {
+            received.write(chunk, 0, read);
+            int b = body.read();
+            if (b == -1) {
+                break;
+            }
+            received.write(b);
+        }
+
+        assertEquals(0, body.available());
+        assertArrayEquals(file, received.toByteArray());
+    }
+
+    @Test
+    void parsesBoundaryFromContentType() {
+        assertEquals(BOUNDARY, MultipartStream.boundaryOf("multipart/form-data; boundary=\"" + BOUNDARY + "\""));
+        assertThrows(InvalidInputException.class, () -> MultipartStream.boundaryOf("application/json"));
+    }
+
+    @Test
+    void rejectsTruncatedBody() throws Exception {
+        byte[] body = body(new byte[1000]);
+        byte[] truncated = Arrays.copyOf(body, body.length - 40);
+        MultipartStream.Part part = findFile(new MultipartStream(new ByteArrayInputStream(truncated), BOUNDARY));
+
+        assertThrows(InvalidInputException.class, () -> part.body().readAllBytes());
+    }
+
+    private static MultipartStream.Part findFile(MultipartStream multipart) throws IOException {
+        MultipartStream.Part part;
+        while ((part = multipart.nextPart()) != null) {
+            if (part.fileName() != null) {
+                return part;
+            }
+        }
+        throw new AssertionError("no file part");
+    }
+
+    private static byte[] body(byte[] file) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(("preamble\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"title\"\r\n\r\n"
+                + "Intro\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"lecture.mp4\"\r\n"
+                + "Content-Type: video/mp4\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(file);
+        out.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+}
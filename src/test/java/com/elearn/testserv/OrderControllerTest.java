@@ -54,7 +54,7 @@ class OrderControllerTest {
                 .orderId("order_123")
                 .esewaOrderId(pid)
                 .amount(Double.parseDouble(amt))
-                .pmtStatus("PAID")
+                .paymentStatus("PAID")
                 .build();
 
         // Define mock behavior
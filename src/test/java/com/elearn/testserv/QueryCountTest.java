@@ -0,0 +1,151 @@
+package com.elearn.testserv;
+
+import com.elearn.dto.CategoryDto;
+import com.elearn.dto.CourseDto;
+import com.elearn.dto.VideoDto;
+import com.elearn.entity.Category;
+import com.elearn.entity.Course;
+import com.elearn.entity.Video;
+import com.elearn.media.ThumbnailGenerator;
+import com.elearn.search.CatalogSearchIndex;
+import com.elearn.services.BannerService;
+import com.elearn.services.CategoryService;
+import com.elearn.services.CourseService;
+import com.elearn.services.FileService;
+import com.elearn.services.VideoService;
+import com.elearn.services.serviceImpl.CategoryServiceImpl;
+import com.elearn.services.serviceImpl.CourseServiceImpl;
+import com.elearn.services.serviceImpl.VideoServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SQL statements per read endpoint, against an in-memory database.
+ *
+ * <p>Every course has several videos and categories, so a lazy association
+ * loaded once per row shows up as a count that grows with the data.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Fetch plans are measured against the database, not the second-level cache
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@Import({CourseServiceImpl.class, CategoryServiceImpl.class, VideoServiceImpl.class})
+class QueryCountTest {
+
+    private static final int COURSES = 6;
+    private static final int VIDEOS_PER_COURSE = 3;
+    private static final int CATEGORIES = 3;
+
+    @MockitoBean
+    private FileService fileService;
+    @MockitoBean
+    private ThumbnailGenerator thumbnailGenerator;
+    @MockitoBean
+    private BannerService bannerService;
+    @MockitoBean
+    private CatalogSearchIndex searchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private VideoService videoService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Category[] categories = new Category[CATEGORIES];
+        for (int i = 0; i < CATEGORIES; i++) {
+            categories[i] = new Category();
+            categories[i].setId("cat" + i);
+            categories[i].setTitle("Category " + i);
+            entityManager.persist(categories[i]);
+        }
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setId("course" + i);
+            course.setTitle("Course " + i);
+            course.setPrice(100 * i);
+            course.setLive(i % 2 == 0);
+            course.addCourse(categories[i % CATEGORIES]);
+            course.addCourse(categories[(i + 1) % CATEGORIES]);
+            entityManager.persist(course);
+            for (int j = 0; j < VIDEOS_PER_COURSE; j++) {
+                Video video = new Video();
+                video.setId("video" + i + "-" + j);
+                video.setTitle("Video " + i + "-" + j);
+                video.setCourse(course);
+                course.getVideos().add(video);
+                entityManager.persist(video);
+            }
+        }
+    }
+
+    @Test
+    void courseEndpoints() {
+        CourseDto course = statements(2, () -> courseService.getCourseById("course1"));
+        assertEquals(VIDEOS_PER_COURSE, course.getVideos().size());
+        assertEquals(2, course.getCategoryList().size());
+
+        statements(2, () -> courseService.getAll(0, 4, "title"));
+        statements(2, () -> courseService.getAllCoursesLive(0, 2, "title"));
+        statements(1, () -> courseService.scrollCourses(null, 4, "price", false, false));
+        // Search before the index has loaded: the matches, then their videos and categories in one batch each
+        assertEquals(COURSES, statements(3, () -> courseService.searchCourses("Course")).size());
+    }
+
+    @Test
+    void categoryEndpoints() {
+        CategoryDto category = statements(2, () -> categoryService.get("cat0"));
+        assertEquals(COURSES * 2 / CATEGORIES, category.getCourses().size());
+
+        statements(2, () -> categoryService.getAll(0, 2, "title"));
+        statements(1, () -> categoryService.scroll(null, 10, "title", false));
+        statements(2, () -> categoryService.getCoursesOfCat("cat1"));
+    }
+
+    @Test
+    void videoEndpoints() {
+        VideoDto video = statements(1, () -> videoService.getVideoById("video2-1"));
+        assertEquals("Course 2", video.getCourse().getTitle());
+
+        statements(2, () -> videoService.getAllVideos(0, 5, "title"));
+        statements(1, () -> videoService.scrollVideos(null, 5, "title", false));
+        statements(1, () -> videoService.getVideoOfCourse("course3"));
+        assertEquals(COURSES * VIDEOS_PER_COURSE, statements(1, () -> videoService.searchVideos("Video")).size());
+    }
+
+    /**
+     * Runs the call against an empty persistence context and checks the
+     * number of statements it prepared.
+     */
+    private <T> T statements(long expected, Supplier<T> call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements");
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package com.elearn.testserv;
+
+import com.elearn.security.RateLimitFilter;
+import com.elearn.security.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties(policy("search", 3, 0.5, "/api/v1/search/**"),
+                policy("banner", 1000, 0.001, "/api/v1/courses/*/banner", "GET")), meterRegistry, clock::get);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsOnceTheBucketIsEmptyAndRefillsOverTime() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = request("GET", "/api/v1/search/courses", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+        assertEquals(1, meterRegistry.get("security.rate_limit.rejected").tag("policy", "search").counter().count());
+
+        clock.addAndGet(1_999);
+        assertEquals(429, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+        clock.addAndGet(1);
+        assertEquals(200, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+        assertEquals(429, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void limitsAddressesAndUsersSeparately() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            request("GET", "/api/v1/search/videos", "10.0.0.1");
+        }
+        assertEquals(429, request("GET", "/api/v1/search/videos", "10.0.0.1").getStatus());
+        assertEquals(200, request("GET", "/api/v1/search/videos", "10.0.0.2").getStatus());
+
+        // A signed-in user has a bucket of their own, whichever address they use
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "learner@example.com", null, AuthorityUtils.createAuthorityList("ROLE_GUEST")));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("GET", "/api/v1/search/videos", "10.0.0." + (i + 1)).getStatus());
+        }
+        assertEquals(429, request("GET", "/api/v1/search/videos", "10.0.0.9").getStatus());
+    }
+
+    @Test
+    void addressesGetTheMultipliedLimit() throws Exception {
+        RateLimitProperties properties = properties(policy("search", 3, 0.001, "/api/v1/search/**"));
+        properties.setAddressMultiplier(2);
+        filter = new RateLimitFilter(properties, meterRegistry, clock::get);
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(200, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+        }
+        assertEquals(429, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "learner@example.com", null, AuthorityUtils.createAuthorityList("ROLE_GUEST")));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+        }
+        assertEquals(429, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void passesRoutesAndMethodsWithoutAPolicy() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, request("GET", "/api/v1/courses", "10.0.0.1").getStatus());
+            assertEquals(200, request("POST", "/api/v1/courses/c1/banner", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void encodedPathsShareTheBucketOfTheirDecodedRoute() throws Exception {
+        request("GET", "/api/v1/search/courses", "10.0.0.1");
+        request("GET", "/api/v1/%73earch/courses", "10.0.0.1");
+        request("GET", "/api/v1/search;v=1/courses", "10.0.0.1");
+
+        assertEquals(429, request("GET", "/api/v1/%73earch/videos", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void concurrentRequestsNeverTakeMoreThanTheCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> clients = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                clients.add(() -> {
+                    int allowed = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (request("GET", "/api/v1/courses/c1/banner", "10.0.0.1").getStatus() == 200) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                });
+            }
+            int allowed = 0;
+            for (Future<Integer> result : executor.invokeAll(clients)) {
+                allowed += result.get();
+            }
+            assertEquals(1000, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void disabledLimitsNothing() throws Exception {
+        RateLimitProperties properties = properties(policy("search", 1, 0.001, "/api/v1/search/**"));
+        properties.setEnabled(false);
+        filter = new RateLimitFilter(properties, meterRegistry, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, request("GET", "/api/v1/search/courses", "10.0.0.1").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse request(String method, String uri, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Policy... policies) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setAddressMultiplier(1);
+        properties.setPolicies(List.of(policies));
+        return properties;
+    }
+
+    private static RateLimitProperties.Policy policy(String name, int capacity, double refillPerSecond,
+                                                     String path, String... methods) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPaths(List.of(path));
+        policy.setMethods(List.of(methods));
+        policy.setCapacity(capacity);
+        policy.setRefillPerSecond(refillPerSecond);
+        return policy;
+    }
+}
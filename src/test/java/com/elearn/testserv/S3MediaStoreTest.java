@@ -0,0 +1,274 @@
+package com.elearn.testserv;
+
+import com.elearn.storage.S3MediaStore;
+import com.elearn.storage.StoredObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link S3MediaStore} against an in-process fake that speaks the subset
+ * of the S3 REST API the store uses (path-style PUT, copy, GET with Range,
+ * HEAD and DELETE).
+ */
+class S3MediaStoreTest {
+
+    private static final String BUCKET = "media";
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, FakeObject> objects = new ConcurrentHashMap<>();
+    /** Request methods in the order the fake received them */
+    private final List<String> methods = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private S3Client s3;
+    private S3MediaStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        s3 = S3Client.builder()
+                .endpointOverride(URI.create("http://127.0.0.1:" + server.getAddress().getPort()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .chunkedEncodingEnabled(false)
+                        .build())
+                .build();
+        store = new S3MediaStore(s3, BUCKET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3.close();
+        server.stop(0);
+    }
+
+    @Test
+    void putGetAndStat() throws IOException {
+        byte[] content = "lecture bytes".getBytes(StandardCharsets.UTF_8);
+        store.put("videos/a.mp4", new ByteArrayInputStream(content), content.length, "video/mp4");
+
+        try (InputStream in = store.get("videos/a.mp4")) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        StoredObject stat = store.stat("videos/a.mp4").orElseThrow();
+        assertEquals(content.length, stat.size());
+        assertEquals("video/mp4", stat.contentType());
+    }
+
+    @Test
+    void rangeGetReturnsOnlyTheRequestedBytes() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        store.put("videos/b.mp4", new ByteArrayInputStream(content), content.length, "video/mp4");
+
+        try (InputStream in = store.getRange("videos/b.mp4", 3, 4)) {
+            assertEquals("3456", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void putFileUploadsAndRemovesTheSource() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("part"), "assembled");
+
+        store.putFile("media/ab/cd/abcd", file, "video/mp4");
+
+        assertFalse(Files.exists(file));
+        try (InputStream in = store.get("media/ab/cd/abcd")) {
+            assertEquals("assembled", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void deleteAndMissingObjects() throws IOException {
+        byte[] content = {1, 2, 3};
+        store.put("courses/banners/x.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        assertTrue(store.delete("courses/banners/x.png"));
+        assertEquals(Optional.empty(), store.stat("courses/banners/x.png"));
+        // A single DELETE either way, S3 does not say whether the key existed
+        assertTrue(store.delete("courses/banners/x.png"));
+        assertEquals(List.of("PUT", "DELETE", "HEAD", "DELETE"), methods);
+    }
+
+    @Test
+    void touchRefreshesTheLastModifiedTimeAndKeepsTheObject() throws IOException {
+        byte[] content = "blob".getBytes(StandardCharsets.UTF_8);
+        store.put("media/ab/cd/abcd", new ByteArrayInputStream(content), content.length, "video/mp4");
+        objects.computeIfPresent("media/ab/cd/abcd",
+                (key, object) -> object.modifiedAt(Instant.now().minus(1, ChronoUnit.DAYS)));
+        long before = store.stat("media/ab/cd/abcd").orElseThrow().lastModified();
+
+        store.touch("media/ab/cd/abcd");
+
+        StoredObject touched = store.stat("media/ab/cd/abcd").orElseThrow();
+        assertTrue(touched.lastModified() > before + ChronoUnit.HOURS.getDuration().toMillis());
+        assertEquals("video/mp4", touched.contentType());
+        try (InputStream in = store.get("media/ab/cd/abcd")) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().getPath().substring(("/" + BUCKET + "/").length());
+        methods.add(exchange.getRequestMethod());
+        try (exchange) {
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+                    if (copySource != null) {
+                        copy(exchange, key, copySource);
+                        return;
+                    }
+                    byte[] body = exchange.getRequestBody().readAllBytes();
+                    FakeObject object = new FakeObject(body, exchange.getRequestHeaders().getFirst("Content-Type"),
+                            Instant.now());
+                    objects.put(key, object);
+                    exchange.getResponseHeaders().add("ETag", object.etag());
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "HEAD" -> {
+                    FakeObject object = objects.get(key);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    object.writeHeaders(exchange);
+                    exchange.getResponseHeaders().add("Content-Length", String.valueOf(object.content().length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    FakeObject object = objects.get(key);
+                    if (object == null) {
+                        notFound(exchange);
+                        return;
+                    }
+                    object.writeHeaders(exchange);
+                    byte[] body = object.content();
+                    int status = 200;
+                    String range = exchange.getRequestHeaders().getFirst("Range");
+                    if (range != null) {
+                        Matcher matcher = RANGE.matcher(range);
+                        if (matcher.matches()) {
+                            int start = Integer.parseInt(matcher.group(1));
+                            int end = Math.min(Integer.parseInt(matcher.group(2)), body.length - 1);
+                            exchange.getResponseHeaders().add("Content-Range",
+                                    "bytes " + start + "-" + end + "/" + body.length);
+                            body = Arrays.copyOfRange(body, start, end + 1);
+                            status = 206;
+                        }
+                    }
+                    exchange.sendResponseHeaders(status, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+                case "DELETE" -> {
+                    objects.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private void copy(HttpExchange exchange, String key, String copySource) throws IOException {
+        String sourceKey = URLDecoder.decode(copySource, StandardCharsets.UTF_8)
+                .replaceFirst("^/?" + BUCKET + "/", "");
+        FakeObject source = objects.get(sourceKey);
+        if (source == null) {
+            notFound(exchange);
+            return;
+        }
+        boolean replace = "REPLACE".equals(exchange.getRequestHeaders().getFirst("x-amz-metadata-directive"));
+        FakeObject copy = new FakeObject(source.content(),
+                replace ? exchange.getRequestHeaders().getFirst("Content-Type") : source.contentType(), Instant.now());
+        objects.put(key, copy);
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><CopyObjectResult><ETag>" + copy.etag()
+                + "</ETag><LastModified>" + DateTimeFormatter.ISO_INSTANT.format(copy.lastModified())
+                + "</LastModified></CopyObjectResult>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void notFound(HttpExchange exchange) throws IOException {
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>NoSuchKey</Code>"
+                + "<Message>The specified key does not exist.</Message></Error>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(404, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record FakeObject(byte[] content, String contentType, Instant lastModified) {
+
+        FakeObject modifiedAt(Instant time) {
+            return new FakeObject(content, contentType, time);
+        }
+
+        String etag() {
+            try {
+                return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"";
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void writeHeaders(HttpExchange exchange) {
+            exchange.getResponseHeaders().add("ETag", etag());
+            exchange.getResponseHeaders().add("Last-Modified",
+                    DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified.atZone(ZoneOffset.UTC)));
+            if (contentType != null) {
+                exchange.getResponseHeaders().add("Content-Type", contentType);
+            }
+        }
+    }
+}
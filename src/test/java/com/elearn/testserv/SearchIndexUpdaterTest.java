@@ -0,0 +1,172 @@
+package com.elearn.testserv;
+
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.OrderRepository;
+import com.elearn.repository.VideoRepository;
+import com.elearn.search.CatalogChangeEvent;
+import com.elearn.search.CatalogSearchIndex;
+import com.elearn.search.SearchIndexUpdater;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Catalog changes reach the search index only once committed, in batches,
+ * with a full rebuild whenever the writer falls behind or a batch fails.
+ * The index's re-reads of the mocked repositories show what it was asked
+ * to do.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "search.index.queue-capacity=4",
+        "search.index.batch-window=PT0.2S"
+})
+@Import({SearchIndexUpdater.class, CatalogSearchIndex.class, SearchIndexUpdaterTest.Metrics.class})
+// Events are handed over when the test's own transactions commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SearchIndexUpdaterTest {
+
+    private static final long WAIT_MILLIS = 2_000;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private CourseRepo courseRepository;
+    @MockitoBean
+    private VideoRepository videoRepository;
+    @MockitoBean
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SearchIndexUpdater updater;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void startWriter() throws InterruptedException {
+        transaction = new TransactionTemplate(transactionManager);
+        // A fresh writer starts with a rebuild; changes published before it finishes would be folded into it
+        updater.stop();
+        updater.start();
+        verify(courseRepository, timeout(WAIT_MILLIS).atLeastOnce()).findAllSearchRows();
+        clearInvocations(courseRepository, videoRepository);
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        updater.stop();
+    }
+
+    @Test
+    void changesAreAppliedOnlyAfterTheirTransactionCommits() {
+        transaction.executeWithoutResult(status -> {
+            publisher.publishEvent(CatalogChangeEvent.course("c1"));
+            verify(courseRepository, after(500).never()).findSearchRowsByIdIn(any());
+        });
+
+        verify(courseRepository, timeout(WAIT_MILLIS)).findSearchRowsByIdIn(ids("c1"));
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheIndex() {
+        transaction.executeWithoutResult(status -> {
+            publisher.publishEvent(CatalogChangeEvent.course("c1"));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> publisher.publishEvent(CatalogChangeEvent.course("c2")));
+
+        verify(courseRepository, timeout(WAIT_MILLIS)).findSearchRowsByIdIn(ids("c2"));
+        verify(courseRepository, times(1)).findSearchRowsByIdIn(any());
+    }
+
+    @Test
+    void changesWithinTheBatchWindowAreAppliedTogether() {
+        publisher.publishEvent(CatalogChangeEvent.course("c1"));
+        publisher.publishEvent(CatalogChangeEvent.video("v1"));
+        publisher.publishEvent(CatalogChangeEvent.course("c2"));
+        publisher.publishEvent(CatalogChangeEvent.course("c1"));
+
+        verify(courseRepository, timeout(WAIT_MILLIS)).findSearchRowsByIdIn(ids("c1", "c2"));
+        verify(videoRepository, timeout(WAIT_MILLIS)).findSearchRowsByIdIn(ids("v1"));
+        verify(courseRepository, times(1)).findSearchRowsByIdIn(any());
+    }
+
+    @Test
+    void queueOverflowRebuildsInsteadOfReplaying() throws InterruptedException {
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(courseRepository.findSearchRowsByIdIn(ids("c0"))).thenAnswer(invocation -> {
+            applying.countDown();
+            released.await();
+            return List.of();
+        });
+
+        publisher.publishEvent(CatalogChangeEvent.course("c0"));
+        applying.await();
+        // The writer is stuck on c0, one more change than the queue holds arrives
+        for (int i = 1; i <= 5; i++) {
+            publisher.publishEvent(CatalogChangeEvent.course("c" + i));
+        }
+        released.countDown();
+
+        verify(courseRepository, timeout(WAIT_MILLIS)).findAllSearchRows();
+        verify(courseRepository, after(500).times(1)).findSearchRowsByIdIn(any());
+    }
+
+    @Test
+    void failedBatchTriggersARebuild() {
+        when(courseRepository.findSearchRowsByIdIn(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        publisher.publishEvent(CatalogChangeEvent.course("c1"));
+
+        verify(courseRepository, timeout(WAIT_MILLIS)).findSearchRowsByIdIn(ids("c1"));
+        verify(courseRepository, never()).findAllSearchRows();
+        // After the retry delay
+        verify(courseRepository, timeout(10_000)).findAllSearchRows();
+    }
+
+    private static Collection<String> ids(String... ids) {
+        return argThat(actual -> actual != null && new HashSet<>(actual).equals(Set.of(ids)));
+    }
+}
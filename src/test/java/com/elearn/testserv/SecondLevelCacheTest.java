@@ -0,0 +1,121 @@
+package com.elearn.testserv;
+
+import com.elearn.dto.CourseSummaryDto;
+import com.elearn.entity.Category;
+import com.elearn.entity.Course;
+import com.elearn.entity.Roles;
+import com.elearn.repository.CategoryRepository;
+import com.elearn.repository.CourseRepo;
+import com.elearn.repository.RoleRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Repeat reads of reference data served by the second-level cache, each in
+ * its own transaction as in the services.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+// Cached entries only appear once the writing transaction commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RoleRepo roleRepo;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CourseRepo courseRepo;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+        entityManagerFactory.getCache().evictAll();
+
+        roleRepo.save(new Roles("cache-role", "ROLE_CACHE_TEST", new java.util.HashSet<>()));
+        transaction.executeWithoutResult(status -> {
+            Category category = new Category();
+            category.setId("cache-category");
+            category.setTitle("Cached category");
+            Course course = new Course();
+            course.setId("cache-course");
+            course.setTitle("Caching 101");
+            course.addCourse(category);
+            courseRepo.save(course);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Removing the course cascades to its category
+        courseRepo.deleteById("cache-course");
+        categoryRepository.deleteById("cache-category");
+        roleRepo.deleteById("cache-role");
+    }
+
+    @Test
+    void repeatReadsSkipTheDatabase() {
+        statements(1, () -> roleRepo.findByRoleName("ROLE_CACHE_TEST"));
+        statements(0, () -> roleRepo.findByRoleName("ROLE_CACHE_TEST"));
+
+        // Entities are cached by the transaction writing them, links on their first load
+        statements(0, () -> categoryRepository.findById("cache-category"));
+        statements(1, () -> categoryLinks("cache-course"));
+        statements(0, () -> categoryLinks("cache-course"));
+        assertEquals(1, statistics.getDomainDataRegionStatistics("courses").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("course-categories").getHitCount());
+
+        statements(1, () -> courseRepo.findSummariesByCategoryId("cache-category"));
+        statements(0, () -> courseRepo.findSummariesByCategoryId("cache-category"));
+        assertEquals(1, statistics.getQueryRegionStatistics("default-query-results-region").getHitCount());
+    }
+
+    @Test
+    void writesInvalidateCachedQueries() {
+        statements(1, () -> courseRepo.findSummariesByCategoryId("cache-category"));
+
+        transaction.executeWithoutResult(status ->
+                courseRepo.findById("cache-course").orElseThrow().setTitle("Caching 102"));
+
+        List<CourseSummaryDto> summaries = statements(1, () -> courseRepo.findSummariesByCategoryId("cache-category"));
+        assertEquals("Caching 102", summaries.get(0).getTitle());
+        assertEquals("Caching 102", statements(0, () -> courseRepo.findById("cache-course")).orElseThrow().getTitle());
+    }
+
+    private int categoryLinks(String courseId) {
+        return transaction.execute(status -> courseRepo.findById(courseId).orElseThrow().getCategoryList().size());
+    }
+
+    private <T> T statements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements");
+        return result;
+    }
+}
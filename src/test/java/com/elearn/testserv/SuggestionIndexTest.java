@@ -0,0 +1,70 @@
+package com.elearn.testserv;
+
+import com.elearn.search.CatalogChangeEvent.Kind;
+import com.elearn.search.SearchDocument;
+import com.elearn.search.Suggestion;
+import com.elearn.search.SuggestionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        index.replaceAll(Kind.COURSE, List.of(
+                new SearchDocument("spring", null, "Introduction to Spring Boot"),
+                new SearchDocument("java", null, "Java Fundamentals"),
+                new SearchDocument("js", null, "JavaScript for the Web")));
+        index.replaceAll(Kind.VIDEO, List.of(
+                new SearchDocument("v1", "spring", "Spring Data repositories"),
+                new SearchDocument("v2", "js", "Java in the Browser")));
+        index.publish();
+    }
+
+    @Test
+    void matchesFromAnyWordButStopWords() {
+        assertEquals(List.of("v1", "spring"), ids(index.suggest("Spri", 10)));
+        assertEquals(List.of("spring"), ids(index.suggest("spring b", 10)));
+        assertEquals(List.of("spring"), ids(index.suggest("intro", 10)));
+        assertEquals(List.of("js"), ids(index.suggest("web", 10)));
+        assertTrue(index.suggest("the", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void ranksByPopularityThenLength() {
+        // Shorter title first while nothing has sold
+        assertEquals(List.of("java", "v2", "js"), ids(index.suggest("jav", 10)));
+
+        // Videos weigh as much as their course
+        index.updatePopularity(Map.of("js", 5L, "spring", 1L));
+        index.publish();
+        assertEquals(List.of("v2", "js", "java"), ids(index.suggest("jav", 10)));
+        assertEquals(List.of("v2"), ids(index.suggest("jav", 1)));
+    }
+
+    @Test
+    void appliesChangesToAffectedTitlesOnly() {
+        index.apply(Kind.COURSE, List.of(new SearchDocument("java", null, "Kotlin Fundamentals")), List.of("js"));
+        index.publish();
+
+        assertEquals(List.of("v2"), ids(index.suggest("jav", 10)));
+        assertEquals(List.of("java"), ids(index.suggest("kot", 10)));
+        assertEquals(List.of("java"), ids(index.suggest("fund", 10)));
+        assertEquals(List.of("v1", "spring"), ids(index.suggest("spring", 10)));
+        assertEquals(4, index.size());
+    }
+
+    private static List<String> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::id).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.elearn.testserv;
+
+import com.elearn.exception.InvalidInputException;
+import com.elearn.media.BannerSize;
+import com.elearn.media.ThumbnailGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ThumbnailGeneratorTest {
+
+    private ThumbnailGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new ThumbnailGenerator();
+        ReflectionTestUtils.setField(generator, "jpegQuality", 0.8f);
+    }
+
+    @Test
+    void rendersEveryVariantKeepingAspectRatio() throws Exception {
+        Map<BannerSize, byte[]> variants = generator.generate(new ByteArrayInputStream(png(3000, 1500)));
+
+        assertFalse(variants.containsKey(BannerSize.ORIGINAL));
+        assertSize(variants.get(BannerSize.THUMB), 200, 100);
+        assertSize(variants.get(BannerSize.CARD), 480, 240);
+        assertSize(variants.get(BannerSize.HERO), 1280, 640);
+    }
+
+    @Test
+    void neverUpscalesSmallImages() throws Exception {
+        Map<BannerSize, byte[]> variants = generator.generate(new ByteArrayInputStream(png(300, 150)));
+
+        assertSize(variants.get(BannerSize.THUMB), 200, 100);
+        assertSize(variants.get(BannerSize.HERO), 300, 150);
+    }
+
+    @Test
+    void rejectsNonImages() {
+        assertThrows(InvalidInputException.class,
+                () -> generator.generate(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void assertSize(byte[] jpeg, int width, int height) throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+}
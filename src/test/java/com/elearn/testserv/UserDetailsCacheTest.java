@@ -0,0 +1,174 @@
+package com.elearn.testserv;
+
+import com.elearn.entity.Roles;
+import com.elearn.entity.User;
+import com.elearn.repository.RoleRepo;
+import com.elearn.repository.UserRepository;
+import com.elearn.security.TokenVersionCache;
+import com.elearn.security.UserDetailsCache;
+import com.elearn.services.serviceImpl.CustomUserDetailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Users loaded for authentication come from the cache until a change to
+ * them commits.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({CustomUserDetailService.class, UserDetailsCache.class, TokenVersionCache.class,
+        UserDetailsCacheTest.Metrics.class})
+// Evictions happen when the changing transaction commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserDetailsCacheTest {
+
+    private static final String EMAIL = "cached@example.com";
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepo roleRepo;
+    @Autowired
+    private CustomUserDetailService userDetailService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Roles role = roleRepo.save(new Roles("cached-role", "ROLE_CACHED", new HashSet<>()));
+            User user = User.builder().userId("cached-user").email(EMAIL).password("old-hash").isActive(true)
+                    .roles(new HashSet<>()).build();
+            user.assignRole(role);
+            userRepository.save(user);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> roleRepo.findById("cached-role")
+                .ifPresent(role -> role.getUsers().clear()));
+        userRepository.deleteById("cached-user");
+        roleRepo.deleteById("cached-role");
+    }
+
+    @Test
+    void repeatLoadsSkipTheDatabase() {
+        statistics.clear();
+        UserDetails first = userDetailService.loadUserByUsername(EMAIL);
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+
+        statistics.clear();
+        assertSame(first, userDetailService.loadUserByUsername(EMAIL));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void passwordChangeEvicts() {
+        assertEquals("old-hash", userDetailService.loadUserByUsername(EMAIL).getPassword());
+
+        change(user -> user.setPassword("new-hash"));
+
+        assertEquals("new-hash", userDetailService.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    @Test
+    void roleChangeEvicts() {
+        assertEquals(1, userDetailService.loadUserByUsername(EMAIL).getAuthorities().size());
+
+        change(user -> user.removeRole(user.getRoles().iterator().next()));
+
+        assertTrue(userDetailService.loadUserByUsername(EMAIL).getAuthorities().isEmpty());
+    }
+
+    @Test
+    void deactivationEvicts() {
+        assertTrue(userDetailService.loadUserByUsername(EMAIL).isEnabled());
+
+        change(user -> user.setActive(false));
+
+        assertFalse(userDetailService.loadUserByUsername(EMAIL).isEnabled());
+    }
+
+    @Test
+    void rolledBackChangesKeepTheEntry() {
+        UserDetails cached = userDetailService.loadUserByUsername(EMAIL);
+
+        transaction.executeWithoutResult(status -> {
+            userRepository.findById("cached-user").orElseThrow().setPassword("discarded");
+            userRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertSame(cached, userDetailService.loadUserByUsername(EMAIL));
+    }
+
+    @Test
+    void loginRehashesPasswordsOfALowerStrength() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret-password");
+        change(user -> user.setPassword(weak));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new BCryptPasswordEncoder(5));
+        provider.setUserDetailsService(userDetailService);
+        provider.setUserDetailsPasswordService(userDetailService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "secret-password"));
+
+        String stored = userRepository.findById("cached-user").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$2a$05$"));
+        assertEquals(stored, userDetailService.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    private void change(Consumer<User> change) {
+        transaction.executeWithoutResult(status -> change.accept(userRepository.findById("cached-user").orElseThrow()));
+    }
+}
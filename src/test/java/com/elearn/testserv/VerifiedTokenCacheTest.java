@@ -0,0 +1,110 @@
+package com.elearn.testserv;
+
+import com.elearn.security.JwtPrincipal;
+import com.elearn.security.JwtUtil;
+import com.elearn.security.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(100, meterRegistry);
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromTheCache() {
+        JwtUtil jwtUtil = new JwtUtil(cache);
+        String token = jwtUtil.generateToken("learner@example.com");
+
+        JwtPrincipal principal = jwtUtil.verify(token);
+        assertEquals("learner@example.com", principal.username());
+        assertFalse(principal.isExpired(Instant.now()));
+        assertTrue(principal.expiresAt().isAfter(principal.issuedAt()));
+
+        assertSame(principal, jwtUtil.verify(token));
+        assertTrue(jwtUtil.validateToken(token, "learner@example.com"));
+        assertFalse(jwtUtil.validateToken(token, "someone@example.com"));
+        assertEquals(3, meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void rejectsTamperedTokensAndDoesNotCacheThem() {
+        JwtUtil jwtUtil = new JwtUtil(cache);
+        String token = jwtUtil.generateToken("learner@example.com");
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertThrows(JwtException.class, () -> jwtUtil.verify("not-a-token"));
+    }
+
+    @Test
+    void expiredEntriesAreVerifiedAgain() throws InterruptedException {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, JwtPrincipal> verifier = token -> {
+            verifications.incrementAndGet();
+            return principal(Instant.now().plus(Duration.ofMillis(50)));
+        };
+
+        cache.get("token", verifier);
+        cache.get("token", verifier);
+        assertEquals(1, verifications.get());
+
+        Thread.sleep(100);
+        cache.get("token", verifier);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void tokensWithoutExpiryAreNotCached() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, JwtPrincipal> verifier = token -> {
+            verifications.incrementAndGet();
+            return principal(null);
+        };
+
+        cache.get("token", verifier);
+        cache.get("token", verifier);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void zeroEntriesTurnsTheCacheOff() {
+        VerifiedTokenCache disabled = new VerifiedTokenCache(0, meterRegistry);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, JwtPrincipal> verifier = token -> {
+            verifications.incrementAndGet();
+            return principal(Instant.now().plusSeconds(60));
+        };
+
+        disabled.get("token", verifier);
+        disabled.get("token", verifier);
+        assertEquals(2, verifications.get());
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal("learner@example.com", "u1", List.of("ROLE_GUEST"), 0, Instant.now(), expiresAt);
+    }
+}
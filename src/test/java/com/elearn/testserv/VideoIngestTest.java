@@ -0,0 +1,261 @@
+package com.elearn.testserv;
+
+import com.elearn.dto.IngestJobDto;
+import com.elearn.exception.ServiceUnavailableException;
+import com.elearn.ingest.ChecksumStage;
+import com.elearn.ingest.IngestContext;
+import com.elearn.ingest.IngestJob;
+import com.elearn.ingest.IngestStage;
+import com.elearn.ingest.IngestState;
+import com.elearn.ingest.StoreStage;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.FileService;
+import com.elearn.services.serviceImpl.VideoIngestServiceImpl;
+import com.elearn.storage.StagedFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VideoIngestTest {
+
+    private static final String STORED_KEY = "media/aa/bb/aabbcc";
+
+    @TempDir
+    Path staging;
+
+    private VideoRepository videoRepository;
+    private FileService fileService;
+    private CountDownLatch probeReleased;
+    private VideoIngestServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        videoRepository = mock(VideoRepository.class);
+        when(videoRepository.existsById("v1")).thenReturn(true);
+
+        fileService = mock(FileService.class);
+        when(fileService.stage(any(), anyLong())).thenAnswer(invocation -> {
+            Path file = staging.resolve(UUID.randomUUID().toString());
+            try (InputStream in = invocation.getArgument(0)) {
+                long size = Files.copy(in, file);
+                return new StagedFile(file, size, null);
+            }
+        });
+        when(fileService.store(any(), anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            Files.delete(invocation.<StagedFile>getArgument(0).path());
+            return STORED_KEY;
+        });
+
+        probeReleased = new CountDownLatch(1);
+        service = newService(stage("probe", context -> await(probeReleased)),
+                new ChecksumStage(), new StoreStage(fileService));
+    }
+
+    @AfterEach
+    void tearDown() {
+        probeReleased.countDown();
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    void jobRunsEveryStageAndEndsSucceeded() throws Exception {
+        IngestJobDto submitted = submit();
+        assertFalse(submitted.getState().isFinished());
+        assertEquals(11, submitted.getTotalBytes());
+
+        probeReleased.countDown();
+        IngestJobDto finished = awaitFinished(submitted.getJobId());
+
+        assertEquals(IngestState.SUCCEEDED, finished.getState());
+        assertEquals("store", finished.getStage());
+        assertEquals("Stored as " + STORED_KEY, finished.getMessage());
+        assertEquals(11, finished.getProcessedBytes());
+        assertEquals(0, stagedFiles());
+    }
+
+    @Test
+    void fullQueueIsRefusedBeforeTheBodyIsRead() throws Exception {
+        IngestJobDto first = submit();
+
+        ByteArrayInputStream refusedBody = body();
+        assertThrows(ServiceUnavailableException.class,
+                () -> service.submit("v1", "lecture.mp4", "video/mp4", refusedBody));
+        assertEquals(11, refusedBody.available());
+        verify(fileService, times(1)).stage(any(), anyLong());
+
+        probeReleased.countDown();
+        awaitFinished(first.getJobId());
+        assertEquals(11, submit().getTotalBytes());
+    }
+
+    @Test
+    void failedStageFailsTheJobAndSkipsTheRest() throws Exception {
+        List<String> ranStages = new CopyOnWriteArrayList<>();
+        service = newService(stage("probe", context -> {
+                    throw new IOException("not a video");
+                }),
+                stage("checksum", context -> ranStages.add("checksum")));
+
+        IngestJobDto finished = awaitFinished(submit().getJobId());
+
+        assertEquals(IngestState.FAILED, finished.getState());
+        assertEquals("Failed in stage probe: not a video", finished.getMessage());
+        assertTrue(ranStages.isEmpty());
+        assertEquals(0, stagedFiles());
+        verify(fileService, never()).store(any(), anyString(), anyString(), anyString());
+        // The failed job gave its place in the queue back
+        assertEquals(11, submit().getTotalBytes());
+    }
+
+    @Test
+    void subscribersFollowTheJobUntilItFinishes() throws Exception {
+        IngestJobDto submitted = submit();
+        awaitState(submitted.getJobId(), IngestState.RUNNING);
+        // Held in the probe stage; subscribe() would hand out an emitter with no way to read it back
+        IngestJob job = ReflectionTestUtils.invokeMethod(service, "findJob", submitted.getJobId());
+        RecordingEmitter emitter = new RecordingEmitter();
+        job.subscribe(emitter);
+
+        probeReleased.countDown();
+        awaitFinished(submitted.getJobId());
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+
+        List<String> events = emitter.events;
+        assertEquals("status", events.get(0));
+        assertEquals("completed", events.get(events.size() - 1));
+        assertEquals(List.of("checksum", "store"), emitter.stages);
+        assertTrue(events.contains("progress"));
+        assertFalse(events.contains("failed"));
+    }
+
+    private VideoIngestServiceImpl newService(IngestStage... stages) {
+        VideoIngestServiceImpl ingest = new VideoIngestServiceImpl(videoRepository, fileService, List.of(stages),
+                new SimpleMeterRegistry(), 1, 1);
+        ReflectionTestUtils.setField(ingest, "maxUploadSize", 1024L);
+        ReflectionTestUtils.setField(ingest, "jobRetention", Duration.ofHours(1));
+        ReflectionTestUtils.setField(ingest, "sseTimeout", Duration.ofMinutes(1));
+        return ingest;
+    }
+
+    private IngestJobDto submit() throws IOException {
+        return service.submit("v1", "lecture.mp4", "video/mp4", body());
+    }
+
+    private IngestJobDto awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            IngestJobDto job = service.getJob(jobId);
+            if (job.getState().isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Ingest job " + jobId + " did not finish");
+    }
+
+    private void awaitState(String jobId, IngestState state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getJob(jobId).getState() != state) {
+            if (System.nanoTime() > deadline) {
+                fail("Ingest job " + jobId + " never reached " + state);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private long stagedFiles() throws IOException {
+        try (var files = Files.list(staging)) {
+            return files.count();
+        }
+    }
+
+    private static ByteArrayInputStream body() {
+        return new ByteArrayInputStream("video bytes".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+    }
+
+    private interface StageBody {
+        void process(IngestContext context) throws IOException;
+    }
+
+    private static IngestStage stage(String name, StageBody body) {
+        return new IngestStage() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void process(IngestContext context) throws IOException {
+                body.process(context);
+            }
+        };
+    }
+
+    /** Keeps the names of the events sent and the stages announced in "stage" events. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private final List<String> stages = new ArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String event = builder.build().iterator().next().getData().toString();
+            String name = event.substring("event:".length(), event.indexOf('\n'));
+            events.add(name);
+            if (name.equals("stage")) {
+                stages.add(builder.build().stream()
+                        .map(DataWithMediaType::getData)
+                        .filter(IngestJobDto.class::isInstance)
+                        .map(data -> ((IngestJobDto) data).getStage())
+                        .findFirst().orElseThrow());
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
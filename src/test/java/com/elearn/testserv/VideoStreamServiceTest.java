@@ -0,0 +1,121 @@
+package com.elearn.testserv;
+
+import com.elearn.entity.Video;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.serviceImpl.VideoStreamServiceImpl;
+import com.elearn.storage.LocalMediaStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VideoStreamServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path tempDir;
+
+    private VideoStreamServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = tempDir.resolve("lecture.mp4");
+        Files.writeString(file, CONTENT, StandardCharsets.US_ASCII);
+
+        Video video = new Video();
+        video.setId("video-1");
+        video.setFilePath("lecture.mp4");
+        video.setContentType("video/mp4");
+
+        VideoRepository videoRepository = mock(VideoRepository.class);
+        when(videoRepository.findById("video-1")).thenReturn(Optional.of(video));
+        service = new VideoStreamServiceImpl(videoRepository, new LocalMediaStore(tempDir));
+    }
+
+    @Test
+    void servesWholeFileWithoutRange() throws Exception {
+        MockHttpServletResponse response = stream(new MockHttpServletRequest("GET", "/"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void servesPartialContentForRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=5-9");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+        assertEquals(5, response.getContentLengthLong());
+        assertEquals("56789", response.getContentAsString());
+    }
+
+    @Test
+    void servesSuffixRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=-4");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("ghij", response.getContentAsString());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=50-60");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void staleIfRangeFallsBackToFullResponse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=0-1");
+        request.addHeader("If-Range", "\"stale\"");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void matchingIfRangeKeepsPartialResponse() throws Exception {
+        String etag = stream(new MockHttpServletRequest("HEAD", "/")).getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=0-1");
+        request.addHeader("If-Range", etag);
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("01", response.getContentAsString());
+    }
+
+    private MockHttpServletResponse stream(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.streamVideo("video-1", request, response);
+        return response;
+    }
+}
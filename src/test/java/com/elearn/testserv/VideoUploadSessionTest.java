@@ -0,0 +1,205 @@
+package com.elearn.testserv;
+
+import com.elearn.dto.UploadSessionDto;
+import com.elearn.dto.UploadSessionRequest;
+import com.elearn.entity.Video;
+import com.elearn.exception.InvalidInputException;
+import com.elearn.exception.ResourceNotFoundException;
+import com.elearn.media.PreparedVideo;
+import com.elearn.media.VideoFilePreparer;
+import com.elearn.repository.VideoRepository;
+import com.elearn.services.FileService;
+import com.elearn.services.serviceImpl.VideoUploadSessionServiceImpl;
+import com.elearn.storage.StagedFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VideoUploadSessionTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path uploads;
+
+    private VideoRepository videoRepo;
+    private FileService fileService;
+    private VideoFilePreparer videoFilePreparer;
+    private VideoUploadSessionServiceImpl service;
+    private List<byte[]> stored;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Video video = new Video();
+        video.setId("v1");
+        videoRepo = mock(VideoRepository.class);
+        when(videoRepo.existsById("v1")).thenReturn(true);
+        when(videoRepo.findById("v1")).thenReturn(Optional.of(video));
+
+        stored = new ArrayList<>();
+        fileService = mock(FileService.class);
+        when(fileService.store(any(), anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            StagedFile staged = invocation.getArgument(0);
+            stored.add(Files.readAllBytes(staged.path()));
+            Files.delete(staged.path());
+            return "videos/v1.mp4";
+        });
+        videoFilePreparer = mock(VideoFilePreparer.class);
+        when(videoFilePreparer.prepare(any())).thenReturn(new PreparedVideo(null, false));
+
+        service = new VideoUploadSessionServiceImpl(videoRepo, fileService, videoFilePreparer);
+        ReflectionTestUtils.setField(service, "uploadPath", uploads.toString());
+        ReflectionTestUtils.setField(service, "sessionTimeout", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "maxUploadSize", 1024L);
+    }
+
+    @Test
+    void outOfOrderChunksMergeIntoOneRange() throws Exception {
+        String uploadId = create();
+
+        write(uploadId, 10, 10);
+        write(uploadId, 0, 4);
+        UploadSessionDto partial = write(uploadId, 3, 4);
+        assertEquals(List.of(range(0, 6), range(10, 19)), ranges(partial));
+        assertEquals(17, partial.getReceivedBytes());
+        assertFalse(partial.isComplete());
+
+        UploadSessionDto complete = write(uploadId, 6, 5);
+        assertEquals(List.of(range(0, 19)), ranges(complete));
+        assertTrue(complete.isComplete());
+
+        service.completeSession("v1", uploadId);
+        assertArrayEquals(CONTENT, stored.get(0));
+    }
+
+    @Test
+    void completingAnIncompleteUploadFailsAndKeepsTheSession() throws Exception {
+        String uploadId = create();
+        write(uploadId, 0, 15);
+
+        InvalidInputException error = assertThrows(InvalidInputException.class,
+                () -> service.completeSession("v1", uploadId));
+        assertTrue(error.getMessage().contains("received 15 of 20 bytes"));
+
+        write(uploadId, 15, 5);
+        service.completeSession("v1", uploadId);
+        assertArrayEquals(CONTENT, stored.get(0));
+    }
+
+    @Test
+    void onlyOneOfConcurrentCompletionsSucceeds() throws Exception {
+        String uploadId = create();
+        write(uploadId, 0, CONTENT.length);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Object>> completions = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                completions.add(() -> {
+                    start.await();
+                    return service.completeSession("v1", uploadId);
+                });
+            }
+            List<Future<Object>> results = new ArrayList<>();
+            for (Callable<Object> completion : completions) {
+                results.add(executor.submit(completion));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Object> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(fileService, times(1)).store(any(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void failedCompletionDiscardsThePartFile() throws Exception {
+        String uploadId = create();
+        write(uploadId, 0, CONTENT.length);
+        when(videoFilePreparer.prepare(any())).thenThrow(new IOException("unreadable"));
+
+        assertThrows(IOException.class, () -> service.completeSession("v1", uploadId));
+
+        assertEquals(0, partFiles());
+        assertThrows(ResourceNotFoundException.class, () -> service.getSession("v1", uploadId));
+    }
+
+    @Test
+    void reaperDiscardsOnlyExpiredSessions() throws Exception {
+        String uploadId = create();
+        service.reapExpiredSessions();
+        assertEquals(1, partFiles());
+
+        ReflectionTestUtils.setField(service, "sessionTimeout", Duration.ofMillis(-1));
+        service.reapExpiredSessions();
+
+        assertEquals(0, partFiles());
+        assertThrows(ResourceNotFoundException.class, () -> service.getSession("v1", uploadId));
+    }
+
+    private String create() throws IOException {
+        return service.createSession("v1", new UploadSessionRequest("lecture.mp4", "video/mp4", CONTENT.length))
+                .getUploadId();
+    }
+
+    private UploadSessionDto write(String uploadId, int offset, int length) throws IOException {
+        return service.writeChunk("v1", uploadId, offset, length, new ByteArrayInputStream(CONTENT, offset, length));
+    }
+
+    private long partFiles() throws IOException {
+        try (Stream<Path> files = Files.list(uploads.resolve(".sessions"))) {
+            return files.count();
+        }
+    }
+
+    /** Received ranges, inclusive as in Content-Range */
+    private static List<String> ranges(UploadSessionDto session) {
+        return session.getReceivedRanges().stream().map(r -> r.getStart() + "-" + r.getEnd()).toList();
+    }
+
+    private static String range(long start, long end) {
+        return start + "-" + end;
+    }
+}